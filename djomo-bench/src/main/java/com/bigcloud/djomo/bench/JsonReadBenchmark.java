@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bigcloud.djomo.Json;
+
+/**
+ * Throughput of Json.read across every input path (byte[], InputStream, Reader
+ * and String) for each sample payload. Run with -prof gc to capture allocation
+ * per operation.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonReadBenchmark {
+	@Param({ Payloads.BEAN, Payloads.RECORD, Payloads.BUILDER, Payloads.MAP, Payloads.LIST, Payloads.NESTED })
+	public String payload;
+
+	Json json;
+	Type type;
+	String string;
+	byte[] bytes;
+
+	@Setup
+	public void setup() {
+		json = new Json();
+		type = Payloads.type(payload);
+		string = json.toString(Payloads.create(payload));
+		bytes = string.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Object readBytes() throws IOException {
+		return json.read(bytes, type);
+	}
+
+	@Benchmark
+	public Object readInputStream() throws IOException {
+		return json.read(new ByteArrayInputStream(bytes), type);
+	}
+
+	@Benchmark
+	public Object readReader() throws IOException {
+		return json.read(new StringReader(string), type);
+	}
+
+	@Benchmark
+	public Object readString() throws IOException {
+		return json.fromString(string, type);
+	}
+}
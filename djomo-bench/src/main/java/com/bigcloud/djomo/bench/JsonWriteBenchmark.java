@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bigcloud.djomo.Json;
+
+/**
+ * Throughput of Json.write and Json.toString across every output path
+ * (OutputStream, Writer and String) for each sample payload. The output
+ * streams are reset rather than reallocated so that -prof gc reports only the
+ * allocation done by djomo itself.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonWriteBenchmark {
+	@Param({ Payloads.BEAN, Payloads.RECORD, Payloads.BUILDER, Payloads.MAP, Payloads.LIST, Payloads.NESTED })
+	public String payload;
+
+	Json json;
+	Object data;
+	ByteArrayOutputStream out;
+	CharArrayWriter writer;
+
+	@Setup
+	public void setup() {
+		json = new Json();
+		data = Payloads.create(payload);
+		String str = json.toString(data);
+		out = new ByteArrayOutputStream(str.length() * 2);
+		writer = new CharArrayWriter(str.length());
+	}
+
+	@Benchmark
+	public int writeOutputStream() {
+		out.reset();
+		json.write(data, out);
+		return out.size();
+	}
+
+	@Benchmark
+	public int writeWriter() {
+		writer.reset();
+		json.write(data, writer);
+		return writer.size();
+	}
+
+	@Benchmark
+	public String writeString() {
+		return json.toString(data);
+	}
+
+	@Benchmark
+	public String writeIndentedString() {
+		return json.toString(data, "  ");
+	}
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.bench;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bigcloud.djomo.StaticType;
+
+/**
+ * Sample payloads shared by the read and write benchmarks, covering the main
+ * model families: beans, records, builders, maps, lists and deeply nested
+ * documents similar to TestLargeObject.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class Payloads {
+	public static final String BEAN = "bean";
+	public static final String RECORD = "record";
+	public static final String BUILDER = "builder";
+	public static final String MAP = "map";
+	public static final String LIST = "list";
+	public static final String NESTED = "nested";
+
+	public static Object create(String name) {
+		switch (name) {
+		case BEAN:
+			return bean(0);
+		case RECORD:
+			return record(0);
+		case BUILDER:
+			return builder(0);
+		case MAP:
+			return map(0);
+		case LIST:
+			List<Bean> list = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				list.add(bean(i));
+			}
+			return list;
+		case NESTED:
+			return nested();
+		default:
+			throw new IllegalArgumentException("Unknown payload " + name);
+		}
+	}
+
+	public static Type type(String name) {
+		switch (name) {
+		case BEAN:
+			return Bean.class;
+		case RECORD:
+			return Rec.class;
+		case BUILDER:
+			return Built.class;
+		case MAP:
+		case NESTED:
+			return Map.class;
+		case LIST:
+			return new StaticType<List<Bean>>() {};
+		default:
+			throw new IllegalArgumentException("Unknown payload " + name);
+		}
+	}
+
+	static Bean bean(int i) {
+		Bean bean = new Bean();
+		bean.setId(i);
+		bean.setTimestamp(1650000000000L + i);
+		bean.setScore(i * 1.25);
+		bean.setActive(i % 2 == 0);
+		bean.setName("Item number " + i);
+		bean.setDescription("A moderately long free text description for item " + i
+				+ ", with \"quotes\", a tab\tand some non-ascii text: caf\u00e9 \u2603");
+		bean.setTags(List.of("alpha", "beta", "gamma"));
+		bean.setValues(new int[] { i, i + 1, i + 2, i + 3, i + 4 });
+		return bean;
+	}
+
+	static Rec record(int i) {
+		return new Rec(i, 1650000000000L + i, i * 1.25, i % 2 == 0, "Item number " + i,
+				"A moderately long free text description for item " + i, List.of("alpha", "beta", "gamma"));
+	}
+
+	static Built builder(int i) {
+		return Built.builder().id(i).timestamp(1650000000000L + i).score(i * 1.25).active(i % 2 == 0)
+				.name("Item number " + i).description("A moderately long free text description for item " + i)
+				.build();
+	}
+
+	static Map<String, Object> map(int i) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("id", i);
+		map.put("timestamp", 1650000000000L + i);
+		map.put("score", i * 1.25);
+		map.put("active", i % 2 == 0);
+		map.put("name", "Item number " + i);
+		map.put("tags", List.of("alpha", "beta", "gamma"));
+		map.put("missing", null);
+		return map;
+	}
+
+	static Map<String, Object> nested() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (int i = 1; i < 20; i++) {
+			Map<String, Object> sub = new LinkedHashMap<>();
+			for (int j = 1; j < 20; j++) {
+				char[] chars = new char[j * i];
+				Arrays.fill(chars, 'a');
+				sub.put(String.valueOf(j), new String(chars));
+				sub.put("escaped", "\" \\ \"");
+				sub.put("child", map(j));
+			}
+			map.put(String.valueOf(i), sub);
+		}
+		return map;
+	}
+
+	public static class Bean {
+		private int id;
+		private long timestamp;
+		private double score;
+		private boolean active;
+		private String name;
+		private String description;
+		private List<String> tags;
+		private int[] values;
+
+		public int getId() {
+			return id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public void setTimestamp(long timestamp) {
+			this.timestamp = timestamp;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public void setScore(double score) {
+			this.score = score;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(String description) {
+			this.description = description;
+		}
+
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+
+		public int[] getValues() {
+			return values;
+		}
+
+		public void setValues(int[] values) {
+			this.values = values;
+		}
+	}
+
+	public static record Rec(int id, long timestamp, double score, boolean active, String name, String description,
+			List<String> tags) {
+	}
+
+	public static class Built {
+		private final int id;
+		private final long timestamp;
+		private final double score;
+		private final boolean active;
+		private final String name;
+		private final String description;
+
+		Built(Builder builder) {
+			this.id = builder.id;
+			this.timestamp = builder.timestamp;
+			this.score = builder.score;
+			this.active = builder.active;
+			this.name = builder.name;
+			this.description = builder.description;
+		}
+
+		public static Builder builder() {
+			return new Builder();
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public static class Builder {
+			private int id;
+			private long timestamp;
+			private double score;
+			private boolean active;
+			private String name;
+			private String description;
+
+			public Builder id(int id) {
+				this.id = id;
+				return this;
+			}
+
+			public Builder timestamp(long timestamp) {
+				this.timestamp = timestamp;
+				return this;
+			}
+
+			public Builder score(double score) {
+				this.score = score;
+				return this;
+			}
+
+			public Builder active(boolean active) {
+				this.active = active;
+				return this;
+			}
+
+			public Builder name(String name) {
+				this.name = name;
+				return this;
+			}
+
+			public Builder description(String description) {
+				this.description = description;
+				return this;
+			}
+
+			public Built build() {
+				return new Built(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor;
+
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * One field of a generated model, as source code fragments
+ * 
+ * @author Alex Vigdor
+ *
+ */
+class FieldSpec {
+	final String name;
+	TypeMirror accessorType;
+	TypeMirror mutatorType;
+	/**
+	 * Produces the expression reading the field from a variable
+	 */
+	UnaryOperator<String> getter;
+	/**
+	 * Produces the statement writing a value expression to the field of a
+	 * variable
+	 */
+	BinaryOperator<String> setter;
+	/**
+	 * int, long, double, float, boolean or String for fields with specialized
+	 * parse and visit calls, otherwise null
+	 */
+	String kind;
+	/**
+	 * source name of the erased field type
+	 */
+	String typeName;
+	/**
+	 * source name of the field type, boxed if primitive
+	 */
+	String boxedName;
+	/**
+	 * expression for the field type as a java.lang.reflect.Type
+	 */
+	String typeExpression;
+	/**
+	 * whether the field type is primitive, so a record component must be set
+	 */
+	boolean primitive;
+	/**
+	 * constructor argument index of a record component, otherwise -1
+	 */
+	int component = -1;
+
+	FieldSpec(String name) {
+		this.name = name;
+	}
+
+	void accessor(TypeMirror type, UnaryOperator<String> getter) {
+		this.accessorType = type;
+		this.getter = getter;
+	}
+
+	void mutator(TypeMirror type, BinaryOperator<String> setter) {
+		this.mutatorType = type;
+		this.setter = setter;
+	}
+
+	TypeMirror type() {
+		return accessorType != null ? accessorType : mutatorType;
+	}
+}
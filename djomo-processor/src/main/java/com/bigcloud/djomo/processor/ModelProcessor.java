@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+
+/**
+ * <p>
+ * Annotation processor generating an ObjectModel for every class marked with
+ * {@code @com.bigcloud.djomo.annotation.Generate}, so that the model is ready
+ * without reflection, MethodHandle unreflection or field lookup tables being
+ * built at runtime.
+ * </p>
+ * <p>
+ * Each package with marked classes gets a {@value #FACTORY_NAME} ModelFactory,
+ * and all factories are listed in
+ * META-INF/services/com.bigcloud.djomo.api.ModelFactory for
+ * {@code Models.Builder.loadFactories()}; a modular application must also
+ * declare them with {@code provides} in its module-info.
+ * </p>
+ * 
+ * @author Alex Vigdor
+ *
+ */
+@SupportedAnnotationTypes(ModelProcessor.GENERATE)
+public class ModelProcessor extends AbstractProcessor {
+	static final String GENERATE = "com.bigcloud.djomo.annotation.Generate";
+	static final String IGNORE = "com.bigcloud.djomo.annotation.Ignore";
+	static final String ORDER = "com.bigcloud.djomo.annotation.Order";
+	static final String FACTORY_NAME = "DjomoModelFactory";
+	private static final String SERVICES = "META-INF/services/com.bigcloud.djomo.api.ModelFactory";
+
+	// package -> model class by type, awaiting a factory
+	private final Map<String, Map<String, String>> pending = new TreeMap<>();
+	private final Set<String> factories = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		if (round.processingOver()) {
+			writeFactories();
+			writeServices();
+			return false;
+		}
+		boolean found = false;
+		TypeElement generate = processingEnv.getElementUtils().getTypeElement(GENERATE);
+		if (generate != null) {
+			for (Element element : round.getElementsAnnotatedWith(generate)) {
+				found = true;
+				try {
+					writeModel((TypeElement) element);
+				} catch (ModelSpecException e) {
+					processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), e.element);
+				}
+			}
+		}
+		// factories go out once a round turns up no further classes, so they are
+		// compiled with the models
+		if (!found) {
+			writeFactories();
+		}
+		return false;
+	}
+
+	private void writeModel(TypeElement type) throws ModelSpecException {
+		ModelSpec spec = ModelSpec.of(processingEnv, type);
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String className = modelName(type, packageName);
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualify(packageName, className), type)
+				.openWriter()) {
+			new ModelWriter(spec, packageName, className).write(writer);
+		} catch (IOException e) {
+			throw new ModelSpecException("Unable to write model " + className + ": " + e, type);
+		}
+		pending.computeIfAbsent(packageName, p -> new TreeMap<>()).put(spec.typeName, className);
+	}
+
+	private void writeFactories() {
+		pending.forEach((packageName, models) -> {
+			String factory = qualify(packageName, FACTORY_NAME);
+			try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(factory).openWriter())) {
+				if (!packageName.isEmpty()) {
+					out.println("package " + packageName + ";");
+					out.println();
+				}
+				out.println("import java.lang.reflect.Type;");
+				out.println();
+				out.println("import com.bigcloud.djomo.api.Model;");
+				out.println("import com.bigcloud.djomo.api.ModelContext;");
+				out.println("import com.bigcloud.djomo.api.ModelFactory;");
+				out.println();
+				out.println("/**");
+				out.println(" * Generated by " + ModelProcessor.class.getName());
+				out.println(" */");
+				out.println("public final class " + FACTORY_NAME + " implements ModelFactory {");
+				out.println("\t@Override");
+				out.println("\tpublic Model<?> create(Type type, ModelContext context) {");
+				models.forEach((type, model) -> {
+					out.println("\t\tif (type == " + type + ".class) {");
+					out.println("\t\t\treturn new " + model + "(context);");
+					out.println("\t\t}");
+				});
+				out.println("\t\treturn null;");
+				out.println("\t}");
+				out.println("}");
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + factory + ": " + e);
+			}
+			factories.add(factory);
+		});
+		pending.clear();
+	}
+
+	private void writeServices() {
+		if (factories.isEmpty()) {
+			return;
+		}
+		try (PrintWriter out = new PrintWriter(
+				processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES).openWriter())) {
+			factories.forEach(out::println);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + SERVICES + ": " + e);
+		}
+	}
+
+	/**
+	 * Flattens nesting into the name, so Outer.Inner is modeled by Outer_Inner_Model
+	 */
+	private static String modelName(TypeElement type, String packageName) {
+		String name = type.getQualifiedName().toString();
+		if (!packageName.isEmpty()) {
+			name = name.substring(packageName.length() + 1);
+		}
+		return name.replace('.', '_') + "_Model";
+	}
+
+	private static String qualify(String packageName, String className) {
+		return packageName.isEmpty() ? className : packageName + "." + className;
+	}
+}
@@ -0,0 +1,378 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Compile time counterpart of ObjectModelFactory and the bean, record and
+ * builder models: discovers the fields of a class by the same naming rules,
+ * and describes them as source fragments for the {@link ModelWriter}.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+class ModelSpec {
+	enum Kind {
+		BEAN, RECORD, BUILDER
+	}
+
+	private static final Set<TypeKind> SPECIALIZED = Set.of(TypeKind.INT, TypeKind.LONG, TypeKind.DOUBLE,
+			TypeKind.FLOAT, TypeKind.BOOLEAN);
+
+	final Kind kind;
+	final String typeName;
+	final String builderTypeName;
+	final String builderMethod;
+	final int components;
+	final List<FieldSpec> fields;
+
+	private ModelSpec(Kind kind, String typeName, String builderTypeName, String builderMethod, int components,
+			List<FieldSpec> fields) {
+		this.kind = kind;
+		this.typeName = typeName;
+		this.builderTypeName = builderTypeName;
+		this.builderMethod = builderMethod;
+		this.components = components;
+		this.fields = fields;
+	}
+
+	static ModelSpec of(ProcessingEnvironment env, TypeElement type) throws ModelSpecException {
+		return new Scanner(env).scan(type);
+	}
+
+	private static class Scanner {
+		final Types types;
+		final Elements elements;
+		final Map<String, FieldSpec> fields = new LinkedHashMap<>();
+
+		Scanner(ProcessingEnvironment env) {
+			this.types = env.getTypeUtils();
+			this.elements = env.getElementUtils();
+		}
+
+		ModelSpec scan(TypeElement type) throws ModelSpecException {
+			Set<Modifier> modifiers = type.getModifiers();
+			if ((type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD)
+					|| modifiers.contains(Modifier.ABSTRACT)) {
+				throw new ModelSpecException("@Generate requires a concrete class or record", type);
+			}
+			if (!type.getTypeParameters().isEmpty()) {
+				throw new ModelSpecException("@Generate does not support generic classes", type);
+			}
+			if (modifiers.contains(Modifier.PRIVATE)
+					|| (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))) {
+				throw new ModelSpecException("@Generate requires a top level or static nested class visible to its package",
+						type);
+			}
+			final String typeName = sourceName(type.asType());
+			final DeclaredType declared = (DeclaredType) type.asType();
+			Kind kind;
+			String builderTypeName = null;
+			String builderMethod = null;
+			int components = 0;
+			if (type.getKind() == ElementKind.RECORD) {
+				kind = Kind.RECORD;
+				getters(type, declared);
+				var rcs = type.getRecordComponents();
+				components = rcs.size();
+				for (int i = 0; i < rcs.size(); i++) {
+					RecordComponentElement rc = rcs.get(i);
+					final String accessor = rc.getAccessor().getSimpleName().toString();
+					final int index = i;
+					var field = field(rc.getSimpleName().toString());
+					field.component = index;
+					field.accessor(rc.asType(), v -> "((" + typeName + ") " + v + ")." + accessor + "()");
+					field.mutator(rc.asType(), (v, x) -> "((Object[]) " + v + ")[" + index + "] = " + x);
+				}
+			} else {
+				ExecutableElement builder = findBuilder(type);
+				if (builder != null) {
+					kind = Kind.BUILDER;
+					builderMethod = builder.getSimpleName().toString();
+					TypeElement builderType = (TypeElement) types.asElement(builder.getReturnType());
+					builderTypeName = sourceName(builderType.asType());
+					getters(type, declared);
+					builderMethods(builderType, builderTypeName);
+				} else {
+					kind = Kind.BEAN;
+					boolean constructible = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+							.anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+					if (!constructible) {
+						throw new ModelSpecException("@Generate requires a public no-argument constructor or a builder",
+								type);
+					}
+					publicFields(type, declared, typeName);
+					getters(type, declared);
+					setters(type, declared, typeName);
+				}
+			}
+			List<FieldSpec> resolved = new ArrayList<>();
+			for (FieldSpec field : fields.values()) {
+				resolve(field, type);
+				resolved.add(field);
+			}
+			sort(resolved, type);
+			return new ModelSpec(kind, typeName, builderTypeName, builderMethod, components, resolved);
+		}
+
+		FieldSpec field(String name) {
+			return fields.computeIfAbsent(name, FieldSpec::new);
+		}
+
+		boolean eligible(Element member) {
+			Set<Modifier> modifiers = member.getModifiers();
+			return modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC)
+					&& !annotated(member, ModelProcessor.IGNORE);
+		}
+
+		boolean annotated(Element element, String annotation) {
+			return annotation(element.getAnnotationMirrors(), annotation) != null;
+		}
+
+		AnnotationMirror annotation(List<? extends AnnotationMirror> mirrors, String annotation) {
+			for (AnnotationMirror mirror : mirrors) {
+				if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+						.contentEquals(annotation)) {
+					return mirror;
+				}
+			}
+			return null;
+		}
+
+		void publicFields(TypeElement type, DeclaredType declared, String typeName) {
+			for (VariableElement field : ElementFilter.fieldsIn(elements.getAllMembers(type))) {
+				if (eligible(field)) {
+					final String name = field.getSimpleName().toString();
+					TypeMirror ft = types.asMemberOf(declared, field);
+					var spec = field(name);
+					spec.accessor(ft, v -> "((" + typeName + ") " + v + ")." + name);
+					if (!field.getModifiers().contains(Modifier.FINAL)) {
+						spec.mutator(ft, (v, x) -> "((" + typeName + ") " + v + ")." + name + " = " + x);
+					}
+				}
+			}
+		}
+
+		void getters(TypeElement type, DeclaredType declared) {
+			final String typeName = sourceName(type.asType());
+			for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+				if (!eligible(method) || !method.getParameters().isEmpty()) {
+					continue;
+				}
+				final String methodName = method.getSimpleName().toString();
+				String name;
+				if (methodName.startsWith("get") && methodName.length() > 3) {
+					name = decapitalize(methodName.substring(3));
+					if ("class".equals(name)) {
+						continue;
+					}
+				} else if (methodName.startsWith("is") && methodName.length() > 2) {
+					name = decapitalize(methodName.substring(2));
+				} else {
+					continue;
+				}
+				TypeMirror rt = ((ExecutableType) types.asMemberOf(declared, method)).getReturnType();
+				if (rt.getKind() != TypeKind.VOID) {
+					field(name).accessor(rt, v -> "((" + typeName + ") " + v + ")." + methodName + "()");
+				}
+			}
+		}
+
+		void setters(TypeElement type, DeclaredType declared, String typeName) {
+			for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+				final String methodName = method.getSimpleName().toString();
+				if (eligible(method) && method.getParameters().size() == 1 && methodName.startsWith("set")
+						&& methodName.length() > 3) {
+					TypeMirror pt = ((ExecutableType) types.asMemberOf(declared, method)).getParameterTypes().get(0);
+					field(decapitalize(methodName.substring(3))).mutator(pt,
+							(v, x) -> "((" + typeName + ") " + v + ")." + methodName + "(" + x + ")");
+				}
+			}
+		}
+
+		ExecutableElement findBuilder(TypeElement type) {
+			for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				String name = method.getSimpleName().toString();
+				Set<Modifier> modifiers = method.getModifiers();
+				if (modifiers.contains(Modifier.STATIC) && modifiers.contains(Modifier.PUBLIC)
+						&& (name.contains("builder") || name.contains("Builder")) && method.getParameters().isEmpty()
+						&& !annotated(method, ModelProcessor.IGNORE)
+						&& method.getReturnType().getKind() == TypeKind.DECLARED) {
+					TypeElement builderType = (TypeElement) types.asElement(method.getReturnType());
+					for (ExecutableElement build : ElementFilter.methodsIn(elements.getAllMembers(builderType))) {
+						if (build.getSimpleName().contentEquals("build") && build.getParameters().isEmpty()
+								&& build.getModifiers().contains(Modifier.PUBLIC)
+								&& types.isSameType(build.getReturnType(), type.asType())) {
+							return method;
+						}
+					}
+				}
+			}
+			return null;
+		}
+
+		void builderMethods(TypeElement builderType, String builderTypeName) {
+			DeclaredType declared = (DeclaredType) builderType.asType();
+			for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(builderType))) {
+				final String methodName = method.getSimpleName().toString();
+				if (!eligible(method) || method.getParameters().size() != 1 || "wait".equals(methodName)
+						|| "equals".equals(methodName)) {
+					continue;
+				}
+				String name = methodName;
+				if (name.startsWith("set") && name.length() > 3 && Character.isUpperCase(name.charAt(3))) {
+					name = decapitalize(name.substring(3));
+				}
+				TypeMirror pt = ((ExecutableType) types.asMemberOf(declared, method)).getParameterTypes().get(0);
+				field(name).mutator(pt, (v, x) -> "((" + builderTypeName + ") " + v + ")." + methodName + "(" + x + ")");
+			}
+		}
+
+		void resolve(FieldSpec field, TypeElement type) throws ModelSpecException {
+			if (field.accessorType != null && field.mutatorType != null
+					&& !types.isAssignable(field.accessorType, field.mutatorType)) {
+				throw new ModelSpecException("Field " + field.name + " is read as " + field.accessorType
+						+ " but written as " + field.mutatorType + "; use @Ignore on one of them", type);
+			}
+			TypeMirror ft = field.type();
+			field.typeName = sourceName(ft);
+			field.typeExpression = typeExpression(ft, type);
+			if (ft.getKind().isPrimitive()) {
+				field.boxedName = types.boxedClass((PrimitiveType) ft).getQualifiedName().toString();
+				field.primitive = true;
+				if (SPECIALIZED.contains(ft.getKind())) {
+					field.kind = field.typeName;
+				}
+			} else {
+				field.boxedName = field.typeName;
+				if ("java.lang.String".equals(field.typeName)) {
+					field.kind = "String";
+				}
+			}
+		}
+
+		/**
+		 * Same ordering as BaseObjectModel: by position in @Order, then by name
+		 */
+		void sort(List<FieldSpec> resolved, TypeElement type) {
+			List<String> declared = new ArrayList<>();
+			AnnotationMirror order = annotation(elements.getAllAnnotationMirrors(type), ModelProcessor.ORDER);
+			if (order != null) {
+				for (var entry : order.getElementValues().entrySet()) {
+					if (entry.getKey().getSimpleName().contentEquals("value")) {
+						for (Object v : (List<?>) entry.getValue().getValue()) {
+							declared.add(((AnnotationValue) v).getValue().toString());
+						}
+					}
+				}
+			}
+			resolved.sort((a, b) -> {
+				int p1 = declared.indexOf(a.name);
+				int p2 = declared.indexOf(b.name);
+				p1 = p1 < 0 ? declared.size() : p1;
+				p2 = p2 < 0 ? declared.size() : p2;
+				if (p1 == p2) {
+					return a.name.compareTo(b.name);
+				}
+				return p1 - p2;
+			});
+		}
+
+		String sourceName(TypeMirror type) {
+			switch (type.getKind()) {
+			case ARRAY:
+				return sourceName(((ArrayType) type).getComponentType()) + "[]";
+			case DECLARED:
+				return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+			case TYPEVAR:
+			case WILDCARD:
+				return sourceName(types.erasure(type));
+			default:
+				return type.getKind().name().toLowerCase();
+			}
+		}
+
+		String typeExpression(TypeMirror type, Element at) throws ModelSpecException {
+			switch (type.getKind()) {
+			case DECLARED:
+				DeclaredType dt = (DeclaredType) type;
+				String raw = sourceName(type) + ".class";
+				if (dt.getTypeArguments().isEmpty()) {
+					return raw;
+				}
+				TypeElement element = (TypeElement) dt.asElement();
+				String owner = element.getNestingKind() == NestingKind.MEMBER
+						? sourceName(element.getEnclosingElement().asType()) + ".class"
+						: "null";
+				StringBuilder expr = new StringBuilder("new com.bigcloud.djomo.ModelType(").append(owner).append(", ")
+						.append(raw);
+				for (TypeMirror arg : dt.getTypeArguments()) {
+					expr.append(", ").append(typeExpression(arg, at));
+				}
+				return expr.append(')').toString();
+			case WILDCARD:
+				WildcardType wt = (WildcardType) type;
+				if (wt.getSuperBound() != null) {
+					return typeExpression(wt.getSuperBound(), at);
+				}
+				if (wt.getExtendsBound() != null) {
+					return typeExpression(wt.getExtendsBound(), at);
+				}
+				return "Object.class";
+			case ARRAY:
+				return sourceName(types.erasure(type)) + ".class";
+			case TYPEVAR:
+				throw new ModelSpecException("@Generate does not support type variable " + type, at);
+			default:
+				if (type.getKind().isPrimitive()) {
+					return sourceName(type) + ".class";
+				}
+				throw new ModelSpecException("@Generate does not support type " + type, at);
+			}
+		}
+
+		static String decapitalize(String name) {
+			return name.substring(0, 1).toLowerCase().concat(name.substring(1));
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Reports a class that cannot have a model generated, pointing at the element
+ * at fault
+ * 
+ * @author Alex Vigdor
+ *
+ */
+class ModelSpecException extends Exception {
+	private static final long serialVersionUID = 2958211327318011522L;
+	final transient Element element;
+
+	ModelSpecException(String message, Element element) {
+		super(message);
+		this.element = element;
+	}
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the source of a generated model: a BaseGeneratedModel subclass with
+ * one nested BaseGeneratedField class per field, a switch on name length for
+ * field lookup, and straight-line calls for construction and visiting.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+class ModelWriter {
+	private final ModelSpec spec;
+	private final String packageName;
+	private final String className;
+	private PrintWriter out;
+
+	ModelWriter(ModelSpec spec, String packageName, String className) {
+		this.spec = spec;
+		this.packageName = packageName;
+		this.className = className;
+	}
+
+	void write(Writer writer) {
+		out = new PrintWriter(writer);
+		if (!packageName.isEmpty()) {
+			out.println("package " + packageName + ";");
+			out.println();
+		}
+		out.println("import com.bigcloud.djomo.api.Field;");
+		out.println("import com.bigcloud.djomo.api.Model;");
+		out.println("import com.bigcloud.djomo.api.ModelContext;");
+		out.println("import com.bigcloud.djomo.api.Parser;");
+		out.println("import com.bigcloud.djomo.api.Visitor;");
+		out.println("import com.bigcloud.djomo.base.BaseGeneratedField;");
+		out.println("import com.bigcloud.djomo.base.BaseGeneratedModel;");
+		out.println();
+		out.println("/**");
+		out.println(" * Generated by " + ModelProcessor.class.getName() + " for " + spec.typeName);
+		out.println(" */");
+		out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+		out.println("public final class " + className + " extends BaseGeneratedModel<" + spec.typeName + "> {");
+		for (FieldSpec field : spec.fields) {
+			out.println("\tprivate final " + fieldClass(field) + " " + fieldVar(field) + ";");
+		}
+		out.println();
+		out.println("\tpublic " + className + "(ModelContext context) {");
+		out.println("\t\tsuper(" + spec.typeName + ".class, context);");
+		for (FieldSpec field : spec.fields) {
+			out.println("\t\t" + fieldVar(field) + " = new " + fieldClass(field) + "(context.get(" + field.typeExpression
+					+ "));");
+		}
+		out.println("\t\tinitFields(" + spec.fields.stream().map(this::fieldVar).collect(Collectors.joining(", "))
+				+ ");");
+		out.println("\t}");
+		writeMakers();
+		writeVisitFields();
+		writeGetField();
+		for (FieldSpec field : spec.fields) {
+			writeField(field);
+		}
+		out.println("}");
+		out.flush();
+	}
+
+	private void writeMakers() {
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic Object maker() {");
+		switch (spec.kind) {
+		case RECORD:
+			out.println("\t\treturn new Object[" + spec.components + "];");
+			break;
+		case BUILDER:
+			out.println("\t\treturn " + spec.typeName + "." + spec.builderMethod + "();");
+			break;
+		default:
+			out.println("\t\treturn new " + spec.typeName + "();");
+		}
+		out.println("\t}");
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic " + spec.typeName + " make(Object maker) {");
+		switch (spec.kind) {
+		case RECORD:
+			out.println("\t\tObject[] args = (Object[]) maker;");
+			out.print("\t\treturn new " + spec.typeName + "(");
+			String[] args = new String[spec.components];
+			for (FieldSpec field : spec.fields) {
+				if (field.component < 0) {
+					continue;
+				}
+				String arg = "args[" + field.component + "]";
+				args[field.component] = field.primitive
+						? "(" + field.boxedName + ") required(" + arg + ", \"" + field.name + "\")"
+						: "(" + field.typeName + ") " + arg;
+			}
+			out.print(String.join(", ", args));
+			out.println(");");
+			break;
+		case BUILDER:
+			out.println("\t\treturn ((" + spec.builderTypeName + ") maker).build();");
+			break;
+		default:
+			out.println("\t\treturn (" + spec.typeName + ") maker;");
+		}
+		out.println("\t}");
+	}
+
+	private void writeVisitFields() {
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic void visitFields(" + spec.typeName + " t, Visitor visitor) {");
+		for (FieldSpec field : spec.fields) {
+			if (field.getter != null) {
+				out.println("\t\t" + fieldVar(field) + ".visit(t, visitor);");
+			}
+		}
+		out.println("\t}");
+	}
+
+	private void writeGetField() {
+		Map<Integer, List<FieldSpec>> byLength = new TreeMap<>(
+				spec.fields.stream().collect(Collectors.groupingBy(f -> f.name.length())));
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic Field getField(CharSequence name) {");
+		out.println("\t\tswitch (name.length()) {");
+		byLength.forEach((length, fields) -> {
+			out.println("\t\tcase " + length + ":");
+			for (FieldSpec field : fields) {
+				out.println("\t\t\tif (matches(name, \"" + field.name + "\")) {");
+				out.println("\t\t\t\treturn " + fieldVar(field) + ";");
+				out.println("\t\t\t}");
+			}
+			out.println("\t\t\tbreak;");
+		});
+		out.println("\t\tdefault:");
+		out.println("\t\t}");
+		out.println("\t\treturn null;");
+		out.println("\t}");
+	}
+
+	private void writeField(FieldSpec field) {
+		out.println();
+		out.println("\tstatic final class " + fieldClass(field) + " extends BaseGeneratedField {");
+		out.println("\t\t" + fieldClass(field) + "(Model model) {");
+		out.println("\t\t\tsuper(\"" + field.name + "\", model);");
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tpublic Object get(Object o) {");
+		out.println("\t\t\treturn " + (field.getter != null ? field.getter.apply("o") : "null") + ";");
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tpublic void set(Object d, Object v) {");
+		if (field.setter != null) {
+			out.println("\t\t\t" + field.setter.apply("d", "(" + field.boxedName + ") v") + ";");
+		}
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tpublic void visit(Object o, Visitor visitor) {");
+		if (field.getter != null) {
+			String value = field.getter.apply("o");
+			if (field.kind == null) {
+				out.println("\t\t\t" + field.typeName + " value = " + value + ";");
+				out.println("\t\t\tvisitKey(visitor);");
+				out.println("\t\t\tmodel.tryVisit(value, visitor);");
+			} else if ("String".equals(field.kind)) {
+				out.println("\t\t\tjava.lang.String value = " + value + ";");
+				out.println("\t\t\tvisitKey(visitor);");
+				out.println("\t\t\tif (value == null) {");
+				out.println("\t\t\t\tvisitor.visitNull();");
+				out.println("\t\t\t} else {");
+				out.println("\t\t\t\tvisitor.visitString(value);");
+				out.println("\t\t\t}");
+			} else {
+				out.println("\t\t\tvisitKey(visitor);");
+				out.println("\t\t\tvisitor.visit" + capitalize(field.kind) + "(" + value + ");");
+			}
+		}
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tpublic void parse(Object d, Parser parser) {");
+		if (field.setter == null) {
+			// consume the value without a place to put it
+			out.println("\t\t\tparser.parse(model);");
+		} else if (field.kind == null) {
+			out.println("\t\t\t" + field.setter.apply("d", "(" + field.boxedName + ") parser.parse(model)") + ";");
+		} else if ("String".equals(field.kind)) {
+			out.println("\t\t\tCharSequence value = parser.parseString();");
+			out.println("\t\t\t" + field.setter.apply("d", "value == null ? null : value.toString()") + ";");
+		} else {
+			out.println("\t\t\t" + field.setter.apply("d", "parser.parse" + capitalize(field.kind) + "()") + ";");
+		}
+		out.println("\t\t}");
+		out.println("\t}");
+	}
+
+	private String fieldClass(FieldSpec field) {
+		return "Field_" + field.name;
+	}
+
+	private String fieldVar(FieldSpec field) {
+		return "f_" + field.name;
+	}
+
+	private static String capitalize(String name) {
+		return name.substring(0, 1).toUpperCase().concat(name.substring(1));
+	}
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.processor.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.base.BaseGeneratedModel;
+import com.bigcloud.djomo.base.BaseVisitorFilter;
+import com.bigcloud.djomo.processor.ModelProcessor;
+
+public class ModelProcessorTest {
+	static class TitleRename extends BaseVisitorFilter {
+		@Override
+		public void visitObjectField(Object name) {
+			String field = (String) name;
+			super.visitObjectField("title".equals(field) ? "summary" : field);
+		}
+	}
+
+	ClassLoader loader;
+	Json reflective = new Json();
+	Json generated;
+
+	private boolean compile(Path out, List<? extends JavaFileObject> sources, DiagnosticCollector<JavaFileObject> diagnostics)
+			throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		var fileManager = javac.getStandardFileManager(diagnostics, null, null);
+		var task = javac.getTask(null, fileManager, diagnostics,
+				List.of("-d", out.toString(), "-classpath", System.getProperty("java.class.path")), null,
+				sources);
+		task.setProcessors(List.of(new ModelProcessor()));
+		boolean result = task.call();
+		fileManager.close();
+		return result;
+	}
+
+	@BeforeClass
+	public void compileSources() throws Exception {
+		Path sources = Path.of(getClass().getResource("/sources").toURI());
+		Path out = Files.createTempDirectory("djomo-processor");
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		List<File> files;
+		try (var walk = Files.walk(sources)) {
+			files = walk.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).collect(Collectors.toList());
+		}
+		var diagnostics = new DiagnosticCollector<JavaFileObject>();
+		var units = javac.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(files);
+		List<JavaFileObject> list = new java.util.ArrayList<>();
+		units.forEach(list::add);
+		assertTrue(compile(out, list, diagnostics), diagnostics.getDiagnostics().toString());
+		loader = new URLClassLoader(new URL[] { out.toUri().toURL() }, getClass().getClassLoader());
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			generated = new Json(Models.builder().loadFactories().build());
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+	private void roundTrip(String className) throws Exception {
+		Class<?> type = loader.loadClass(className);
+		assertTrue(generated.models().get(type) instanceof BaseGeneratedModel, className);
+		assertFalse(reflective.models().get(type) instanceof BaseGeneratedModel, className);
+		Object sample = type.getMethod("sample").invoke(null);
+		String expected = reflective.toString(sample);
+		assertEquals(generated.toString(sample), expected);
+		assertEquals(generated.toString(sample, "  "), reflective.toString(sample, "  "));
+		assertEquals(reflective.toString(generated.fromString(expected, type)), expected);
+	}
+
+	@Test
+	public void testBean() throws Exception {
+		roundTrip("com.example.Person");
+		String json = generated.toString(loader.loadClass("com.example.Person").getMethod("sample").invoke(null));
+		assertTrue(json.contains("\"display\":\"Pat \\\"the\\\" Person (42)\""), json);
+		assertFalse(json.contains("secret"), json);
+		assertTrue(json.contains("\"nickname\":\"nick\""), json);
+	}
+
+	@Test
+	public void testRecord() throws Exception {
+		Class<?> type = loader.loadClass("com.example.Address");
+		// a missing primitive component is rejected the same way as by RecordModel
+		String missing = "{\"street\":\"Elm\"}";
+		var expected = expectThrows(RuntimeException.class, () -> reflective.fromString(missing, type));
+		var actual = expectThrows(RuntimeException.class, () -> generated.fromString(missing, type));
+		assertEquals(actual.getMessage(), expected.getMessage());
+		assertTrue(actual.getMessage().contains("missing primitive component zip"), actual.getMessage());
+		assertEquals(generated.fromString("{\"zip\":5,\"street\":\"Elm\",\"other\":[1]}", type),
+				type.getConstructors()[0].newInstance("Elm", 5));
+	}
+
+	@Test
+	public void testBuilder() throws Exception {
+		roundTrip("com.example.Ticket");
+		String json = generated.toString(loader.loadClass("com.example.Ticket").getMethod("sample").invoke(null));
+		assertEquals(json, "{\"title\":\"broken\",\"id\":9,\"open\":true}");
+	}
+
+	@Test
+	public void testFilterSeesKeys() throws Exception {
+		Object sample = loader.loadClass("com.example.Ticket").getMethod("sample").invoke(null);
+		assertEquals(generated.toString(sample, TitleRename::new), "{\"summary\":\"broken\",\"id\":9,\"open\":true}");
+		assertEquals(generated.toString(sample, TitleRename::new), reflective.toString(sample, TitleRename::new));
+	}
+
+	@Test
+	public void testNestedCycle() throws Exception {
+		roundTrip("com.example.Tree$Node");
+	}
+
+	@Test
+	public void testUnsupported() throws Exception {
+		var source = new SimpleJavaFileObject(URI.create("string:///com/example/Box.java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return "package com.example; @com.bigcloud.djomo.annotation.Generate public class Box<T> { public T value; }";
+			}
+		};
+		var diagnostics = new DiagnosticCollector<JavaFileObject>();
+		assertFalse(compile(Files.createTempDirectory("djomo-processor"), List.of(source), diagnostics));
+		assertTrue(diagnostics.getDiagnostics().toString().contains("generic"), diagnostics.getDiagnostics().toString());
+	}
+}
@@ -0,0 +1,7 @@
+package com.example;
+
+import com.bigcloud.djomo.annotation.Generate;
+
+@Generate
+public record Address(String street, int zip) {
+}
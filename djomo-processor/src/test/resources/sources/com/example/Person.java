@@ -0,0 +1,133 @@
+package com.example;
+
+import java.util.List;
+import java.util.Map;
+
+import com.bigcloud.djomo.annotation.Generate;
+import com.bigcloud.djomo.annotation.Ignore;
+
+@Generate
+public class Person {
+	public String nickname;
+	private int age;
+	private long id;
+	private double score;
+	private float ratio;
+	private boolean active;
+	private short rank;
+	private String name;
+	private List<String> tags;
+	private Map<String, List<Integer>> counts;
+	private Address address;
+	private String secret = "hidden";
+
+	public static Person sample() {
+		Person p = new Person();
+		p.nickname = "nick";
+		p.age = 42;
+		p.id = 1234567890123L;
+		p.score = 98.5;
+		p.ratio = 0.25f;
+		p.active = true;
+		p.rank = 7;
+		p.name = "Pat \"the\" Person";
+		p.tags = List.of("a", "b");
+		p.counts = Map.of("x", List.of(1, 2));
+		p.address = new Address("Main St", 12345);
+		return p;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+
+	public float getRatio() {
+		return ratio;
+	}
+
+	public void setRatio(float ratio) {
+		this.ratio = ratio;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	public short getRank() {
+		return rank;
+	}
+
+	public void setRank(short rank) {
+		this.rank = rank;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+
+	public Map<String, List<Integer>> getCounts() {
+		return counts;
+	}
+
+	public void setCounts(Map<String, List<Integer>> counts) {
+		this.counts = counts;
+	}
+
+	public Address getAddress() {
+		return address;
+	}
+
+	public void setAddress(Address address) {
+		this.address = address;
+	}
+
+	public String getDisplay() {
+		return name + " (" + age + ")";
+	}
+
+	@Ignore
+	public String getSecret() {
+		return secret;
+	}
+
+	@Ignore
+	public void setSecret(String secret) {
+		this.secret = secret;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+import com.bigcloud.djomo.annotation.Generate;
+import com.bigcloud.djomo.annotation.Order;
+
+@Generate
+@Order({ "title", "id" })
+public class Ticket {
+	private final long id;
+	private final String title;
+	private final boolean open;
+
+	private Ticket(Builder builder) {
+		this.id = builder.id;
+		this.title = builder.title;
+		this.open = builder.open;
+	}
+
+	public static Ticket sample() {
+		return builder().id(9).title("broken").open(true).build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public boolean isOpen() {
+		return open;
+	}
+
+	public static class Builder {
+		private long id;
+		private String title;
+		private boolean open;
+
+		public Builder id(long id) {
+			this.id = id;
+			return this;
+		}
+
+		public Builder title(String title) {
+			this.title = title;
+			return this;
+		}
+
+		public Builder open(boolean open) {
+			this.open = open;
+			return this;
+		}
+
+		public Ticket build() {
+			return new Ticket(this);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.example;
+
+import java.util.List;
+
+import com.bigcloud.djomo.annotation.Generate;
+
+public class Tree {
+	@Generate
+	public static class Node {
+		private String label;
+		private List<Node> children;
+
+		public static Node sample() {
+			Node leaf = new Node();
+			leaf.label = "leaf";
+			Node root = new Node();
+			root.label = "root";
+			root.children = List.of(leaf);
+			return root;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public void setLabel(String label) {
+			this.label = label;
+		}
+
+		public List<Node> getChildren() {
+			return children;
+		}
+
+		public void setChildren(List<Node> children) {
+			this.children = children;
+		}
+	}
+}
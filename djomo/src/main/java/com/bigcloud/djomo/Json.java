@@ -22,8 +22,22 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.bigcloud.djomo.annotation.Parse;
 import com.bigcloud.djomo.annotation.Visit;
@@ -34,15 +48,26 @@ import com.bigcloud.djomo.api.ParserFilterFactory;
 import com.bigcloud.djomo.api.VisitorFilter;
 import com.bigcloud.djomo.api.VisitorFilterFactory;
 import com.bigcloud.djomo.base.AnnotationProcessor;
+import com.bigcloud.djomo.internal.StructuralIndex;
+import com.bigcloud.djomo.io.AsynchronousChannelSink;
 import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.ByteBufferSink;
+import com.bigcloud.djomo.io.ChannelSink;
 import com.bigcloud.djomo.io.CharArraySink;
+import com.bigcloud.djomo.io.OutputStreamSink;
+import com.bigcloud.djomo.io.Utf8Buffer;
 import com.bigcloud.djomo.io.Utf8StreamReader;
-import com.bigcloud.djomo.io.Utf8StreamSink;
 import com.bigcloud.djomo.io.WriterSink;
 import com.bigcloud.djomo.json.IndentingJsonWriter;
+import com.bigcloud.djomo.json.IndentingUtf8JsonWriter;
+import com.bigcloud.djomo.json.IndexedUtf8JsonParser;
+import com.bigcloud.djomo.json.JsonLinesSpliterator;
 import com.bigcloud.djomo.json.JsonParser;
+import com.bigcloud.djomo.json.JsonPushParser;
 import com.bigcloud.djomo.json.JsonWriter;
 import com.bigcloud.djomo.json.MergeJsonParser;
+import com.bigcloud.djomo.json.Utf8JsonParser;
+import com.bigcloud.djomo.json.Utf8JsonWriter;
 /**
  * <p>
  * Primary high-level utility class for djomo, used to read JSON data from byte arrays, input streams, readers or strings into java object models, 
@@ -67,21 +92,19 @@ import com.bigcloud.djomo.json.MergeJsonParser;
  *
  */
 public class Json {
-	private static final ThreadLocal<char[]> readBuffer = new ThreadLocal<char[]>() {
-		public char[] initialValue() {
-			return new char[8192];
-		}
-	};
-	private static final ThreadLocal<char[]> parseBuffer = new ThreadLocal<char[]>() {
-		public char[] initialValue() {
-			return new char[4096];
-		}
-	};
+	private static final char[] NEWLINE = { '\n' };
+	private static final byte[] NEWLINE_BYTES = { '\n' };
+	// largest file read whole into an array, leaving headroom for VM array limits
+	private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
 
 	private final Models models;
 	private final VisitorFilterFactory[] visitorFilters;
 	private final ParserFilterFactory[] parserFilters;
 	private final AnnotationProcessor annotationProcessor;
+	private final ForkJoinPool parallelPool;
+	private final int parallelItems;
+	private final ForkJoinPool parallelReadPool;
+	private final int parallelReadItems;
 
 	public Json() {
 		this(new Models());
@@ -92,10 +115,20 @@ public class Json {
 	}
 
 	public Json(Models models, AnnotationProcessor annotationProcessor, VisitorFilterFactory[] visitorFilters, ParserFilterFactory[] parserFilters) {
+		this(models, annotationProcessor, visitorFilters, parserFilters, null, 0, null, 0);
+	}
+
+	private Json(Models models, AnnotationProcessor annotationProcessor, VisitorFilterFactory[] visitorFilters,
+			ParserFilterFactory[] parserFilters, ForkJoinPool parallelPool, int parallelItems,
+			ForkJoinPool parallelReadPool, int parallelReadItems) {
 		this.models = models;
 		this.visitorFilters = visitorFilters.clone();
 		this.parserFilters = parserFilters.clone();
 		this.annotationProcessor = annotationProcessor;
+		this.parallelPool = parallelPool;
+		this.parallelItems = parallelItems;
+		this.parallelReadPool = parallelReadPool;
+		this.parallelReadItems = parallelReadItems;
 	}
 
 	public Models models() {
@@ -122,66 +155,344 @@ public class Json {
 	}
 
 	public <T> T read(Reader reader, T destination, ParserFilterFactory... filters) throws IOException {
-		var rb = new Buffer(readBuffer.get(), reader);
-		var pb = new Buffer(parseBuffer.get());
-		if (destination == null) {
-			return (T) new JsonParser(models, rb, pb, filters).parse();
+		var pool = models.bufferPool();
+		var rb = new Buffer(pool.chars(8192), reader);
+		var pb = new Buffer(pool.chars(4096), null, pool);
+		try {
+			if (destination == null) {
+				return (T) new JsonParser(models, rb, pb, filters).parse();
+			}
+			var def = models.get(destination.getClass());
+			return (T) new MergeJsonParser(models, rb, pb, destination, filters(filters)).parse(def);
+		} finally {
+			pool.release(pb.buffer);
+			pool.release(rb.buffer);
 		}
-		var def = models.get(destination.getClass());
-		return (T) new MergeJsonParser(models, rb, pb, destination, filters(filters)).parse(def);
 	}
 
 	private <T> T read(Reader reader, Model<T> definition, ParserFilterFactory... filters) {
-		var rb = new Buffer(readBuffer.get(), reader);
-		var pb = new Buffer(parseBuffer.get());
-		if (definition == null) {
-			return (T) new JsonParser(models, rb, pb, filters).parse();
+		var pool = models.bufferPool();
+		var rb = new Buffer(pool.chars(8192), reader);
+		var pb = new Buffer(pool.chars(4096), null, pool);
+		try {
+			if (definition == null) {
+				return (T) new JsonParser(models, rb, pb, filters).parse();
+			}
+			return (T) new JsonParser(models, rb, pb, filters(filters)).parse(definition);
+		} finally {
+			pool.release(pb.buffer);
+			pool.release(rb.buffer);
 		}
-		return (T) new JsonParser(models, rb, pb, filters(filters)).parse(definition);
 	}
 
 	public Object read(InputStream in, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), filters);
+		return read(in, (Model) null, filters);
 	}
 
 	public <T> T read(InputStream in, Class<T> type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<T> model = models.get(type);
+		return (T) read(in, model, filters);
 	}
 
 	public <T> T read(InputStream in, StaticType<T> type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<T> model = models.get(type);
+		return type.getStaticType().cast(read(in, model, filters));
 	}
 
 	public Object read(InputStream in, Type type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<?> model = models.get(type);
+		return read(in, model, filters);
 	}
 
 	public <T> T read(InputStream in, T destination, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), destination, filters);
+		try (var reader = new Utf8StreamReader(in, models.bufferPool())) {
+			return read(reader, destination, filters);
+		}
+	}
+
+	private <T> T read(InputStream in, Model<T> definition, ParserFilterFactory... filters) {
+		var pool = models.bufferPool();
+		var ub = new Utf8Buffer(pool.bytes(8192), in);
+		try {
+			return read(ub, definition, filters);
+		} finally {
+			pool.release(ub.buffer);
+		}
 	}
 
 	public Object read(byte[] in, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), filters);
+		return read(in, (Model) null, filters);
 	}
 
 	public <T> T read(byte[] in, Class<T> type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<T> model = models.get(type);
+		return (T) read(in, model, filters);
 	}
 
 	public <T> T read(byte[] in, StaticType<T> type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<T> model = models.get(type);
+		return type.getStaticType().cast(read(in, model, filters));
 	}
 
 	public Object read(byte[] in, Type type, ParserFilterFactory... filters) throws IOException {
-		return read(new Utf8StreamReader(in), type, filters);
+		Model<?> model = models.get(type);
+		return read(in, model, filters);
 	}
 
 	public <T> T read(byte[] in, T destination, ParserFilterFactory... filters) throws IOException {
 		return read(new Utf8StreamReader(in), destination, filters);
 	}
 
+	private <T> T read(byte[] in, Model<T> definition, ParserFilterFactory... filters) {
+		ParserFilterFactory[] resolved = filters(filters);
+		if (parallelReadPool != null && resolved.length == 0) {
+			var index = StructuralIndex.build(in, 0, in.length);
+			if (index != null) {
+				var pool = models.bufferPool();
+				var pb = new Buffer(pool.chars(4096), null, pool);
+				try {
+					var parser = new IndexedUtf8JsonParser(models, index, new Utf8Buffer(in), pb, parallelReadPool,
+							parallelReadItems);
+					return (T) (definition == null ? parser.parse() : parser.parse(definition));
+				} finally {
+					pool.release(pb.buffer);
+				}
+			}
+		}
+		return parse(new Utf8Buffer(in), definition, definition == null ? filters : resolved);
+	}
+
+	/**
+	 * Read a UTF-8 JSON file through its channel without intermediate char
+	 * decoding. A file that fits in an array is read whole and parsed like a
+	 * byte array, including parallel reads if configured; larger files are read
+	 * in 64 KiB pooled blocks
+	 */
+	public Object read(Path path, ParserFilterFactory... filters) throws IOException {
+		return read(path, (Model) null, filters);
+	}
+
+	public <T> T read(Path path, Class<T> type, ParserFilterFactory... filters) throws IOException {
+		Model<T> model = models.get(type);
+		return (T) read(path, model, filters);
+	}
+
+	public <T> T read(Path path, StaticType<T> type, ParserFilterFactory... filters) throws IOException {
+		Model<T> model = models.get(type);
+		return type.getStaticType().cast(read(path, model, filters));
+	}
+
+	public Object read(Path path, Type type, ParserFilterFactory... filters) throws IOException {
+		Model<?> model = models.get(type);
+		return read(path, model, filters);
+	}
+
+	public <T> T read(Path path, T destination, ParserFilterFactory... filters) throws IOException {
+		try (var in = Files.newInputStream(path)) {
+			return read(in, destination, filters);
+		}
+	}
+
+	private <T> T read(Path path, Model<T> definition, ParserFilterFactory... filters) throws IOException {
+		try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size <= MAX_ARRAY_SIZE) {
+				// not pooled, as parsed values may keep slices of the input
+				return read(readFully(channel, (int) size), definition, filters);
+			}
+			var pool = models.bufferPool();
+			var ub = new Utf8Buffer(pool.bytes(1 << 16), channel);
+			try {
+				return read(ub, definition, filters);
+			} finally {
+				pool.release(ub.buffer);
+			}
+		}
+	}
+
+	private static byte[] readFully(FileChannel channel, int size) throws IOException {
+		var bytes = new byte[size];
+		var bb = ByteBuffer.wrap(bytes);
+		while (bb.hasRemaining() && channel.read(bb) >= 0) {
+		}
+		// the file may have been truncated since its size was taken
+		return bb.hasRemaining() ? Arrays.copyOf(bytes, bb.position()) : bytes;
+	}
+
+	private <T> T read(Utf8Buffer in, Model<T> definition, ParserFilterFactory... filters) {
+		return parse(in, definition, definition == null ? filters : filters(filters));
+	}
+
+	private <T> T parse(Utf8Buffer in, Model<T> definition, ParserFilterFactory[] resolved) {
+		var pool = models.bufferPool();
+		var pb = new Buffer(pool.chars(4096), null, pool);
+		try {
+			var parser = new Utf8JsonParser(models, in, pb, resolved);
+			return (T) (definition == null ? parser.parse() : parser.parse(definition));
+		} finally {
+			pool.release(pb.buffer);
+		}
+	}
+
+	/**
+	 * Lazily read the items of a top-level JSON array from a UTF-8 stream, parsing
+	 * one item per call to next() so memory use does not grow with the length of
+	 * the array. The caller remains responsible for closing the stream.
+	 */
+	public <T> Iterator<T> readIterator(InputStream in, Class<T> type, ParserFilterFactory... filters) {
+		return readIterator(new Utf8Buffer(new byte[8192], in), models.get(type), filters);
+	}
+
+	public <T> Iterator<T> readIterator(InputStream in, StaticType<T> type, ParserFilterFactory... filters) {
+		return readIterator(new Utf8Buffer(new byte[8192], in), models.get(type), filters);
+	}
+
+	/**
+	 * Lazily read the items of a top-level JSON array from a character stream,
+	 * parsing one item per call to next() so memory use does not grow with the
+	 * length of the array. The caller remains responsible for closing the reader.
+	 */
+	public <T> Iterator<T> readIterator(Reader reader, Class<T> type, ParserFilterFactory... filters) {
+		return readIterator(new Buffer(new char[8192], reader), models.get(type), filters);
+	}
+
+	public <T> Iterator<T> readIterator(Reader reader, StaticType<T> type, ParserFilterFactory... filters) {
+		return readIterator(new Buffer(new char[8192], reader), models.get(type), filters);
+	}
+
+	/**
+	 * Lazily stream the items of a top-level JSON array from a UTF-8 stream; see
+	 * {@link #readIterator(InputStream, Class, ParserFilterFactory...)}
+	 */
+	public <T> Stream<T> readStream(InputStream in, Class<T> type, ParserFilterFactory... filters) {
+		return stream(readIterator(in, type, filters));
+	}
+
+	public <T> Stream<T> readStream(InputStream in, StaticType<T> type, ParserFilterFactory... filters) {
+		return stream(readIterator(in, type, filters));
+	}
+
+	/**
+	 * Lazily stream the items of a top-level JSON array from a character stream;
+	 * see {@link #readIterator(Reader, Class, ParserFilterFactory...)}
+	 */
+	public <T> Stream<T> readStream(Reader reader, Class<T> type, ParserFilterFactory... filters) {
+		return stream(readIterator(reader, type, filters));
+	}
+
+	public <T> Stream<T> readStream(Reader reader, StaticType<T> type, ParserFilterFactory... filters) {
+		return stream(readIterator(reader, type, filters));
+	}
+
+	/**
+	 * Lazily read newline-delimited JSON (JSON Lines) from a UTF-8 stream, one
+	 * value per line, all parsed by a single parser. The caller remains
+	 * responsible for closing the stream.
+	 */
+	public <T> Stream<T> readLines(InputStream in, Class<T> type, ParserFilterFactory... filters) {
+		return stream(readLines(new Utf8Buffer(new byte[8192], in), models.get(type), filters));
+	}
+
+	public <T> Stream<T> readLines(InputStream in, StaticType<T> type, ParserFilterFactory... filters) {
+		return stream(readLines(new Utf8Buffer(new byte[8192], in), models.get(type), filters));
+	}
+
+	/**
+	 * Lazily read newline-delimited JSON (JSON Lines) from a character stream, one
+	 * value per line, all parsed by a single parser. The caller remains
+	 * responsible for closing the reader.
+	 */
+	public <T> Stream<T> readLines(Reader reader, Class<T> type, ParserFilterFactory... filters) {
+		return stream(readLines(new Buffer(new char[8192], reader), models.get(type), filters));
+	}
+
+	public <T> Stream<T> readLines(Reader reader, StaticType<T> type, ParserFilterFactory... filters) {
+		return stream(readLines(new Buffer(new char[8192], reader), models.get(type), filters));
+	}
+
+	/**
+	 * Read newline-delimited JSON (JSON Lines) from UTF-8 bytes in memory; the
+	 * returned stream splits at line boundaries, so calling parallel() on it will
+	 * parse lines on multiple cores.
+	 */
+	public <T> Stream<T> readLines(byte[] in, Class<T> type, ParserFilterFactory... filters) {
+		return StreamSupport.stream(
+				new JsonLinesSpliterator<>(models, models.get(type), filters(filters), in, 0, in.length), false);
+	}
+
+	public <T> Stream<T> readLines(byte[] in, StaticType<T> type, ParserFilterFactory... filters) {
+		return StreamSupport.stream(
+				new JsonLinesSpliterator<>(models, models.get(type), filters(filters), in, 0, in.length), false);
+	}
+
+	/**
+	 * Read newline-delimited JSON (JSON Lines) from a UTF-8 stream into a parallel
+	 * stream; the input is read in large blocks ending on line breaks, and blocks
+	 * are parsed concurrently. Use forEachOrdered or collect to preserve line
+	 * order. The caller remains responsible for closing the stream.
+	 */
+	public <T> Stream<T> readLinesParallel(InputStream in, Class<T> type, ParserFilterFactory... filters) {
+		return StreamSupport.stream(new JsonLinesSpliterator<>(models, models.get(type), filters(filters), in), true);
+	}
+
+	public <T> Stream<T> readLinesParallel(InputStream in, StaticType<T> type, ParserFilterFactory... filters) {
+		return StreamSupport.stream(new JsonLinesSpliterator<>(models, models.get(type), filters(filters), in), true);
+	}
+
+	// lazy iterators outlive the call, so they allocate their own buffers rather than borrow
+	// pooled ones that the BufferPool would reclaim when the call returns
+	private <T> Iterator<T> readIterator(Utf8Buffer in, Model<T> definition, ParserFilterFactory... filters) {
+		return new Utf8JsonParser(models, in, new Buffer(new char[4096]), filters(filters)).iterator(definition);
+	}
+
+	private <T> Iterator<T> readIterator(Buffer in, Model<T> definition, ParserFilterFactory... filters) {
+		return new JsonParser(models, in, new Buffer(new char[4096]), filters(filters)).iterator(definition);
+	}
+
+	private <T> Iterator<T> readLines(Utf8Buffer in, Model<T> definition, ParserFilterFactory... filters) {
+		return new Utf8JsonParser(models, in, new Buffer(new char[4096]), filters(filters)).lines(definition);
+	}
+
+	private <T> Iterator<T> readLines(Buffer in, Model<T> definition, ParserFilterFactory... filters) {
+		return new JsonParser(models, in, new Buffer(new char[4096]), filters(filters)).lines(definition);
+	}
+
+	private static <T> Stream<T> stream(Iterator<T> iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+	}
+
+	/**
+	 * Create a non-blocking parser to be fed chunks of UTF-8 input as they
+	 * arrive; each complete top-level value is passed to the consumer as soon as
+	 * its last byte has been fed.
+	 */
+	public <T> JsonPushParser<T> pushParser(Class<T> type, Consumer<? super T> consumer,
+			ParserFilterFactory... filters) {
+		return new JsonPushParser<>(models, models.get(type), false, consumer, filters(filters));
+	}
+
+	public <T> JsonPushParser<T> pushParser(StaticType<T> type, Consumer<? super T> consumer,
+			ParserFilterFactory... filters) {
+		return new JsonPushParser<>(models, models.get(type), false, consumer, filters(filters));
+	}
+
+	/**
+	 * Create a non-blocking parser to be fed chunks of UTF-8 input as they
+	 * arrive, where the input is a single top-level array; each item is passed to
+	 * the consumer as soon as its last byte has been fed.
+	 */
+	public <T> JsonPushParser<T> pushArrayParser(Class<T> itemType, Consumer<? super T> consumer,
+			ParserFilterFactory... filters) {
+		return new JsonPushParser<>(models, models.get(itemType), true, consumer, filters(filters));
+	}
+
+	public <T> JsonPushParser<T> pushArrayParser(StaticType<T> itemType, Consumer<? super T> consumer,
+			ParserFilterFactory... filters) {
+		return new JsonPushParser<>(models, models.get(itemType), true, consumer, filters(filters));
+	}
+
 	public void write(Object data, Writer writer, VisitorFilterFactory... filters) {
-		try (var jw = new JsonWriter(models, new WriterSink(writer), filters(filters))) {
+		try (var jw = parallel(new JsonWriter(models, new WriterSink(writer), filters(filters)))) {
 			jw.visit(data);
 		}
 	}
@@ -193,17 +504,108 @@ public class Json {
 	}
 
 	public void write(Object data, OutputStream out, VisitorFilterFactory... filters) {
-		try (var jw = new JsonWriter(models, new Utf8StreamSink(out), filters(filters))) {
+		try (var jw = parallel(new Utf8JsonWriter(models, new OutputStreamSink(out), filters(filters)))) {
 			jw.visit(data);
 		}
 	}
 
 	public void write(Object data, OutputStream out, String indentChars, VisitorFilterFactory... filters) {
-		try (var jw = new IndentingJsonWriter(models, new Utf8StreamSink(out), indentChars, filters(filters))) {
+		try (var jw = new IndentingUtf8JsonWriter(models, new OutputStreamSink(out), indentChars, filters(filters))) {
 			jw.visit(data);
 		}
 	}
 
+	/**
+	 * Write UTF-8 JSON into a heap or direct ByteBuffer, starting at its current
+	 * position, which is advanced past the written bytes
+	 * 
+	 * @throws java.nio.BufferOverflowException if the buffer is too small; part
+	 *                                          of the output will have been
+	 *                                          written
+	 */
+	public void write(Object data, ByteBuffer buffer, VisitorFilterFactory... filters) {
+		try (var jw = parallel(new Utf8JsonWriter(models, new ByteBufferSink(buffer), filters(filters)))) {
+			jw.visit(data);
+		}
+	}
+
+	public void write(Object data, ByteBuffer buffer, String indentChars, VisitorFilterFactory... filters) {
+		try (var jw = new IndentingUtf8JsonWriter(models, new ByteBufferSink(buffer), indentChars, filters(filters))) {
+			jw.visit(data);
+		}
+	}
+
+	/**
+	 * Write UTF-8 JSON to a blocking channel
+	 */
+	public void write(Object data, WritableByteChannel channel, VisitorFilterFactory... filters) {
+		try (var jw = parallel(new Utf8JsonWriter(models, new ChannelSink(channel), filters(filters)))) {
+			jw.visit(data);
+		}
+	}
+
+	public void write(Object data, WritableByteChannel channel, String indentChars, VisitorFilterFactory... filters) {
+		try (var jw = new IndentingUtf8JsonWriter(models, new ChannelSink(channel), indentChars, filters(filters))) {
+			jw.visit(data);
+		}
+	}
+
+	/**
+	 * Write UTF-8 JSON to an asynchronous channel; the calling thread waits for
+	 * each buffer to be written before continuing
+	 */
+	public void write(Object data, AsynchronousByteChannel channel, VisitorFilterFactory... filters) {
+		try (var jw = parallel(new Utf8JsonWriter(models, new AsynchronousChannelSink(channel), filters(filters)))) {
+			jw.visit(data);
+		}
+	}
+
+	public void write(Object data, AsynchronousByteChannel channel, String indentChars,
+			VisitorFilterFactory... filters) {
+		try (var jw = new IndentingUtf8JsonWriter(models, new AsynchronousChannelSink(channel), indentChars,
+				filters(filters))) {
+			jw.visit(data);
+		}
+	}
+
+	/**
+	 * Write each item as a compact JSON document followed by a line break
+	 * (JSON Lines), reusing one writer, buffer and filter chain for all items
+	 */
+	public void writeLines(Iterable<?> items, OutputStream out, VisitorFilterFactory... filters) {
+		try (var jw = parallel(new Utf8JsonWriter(models, new OutputStreamSink(out), filters(filters)))) {
+			writeLines(items, jw);
+		}
+	}
+
+	public void writeLines(Iterable<?> items, Writer writer, VisitorFilterFactory... filters) {
+		try (var jw = parallel(new JsonWriter(models, new WriterSink(writer), filters(filters)))) {
+			writeLines(items, jw);
+		}
+	}
+
+	public <T> void writeLines(Stream<T> items, OutputStream out, VisitorFilterFactory... filters) {
+		writeLines((Iterable<T>) items::iterator, out, filters);
+	}
+
+	public <T> void writeLines(Stream<T> items, Writer writer, VisitorFilterFactory... filters) {
+		writeLines((Iterable<T>) items::iterator, writer, filters);
+	}
+
+	private static void writeLines(Iterable<?> items, JsonWriter jw) {
+		for (Object item : items) {
+			jw.visit(item);
+			jw.raw(NEWLINE, 0, 1);
+		}
+	}
+
+	private static void writeLines(Iterable<?> items, Utf8JsonWriter jw) {
+		for (Object item : items) {
+			jw.visit(item);
+			jw.raw(NEWLINE_BYTES, 0, 1);
+		}
+	}
+
 	public Object fromString(String json, ParserFilterFactory... filters) throws IOException {
 		return read(new StringReader(json), filters);
 	}
@@ -225,19 +627,35 @@ public class Json {
 	}
 
 	public String toString(Object data, VisitorFilterFactory... filters) {
-		var sink = new CharArraySink();
-		try (var jw = new JsonWriter(models, sink, filters(filters))) {
-			jw.visit(data);
+		var sink = new CharArraySink(models.bufferPool());
+		try {
+			try (var jw = parallel(new JsonWriter(models, sink, filters(filters)))) {
+				jw.visit(data);
+			}
+			return sink.toString();
+		} finally {
+			sink.release();
 		}
-		return sink.toString();
 	}
 
 	public String toString(Object data, String indent, VisitorFilterFactory... filters) {
-		var sink = new CharArraySink();
-		try (var jw = new IndentingJsonWriter(models, sink, indent, filters(filters))) {
-			jw.visit(data);
+		var sink = new CharArraySink(models.bufferPool());
+		try {
+			try (var jw = new IndentingJsonWriter(models, sink, indent, filters(filters))) {
+				jw.visit(data);
+			}
+			return sink.toString();
+		} finally {
+			sink.release();
 		}
-		return sink.toString();
+	}
+
+	private JsonWriter parallel(JsonWriter writer) {
+		return parallelPool == null ? writer : writer.parallel(parallelPool, parallelItems);
+	}
+
+	private Utf8JsonWriter parallel(Utf8JsonWriter writer) {
+		return parallelPool == null ? writer : writer.parallel(parallelPool, parallelItems);
 	}
 
 	private VisitorFilterFactory[] filters(VisitorFilterFactory... filters) {
@@ -308,6 +726,10 @@ public class Json {
 		Models models;
 		ArrayDeque<Object> stages = new ArrayDeque<>();
 		ArrayDeque<Object> dependencies = new ArrayDeque<>();
+		ForkJoinPool parallelPool;
+		int parallelItems;
+		ForkJoinPool parallelReadPool;
+		int parallelReadItems;
 
 		public JsonBuilder models(Models models) {
 			this.models = models;
@@ -354,6 +776,62 @@ public class Json {
 			return this;
 		}
 
+		/**
+		 * Write lists and arrays with at least minItems items in parallel chunks on
+		 * the common fork-join pool, when no visitor filters are in use. Output is
+		 * identical to sequential writing; indented output is always sequential.
+		 * 
+		 * @param minItems the smallest list size to split
+		 * @return this builder
+		 */
+		public JsonBuilder parallelWrites(int minItems) {
+			return parallelWrites(minItems, ForkJoinPool.commonPool());
+		}
+
+		/**
+		 * Write lists and arrays with at least minItems items in parallel chunks on
+		 * the given pool, when no visitor filters are in use.
+		 * 
+		 * @param minItems the smallest list size to split
+		 * @param pool     the pool to write chunks on
+		 * @return this builder
+		 */
+		public JsonBuilder parallelWrites(int minItems, ForkJoinPool pool) {
+			this.parallelItems = minItems;
+			this.parallelPool = pool;
+			return this;
+		}
+
+		/**
+		 * Parse byte[] input in two phases when no parser filters are in use: index
+		 * the structure of the document, then bind the items of arrays with at least
+		 * minItems items in parallel chunks on the common fork-join pool. Objects
+		 * are always bound sequentially, however many fields they have; only the
+		 * arrays nested in them are split.
+		 * 
+		 * @param minItems the smallest array size to split
+		 * @return this builder
+		 */
+		public JsonBuilder parallelReads(int minItems) {
+			return parallelReads(minItems, ForkJoinPool.commonPool());
+		}
+
+		/**
+		 * Parse byte[] input in two phases when no parser filters are in use,
+		 * binding the items of arrays with at least minItems items in parallel chunks
+		 * on the given pool. Objects are always bound sequentially, however many
+		 * fields they have; only the arrays nested in them are split.
+		 * 
+		 * @param minItems the smallest array size to split
+		 * @param pool     the pool to bind items on
+		 * @return this builder
+		 */
+		public JsonBuilder parallelReads(int minItems, ForkJoinPool pool) {
+			this.parallelReadItems = minItems;
+			this.parallelReadPool = pool;
+			return this;
+		}
+
 		public Json build() {
 			Models m = models == null ? new Models() : models;
 			AnnotationProcessor processor = new AnnotationProcessor(m, dependencies.toArray());
@@ -376,7 +854,8 @@ public class Json {
 				}
 			}
 			return new Json(m, processor, visitorFilters.toArray(new VisitorFilterFactory[0]),
-					parserFilters.toArray(new ParserFilterFactory[0]));
+					parserFilters.toArray(new ParserFilterFactory[0]), parallelPool, parallelItems, parallelReadPool,
+					parallelReadItems);
 		}
 	}
 }
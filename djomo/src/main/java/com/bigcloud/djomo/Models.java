@@ -26,12 +26,17 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import com.bigcloud.djomo.Resolver.Substitute;
+import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.ListModel;
 import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ModelContext;
@@ -43,6 +48,9 @@ import com.bigcloud.djomo.api.Visitor;
 import com.bigcloud.djomo.api.VisitorFilter;
 import com.bigcloud.djomo.base.BaseModel;
 import com.bigcloud.djomo.base.BaseModelFactory;
+import com.bigcloud.djomo.io.BufferPool;
+import com.bigcloud.djomo.io.StripedBufferPool;
+import com.bigcloud.djomo.io.ThreadLocalBufferPool;
 import com.bigcloud.djomo.list.ListModelFactory;
 import com.bigcloud.djomo.object.ObjectModelFactory;
 import com.bigcloud.djomo.poly.AnyModel;
@@ -68,15 +76,38 @@ import com.bigcloud.djomo.simple.SimpleModelFactory;
  *
  */
 public class Models {
+	// how many model graphs the current thread is building, across all Models
+	private static final ThreadLocal<int[]> BUILDING = ThreadLocal.withInitial(() -> new int[1]);
 	private final ConcurrentHashMap<Type, Model<?>> models = new ConcurrentHashMap<>();
+	// creation in progress, so concurrent first lookups of a type share one build
+	private final ConcurrentHashMap<Type, CompletableFuture<Model<?>>> pending = new ConcurrentHashMap<>();
+	// lock-free fast path for lookups by runtime class, backed by the map above
+	private final ClassValue<Model<?>> classModels = new ClassValue<>() {
+		@Override
+		protected Model<?> computeValue(Class<?> type) {
+			return Models.this.get((Type) type);
+		}
+	};
 	private final ModelFactory[] modelFactories;
 	public final AnyModel anyModel;
 	public final ObjectModel<Map<?,?>> mapModel;
 	public final ListModel<List<?>> listModel;
 	public final ListModel<Stream<?>> streamModel;
 	public final NumberModel<Number> numberModel;
+	private final BufferPool bufferPool;
+	private final boolean lazyFields;
 
 	public Models(ModelFactory... factories) {
+		this(ThreadLocalBufferPool.DEFAULT, factories);
+	}
+
+	public Models(BufferPool bufferPool, ModelFactory... factories) {
+		this(bufferPool, false, factories);
+	}
+
+	private Models(BufferPool bufferPool, boolean lazyFields, ModelFactory... factories) {
+		this.bufferPool = bufferPool;
+		this.lazyFields = lazyFields;
 		if(factories == null || factories.length == 0) {
 			modelFactories = new ModelFactory[5];
 		}
@@ -122,18 +153,123 @@ public class Models {
 		return new Builder();
 	}
 
+	/**
+	 * @return the pool that readers, writers and parsers using these Models borrow
+	 *         their buffers from
+	 */
+	public BufferPool bufferPool() {
+		return bufferPool;
+	}
+
+	/**
+	 * @return whether bean, record and builder fields look up their models on
+	 *         first use rather than when the enclosing model is built
+	 */
+	public boolean lazyFields() {
+		return lazyFields;
+	}
+
+	/**
+	 * Build and cache models for the given types in parallel on the common
+	 * fork-join pool
+	 * 
+	 * @see #preload(Executor, Type...)
+	 */
+	public CompletableFuture<Void> preload(Type... types) {
+		return preload(ForkJoinPool.commonPool(), types);
+	}
+
+	/**
+	 * Build and cache models for the given types in parallel, typically at
+	 * startup so the first requests find them ready; lookups that arrive while a
+	 * type is still loading wait for it rather than building it again. With
+	 * {@link Builder#lazyFields()} the fields of preloaded object models are
+	 * resolved as well. For types known at compile time, generated models from the
+	 * djomo annotation processor avoid the reflection altogether.
+	 * 
+	 * @param executor runs one task per type
+	 * @param types    the types to load
+	 * @return a future completing when all types are loaded, or exceptionally with
+	 *         the first failure
+	 */
+	public CompletableFuture<Void> preload(Executor executor, Type... types) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[types.length];
+		for (int i = 0; i < types.length; i++) {
+			Type type = types[i];
+			futures[i] = CompletableFuture.runAsync(() -> {
+				Model<?> model = get(type);
+				if (lazyFields && model instanceof ObjectModel<?> om && om.fields() != null) {
+					om.fields().forEach(Field::model);
+				}
+			}, executor);
+		}
+		return CompletableFuture.allOf(futures);
+	}
+
 	public <T, M extends Model<T>> M get(Class<T> clazz) {
-		return get((Type) clazz);
+		return (M) classModels.get(clazz);
 	}
 
 	public <M extends Model<?>> M get(Type type) {
 		Model<?> model = models.get(type);
 		if (model == null) {
+			model = load(type);
+		}
+		return (M) model;
+	}
+
+	/**
+	 * Create a model, or wait for another thread already creating one for the same
+	 * type. A thread that is itself in the middle of building models never waits,
+	 * as the other thread may in turn be waiting on it; it builds its own copy as
+	 * before.
+	 */
+	private Model<?> load(Type type) {
+		int[] depth = BUILDING.get();
+		if (depth[0] > 0) {
+			return build(type, depth);
+		}
+		var future = new CompletableFuture<Model<?>>();
+		var inflight = pending.putIfAbsent(type, future);
+		if (inflight != null) {
+			try {
+				return inflight.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException re) {
+					throw re;
+				}
+				if (e.getCause() instanceof Error err) {
+					throw err;
+				}
+				throw e;
+			}
+		}
+		try {
+			// check again, another thread may have finished just before we registered
+			Model<?> model = models.get(type);
+			if (model == null) {
+				model = build(type, depth);
+			}
+			future.complete(model);
+			return model;
+		} catch (RuntimeException | Error e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			pending.remove(type, future);
+		}
+	}
+
+	private Model<?> build(Type type, int[] depth) {
+		depth[0]++;
+		try {
 			TempContext tc = new TempContext();
-			model = create(type, tc);
+			Model<?> model = create(type, tc);
 			tc.release();
+			return model;
+		} finally {
+			depth[0]--;
 		}
-		return (M) model;
 	}
 
 	private Model<?> create(Type type, TempContext tc) {
@@ -215,6 +351,8 @@ public class Models {
 	public static class Builder {
 		ArrayDeque<Resolver<?>> resolvers = new ArrayDeque<>();
 		ArrayDeque<ModelFactory> factories = new ArrayDeque<>();
+		BufferPool bufferPool = ThreadLocalBufferPool.DEFAULT;
+		boolean lazyFields = false;
 
 		/**
 		 * 
@@ -296,6 +434,32 @@ public class Models {
 			});
 		}
 
+		/**
+		 * Set the pool of char and byte buffers used for reading and writing; the
+		 * default is a {@link ThreadLocalBufferPool}, while a
+		 * {@link StripedBufferPool} is better suited to virtual threads
+		 * 
+		 * @param bufferPool the pool to use
+		 * @return this builder
+		 */
+		public Builder bufferPool(BufferPool bufferPool) {
+			this.bufferPool = bufferPool;
+			return this;
+		}
+
+		/**
+		 * Resolve the models of bean, record and builder fields on first use
+		 * instead of when the enclosing model is built; this trades a small check
+		 * per field access for not reflecting over parts of a large type graph that
+		 * are never read or written
+		 * 
+		 * @return this builder
+		 */
+		public Builder lazyFields() {
+			this.lazyFields = true;
+			return this;
+		}
+
 		public Models build() {
 			ModelFactory[] useFactories;
 			if (resolvers.isEmpty()) {
@@ -304,7 +468,7 @@ public class Models {
 				useFactories = factories.toArray(new ModelFactory[factories.size() + 1]);
 				useFactories[factories.size()] = new ResolverModelFactory(resolvers.toArray(new Resolver[0]));
 			}
-			Models models = new Models(useFactories);
+			Models models = new Models(bufferPool, lazyFields, useFactories);
 			return models;
 		}
 	}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+/**
+ * Attach to a bean, record or builder class to have the djomo-processor
+ * annotation processor generate its ObjectModel at compile time, along with a
+ * ModelFactory for the package that is registered for
+ * {@link com.bigcloud.djomo.Models.Builder#loadFactories()}
+ * 
+ * @author Alex Vigdor
+ *
+ */
+@Documented
+@Retention(CLASS)
+@Target(TYPE)
+public @interface Generate {
+
+}
@@ -14,7 +14,7 @@
  * limitations under the License.
  *******************************************************************************/
 /**
- * Annotations that can be added to models to control how they are handled (@Ignore, @Order and @Resolve)
+ * Annotations that can be added to models to control how they are handled (@Ignore, @Order, @Resolve and @Generate)
  * and annotations for declaratively configuring filters (@Parse, @Parses, @Visit, @Visits)
  */
 package com.bigcloud.djomo.annotation;
\ No newline at end of file
@@ -36,5 +36,12 @@ public interface Parser {
 	boolean parseBoolean();
 	CharSequence parseString();
 	Object parseNull();
+	/**
+	 * Pass over the next value without binding it; parsers that can do so more
+	 * cheaply than by parsing it should override this
+	 */
+	default void skip() {
+		parse();
+	}
 	Models models();
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.base;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.ModelContext;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.api.Parser;
+import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.internal.FieldOrder;
+import com.bigcloud.djomo.internal.InlineCache;
+
+/**
+ * Shared behavior of the reflective and generated Object Models with a fixed,
+ * ordered set of fields
+ * 
+ * @author Alex Vigdor
+ *
+ * @param <T>
+ */
+public abstract class BaseFieldsModel<T> extends BaseComplexModel<T> implements ObjectModel<T> {
+	protected Field[] sortedFields;
+	protected List<Field> fieldList;
+	private final InlineCache subtypes = new InlineCache(models);
+	FieldOrder fieldOrder;
+
+	BaseFieldsModel(Type type, ModelContext context) {
+		super(type, context);
+	}
+
+	BaseFieldsModel(Type type, Models models) {
+		super(type, models);
+	}
+
+	/**
+	 * @param fields the fields in visiting order
+	 */
+	final void sortedFields(Field[] fields) {
+		this.sortedFields = fields;
+		this.fieldList = List.of(fields);
+		this.fieldOrder = new FieldOrder(fields);
+	}
+
+	@Override
+	public Object maker(T obj) {
+		var m = maker();
+		for (Field f : sortedFields) {
+			f.set(m, f.get(obj));
+		}
+		return m;
+	}
+
+	@Override
+	public void visit(T obj, Visitor visitor) {
+		visitor.visitObject(obj, this);
+	}
+
+	@Override
+	public void tryVisit(T obj, Visitor visitor) {
+		if (obj == null) {
+			visitor.visitNull();
+			return;
+		}
+		Class c = obj.getClass();
+		if (c == type) {
+			visitor.visitObject(obj, this);
+		} else {
+			visitor.visitObject(obj, (ObjectModel) subtypes.get(c));
+		}
+	}
+
+	@Override
+	public T parse(Parser parser) {
+		return (T) parser.parseObject(this);
+	}
+
+	@Override
+	public void forEachField(T t, BiConsumer consumer) {
+		for (Field f : sortedFields) {
+			consumer.accept(f.key(), f.get(t));
+		}
+	}
+
+	@Override
+	public List<Field> fields() {
+		return fieldList;
+	}
+
+	@Override
+	public Stream<Field> fields(T t) {
+		return fieldList.stream();
+	}
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.base;
+
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.internal.FieldToken;
+
+/**
+ * Base class for the fields of a {@link BaseGeneratedModel}; subclasses
+ * implement get, set, visit and parse with direct calls to the getter and
+ * setter, visiting the field key via {@link #visitKey(Visitor)} before the
+ * value.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public abstract class BaseGeneratedField implements Field, Cloneable {
+	protected final Model model;
+	protected Object key;
+	private FieldToken token;
+
+	protected BaseGeneratedField(String name, Model model) {
+		this.model = model;
+		this.key = name;
+		this.token = FieldToken.of(name);
+	}
+
+	/**
+	 * Visit this field's key; an unfiltered json writer receives the
+	 * pre-encoded token instead.
+	 */
+	protected final void visitKey(Visitor visitor) {
+		token.visit(visitor, key);
+	}
+
+	@Override
+	public Object key() {
+		return key;
+	}
+
+	@Override
+	public Model model() {
+		return model;
+	}
+
+	@Override
+	public Field rekey(Object newKey) {
+		try {
+			BaseGeneratedField cloned = (BaseGeneratedField) super.clone();
+			cloned.key = newKey;
+			cloned.token = FieldToken.of(newKey);
+			return cloned;
+		} catch (CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
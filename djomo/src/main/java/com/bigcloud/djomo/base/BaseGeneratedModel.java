@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.base;
+
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.ModelContext;
+
+/**
+ * Base class for ObjectModels generated at compile time by the djomo-processor;
+ * subclasses supply the fields in visiting order, a field lookup, and the
+ * maker, make and visitFields implementations, all as direct calls.
+ * 
+ * @author Alex Vigdor
+ *
+ * @param <T>
+ */
+public abstract class BaseGeneratedModel<T> extends BaseFieldsModel<T> {
+	protected BaseGeneratedModel(Class<T> type, ModelContext context) {
+		super(type, context);
+	}
+
+	/**
+	 * Called by the subclass constructor once the field models are resolved
+	 * 
+	 * @param fields the fields in visiting order
+	 */
+	protected final void initFields(Field... fields) {
+		sortedFields(fields);
+	}
+
+	/**
+	 * Check that a primitive record component was parsed, failing as
+	 * {@link com.bigcloud.djomo.object.RecordModel} does if it was not
+	 */
+	protected final Object required(Object value, String component) {
+		if (value == null) {
+			throw new RuntimeException(
+					"Unable to create instance of " + getType().getName() + ", missing primitive component " + component);
+		}
+		return value;
+	}
+
+	/**
+	 * Compare a field name of a known equal length
+	 */
+	protected static boolean matches(CharSequence name, String field) {
+		for (int i = field.length() - 1; i >= 0; i--) {
+			if (name.charAt(i) != field.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
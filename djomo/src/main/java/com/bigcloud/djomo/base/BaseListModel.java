@@ -22,13 +22,18 @@ import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ModelContext;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.api.VisitorFilter;
+import com.bigcloud.djomo.internal.InlineCache;
 
 public abstract class BaseListModel<T> extends BaseComplexModel<T> implements ListModel<T> {
 	final protected Model itemModel;
+	// only present when items are dispatched by runtime class
+	private final InlineCache itemCache;
 
 	public BaseListModel(Type type, ModelContext context, Model itemModel) {
 		super(type, context);
 		this.itemModel = itemModel;
+		this.itemCache = InlineCache.isPolymorphic(itemModel) ? new InlineCache(models) : null;
 	}
 
 	@Override
@@ -80,5 +85,18 @@ public abstract class BaseListModel<T> extends BaseComplexModel<T> implements Li
 		}
 	}
 
+	/**
+	 * Visit a single item; polymorphic items are visited with the model for their
+	 * runtime class from a per-list-model inline cache unless a filter is present
+	 */
+	protected void visitItem(Object item, Visitor visitor) {
+		var cache = itemCache;
+		if (cache == null || item == null || visitor instanceof VisitorFilter) {
+			itemModel.tryVisit(item, visitor);
+		} else {
+			cache.get(item.getClass()).tryVisit(item, visitor);
+		}
+	}
+
 	protected abstract void addItem(Object maker, Object item);
 }
@@ -22,12 +22,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import com.bigcloud.djomo.ModelType;
 import com.bigcloud.djomo.Models;
@@ -35,8 +32,6 @@ import com.bigcloud.djomo.annotation.Order;
 import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ModelContext;
-import com.bigcloud.djomo.api.ObjectModel;
-import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.Visitor;
 import com.bigcloud.djomo.internal.CharSequenceLookup;
 import com.bigcloud.djomo.object.BeanField;
@@ -48,10 +43,8 @@ import com.bigcloud.djomo.object.BeanField;
  *
  * @param <T>
  */
-public abstract class BaseObjectModel<T> extends BaseComplexModel<T> implements ObjectModel<T> {
+public abstract class BaseObjectModel<T> extends BaseFieldsModel<T> {
 	protected final CharSequenceLookup<Field> fields;
-	protected final Field[] sortedFields;
-	protected final List<Field> fieldList;
 
 	public BaseObjectModel(Type type, ModelContext context) throws IllegalAccessException {
 		super(type, context);
@@ -86,61 +79,18 @@ public abstract class BaseObjectModel<T> extends BaseComplexModel<T> implements
 		} else {
 			Arrays.sort(sortedFields, (a, b) -> a.key().toString().compareTo(b.key().toString()));
 		}
-		this.sortedFields = sortedFields;
-		this.fieldList = List.of(sortedFields);
+		sortedFields(sortedFields);
 	}
 
 	protected BaseObjectModel(Models models, Type type, Field... fields) {
 		super(type, models);
-		this.sortedFields = fields;
-		this.fieldList = List.of(sortedFields);
+		sortedFields(fields);
 		this.fields = new CharSequenceLookup<Field>(
 				fieldList.stream().collect(Collectors.toMap(f -> f.key().toString(), Function.identity())));
 	}
 
 	protected abstract Map<CharSequence, Field> initFields(ModelContext context) throws IllegalAccessException;
 
-	@Override
-	public Object maker(T obj) {
-		var m = maker();
-		for (Field f : sortedFields) {
-			f.set(m, f.get(obj));
-		}
-		return m;
-	}
-
-	@Override
-	public void visit(T obj, Visitor visitor) {
-		visitor.visitObject(obj, this);
-	}
-
-	@Override
-	public void tryVisit(T obj, Visitor visitor) {
-		if(obj == null) {
-			visitor.visitNull();
-			return;
-		}
-		Class c = obj.getClass();
-		if(c == type) {
-			visitor.visitObject(obj, this);
-		}
-		else {
-			visitor.visitObject(obj, (ObjectModel)models.get(c));
-		}
-	}
-
-	@Override
-	public T parse(Parser parser) {
-		return (T) parser.parseObject(this);
-	}
-
-	@Override
-	public void forEachField(T t, BiConsumer consumer) {
-		for (Field f : sortedFields) {
-			consumer.accept(f.key(), f.get(t));
-		}
-	}
-
 	@Override
 	public void visitFields(T t, Visitor visitor) {
 		for (Field f : sortedFields) {
@@ -153,21 +103,11 @@ public abstract class BaseObjectModel<T> extends BaseComplexModel<T> implements
 		return fields.get(name);
 	}
 
-	@Override
-	public List<Field> fields() {
-		return fieldList;
-	}
-	
-	@Override
-	public Stream<Field> fields(T t) {
-		return fieldList.stream();
-	}
-
 	protected <CLASS_TYPE> void accessor(MethodHandles.Lookup lookup, ModelContext context, BeanField.Builder fieldDef,
 			Method method, Map<String, Type> typeArgs) throws IllegalAccessException {
 		Type ft = fixGenericType(method.getGenericReturnType(), typeArgs);
 		fieldDef.accessor(lookup.unreflect(method));
-		fieldDef.model((Model) context.get(ft));
+		fieldModel(context, fieldDef, ft);
 	}
 
 	protected <CLASS_TYPE> void publicField(MethodHandles.Lookup lookup, ModelContext context,
@@ -176,21 +116,34 @@ public abstract class BaseObjectModel<T> extends BaseComplexModel<T> implements
 		Type ft = fixGenericType(field.getGenericType(), typeArgs);
 		fieldDef.accessor(lookup.unreflectGetter(field));
 		fieldDef.mutator(lookup.unreflectSetter(field));
-		fieldDef.model((Model) context.get(ft));
+		fieldModel(context, fieldDef, ft);
 	}
 
 	protected <CLASS_TYPE> void mutator(MethodHandles.Lookup lookup, ModelContext context, BeanField.Builder fieldDef,
 			Method method, Map<String, Type> typeArgs) throws IllegalAccessException {
 		Type ft = fixGenericType(method.getGenericParameterTypes()[0], typeArgs);
 		fieldDef.mutator(lookup.unreflect(method));
-		fieldDef.model((Model) context.get(ft));
+		fieldModel(context, fieldDef, ft);
 	}
 
 	protected <CLASS_TYPE> void mutator(MethodHandles.Lookup lookup, ModelContext context, BeanField.Builder fieldDef,
 			MethodHandle method, Type fieldType, Map<String, Type> typeArgs) throws IllegalAccessException {
 		fieldType = fixGenericType(fieldType, typeArgs);
 		fieldDef.mutator(method);
-		fieldDef.model((Model) context.get(fieldType));
+		fieldModel(context, fieldDef, fieldType);
+	}
+
+	/**
+	 * Resolve the field model now, or leave it to first use when lazy fields are
+	 * enabled; java.lang types and primitives are cheap and always resolved
+	 */
+	protected void fieldModel(ModelContext context, BeanField.Builder fieldDef, Type type) {
+		if (models.lazyFields()
+				&& !(type instanceof Class<?> c && (c.isPrimitive() || c.getPackageName().equals("java.lang")))) {
+			fieldDef.lazyModel(type, models);
+		} else {
+			fieldDef.model((Model) context.get(type));
+		}
 	}
 
 	private Type fixGenericType(Type declared, Map<String, Type> args) {
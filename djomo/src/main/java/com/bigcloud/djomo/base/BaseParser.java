@@ -22,6 +22,7 @@ import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.ParserFilter;
 import com.bigcloud.djomo.api.ParserFilterFactory;
+import com.bigcloud.djomo.internal.FieldOrder;
 
 /**
  * Baseline parser support, source agnostic
@@ -51,6 +52,21 @@ public abstract class BaseParser implements Parser {
 		return definition.parse(parser);
 	}
 
+	/**
+	 * @return the write order of the model's fields, if the parser is unfiltered
+	 *         and the model has a fixed set of fields, for predicting the next key;
+	 *         otherwise null
+	 */
+	protected FieldOrder fieldOrder(ObjectModel definition) {
+		if (parser != this) {
+			return null;
+		}
+		if (definition instanceof BaseFieldsModel<?> fm) {
+			return fm.fieldOrder;
+		}
+		return null;
+	}
+
 	protected Object objectMaker(ObjectModel definition) {
 		return definition.maker();
 	}
@@ -93,6 +93,11 @@ public class BaseParserFilter implements ParserFilter, Cloneable {
 		return parser.parseNull();
 	}
 
+	@Override
+	public void skip() {
+		parser.skip();
+	}
+
 	@Override
 	public Models models() {
 		return parser.models();
@@ -92,7 +92,7 @@ public class InstanceParser extends BaseParser implements Parser {
 						if (field != null) {
 							field.parse(maker, parser);
 						} else {
-							parser.parse();
+							parser.skip();
 						}
 					} finally {
 						source = os;
@@ -141,6 +141,11 @@ public class InstanceParser extends BaseParser implements Parser {
 		return null;
 	}
 
+	@Override
+	public void skip() {
+		// the source value is already in memory and there is no position to advance
+	}
+
 	@Override
 	public int parseInt() {
 		if (source instanceof Number n) {
@@ -74,7 +74,7 @@ public class LimitParser extends BaseParserFilter {
 			if (--limit >= 0) {
 				listModel.parseItem(listMaker, parser);
 			} else {
-				listModel.itemModel().parse(parser);
+				parser.skip();
 			}
 		}
 	}
@@ -86,7 +86,7 @@ public class ObjectFieldListParser extends BaseParserFilter {
 				c.parse(listMaker, parser);
 			}
 			else {
-				parser.parse();
+				parser.skip();
 			}
 		}
 		
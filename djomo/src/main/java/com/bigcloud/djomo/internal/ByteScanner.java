@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Word-at-a-time scanning over UTF-8 input; eight bytes are loaded as a single
+ * long and tested in parallel with bit twiddling, so long string bodies and
+ * indentation runs are skipped in 8-byte strides. Each method falls back to a
+ * plain byte loop for the tail of the range.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class ByteScanner {
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+	private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long QUOTES = ONES * '"';
+	private static final long BACKSLASHES = ONES * '\\';
+	private static final long SPACES = ONES * ' ';
+
+	/**
+	 * Find the first byte in a string body that needs attention
+	 * 
+	 * @param buf bytes to scan
+	 * @param rp  first position to scan
+	 * @param wp  end of the range to scan
+	 * @return the position of the first quote, backslash or non-ASCII byte, or wp
+	 *         if there is none
+	 */
+	public static int scanString(byte[] buf, int rp, int wp) {
+		for (int limit = wp - 8; rp <= limit; rp += 8) {
+			long word = (long) LONGS.get(buf, rp);
+			long mask = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES) | (word & HIGHS);
+			if (mask != 0) {
+				return rp + (Long.numberOfTrailingZeros(mask) >>> 3);
+			}
+		}
+		for (; rp < wp; rp++) {
+			byte r = buf[rp];
+			if (r == '"' || r == '\\' || r < 0) {
+				break;
+			}
+		}
+		return rp;
+	}
+
+	/**
+	 * Skip a run of spaces, the bulk of indented whitespace
+	 * 
+	 * @param buf bytes to scan
+	 * @param rp  first position to scan
+	 * @param wp  end of the range to scan
+	 * @return the position of the first byte that is not a space, or wp if there
+	 *         is none
+	 */
+	public static int skipSpaces(byte[] buf, int rp, int wp) {
+		for (int limit = wp - 8; rp <= limit; rp += 8) {
+			long mask = nonZeroBytes((long) LONGS.get(buf, rp) ^ SPACES);
+			if (mask != 0) {
+				return rp + (Long.numberOfTrailingZeros(mask) >>> 3);
+			}
+		}
+		while (rp < wp && buf[rp] == ' ') {
+			rp++;
+		}
+		return rp;
+	}
+
+	/**
+	 * Sets the high bit of each zero byte; exact for the lowest zero byte, which
+	 * is the only one callers look at
+	 */
+	private static long zeroBytes(long x) {
+		return (x - ONES) & ~x & HIGHS;
+	}
+
+	/**
+	 * Sets the high bit of each non-zero byte, exactly and without carries between
+	 * bytes
+	 */
+	private static long nonZeroBytes(long x) {
+		return (((x & LOWS) + LOWS) | x) & HIGHS;
+	}
+}
@@ -15,8 +15,10 @@
  *******************************************************************************/
 package com.bigcloud.djomo.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,176 +26,185 @@ import java.util.Map;
  * characters; one to compute the hash code, and then a char-by-char
  * confirmation during equals. This lookup is intended for modest sets of
  * reasonably different names as found on typical objects; it uses a precomputed
- * trie data structure to lookup a value with only a single traversal of the
- * characters in the key. Only String keys with a subset of ASCII characters are
- * supported (decimal 32-126 inclusive).
+ * radix trie to lookup a value with only a single traversal of the characters
+ * in the key. Each node stores only the branches it actually has, as a sorted
+ * array of chars alongside the matching children, so any char value is
+ * supported and a typical object model needs only a handful of small arrays.
  * 
  * @author Alex Vigdor
  *
- * @param <T> The type of value to be looked up with a simple ascii string
+ * @param <T> The type of value to be looked up with a string key
  */
 public class CharSequenceLookup<T> {
+	private static final char[] NO_CHARS = new char[0];
+	private static final CharSequenceLookup<?>[] NO_CHILDREN = new CharSequenceLookup<?>[0];
+	// beyond this many branches a binary search beats a linear scan
+	private static final int LINEAR_BRANCHES = 8;
 
-	private CharSequenceLookup() {
+	private final char[] prefix;
+	private final char[] branches;
+	private final CharSequenceLookup<T>[] children;
+	private final T data;
 
+	public CharSequenceLookup(Map<CharSequence, T> data) {
+		this(data.keySet().stream().map(CharSequence::toString).distinct().sorted().toArray(String[]::new),
+				stringKeys(data));
 	}
 
-	public CharSequenceLookup(Map<CharSequence, T> data) {
-		data.forEach((k, t) -> set(k, 0, t));
-		if (prefix == null) {
-			prefix = new char[0];
-		}
+	private CharSequenceLookup(String[] sortedKeys, Map<String, T> values) {
+		this(sortedKeys, 0, sortedKeys.length, 0, values);
 	}
 
-	private char[] prefix = null;
-	// todo would it be worth the add-time expense of copying array contents to make
-	// this field final?
-	private CharSequenceLookup<T>[] children = new CharSequenceLookup[95];
-	private T data;
+	private static <T> Map<String, T> stringKeys(Map<CharSequence, T> data) {
+		Map<String, T> values = new HashMap<>();
+		data.forEach((k, t) -> values.put(k.toString(), t));
+		return values;
+	}
 
-	private void set(CharSequence cs, int pos, T data) {
-		// System.out.println("Lookup.set("+cs+", "+pos+") to "+this);
-		int csl = cs.length();
-		if (prefix == null) {
-			// this node is empty, fill the prefix and data
-			prefix = new char[csl - pos];
-			for (int i = pos; i < csl; i++) {
-				char c = cs.charAt(i);
-				if (c < 32 || c > 126) {
-					throw new IllegalArgumentException("Character out of range for CharSequenceLookup " + c);
-				}
-				prefix[i - pos] = c;
-			}
-			this.data = data;
+	/**
+	 * Build the node covering the sorted keys in [from, to), all of which share
+	 * the first pos characters
+	 */
+	@SuppressWarnings("unchecked")
+	private CharSequenceLookup(String[] keys, int from, int to, int pos, Map<String, T> values) {
+		if (from == to) {
+			prefix = NO_CHARS;
+			branches = NO_CHARS;
+			children = (CharSequenceLookup<T>[]) NO_CHILDREN;
+			data = null;
 			return;
 		}
-		if (prefix.length > 0) {
-			int pm = 0;
-			for (; pm < prefix.length && pos < csl; pm++) {
-				if (prefix[pm] != cs.charAt(pos)) {
-					break;
-				}
-				pos++;
+		// sorted keys share a common prefix exactly when the first and last do
+		String first = keys[from];
+		String last = keys[to - 1];
+		int end = pos;
+		int max = Math.min(first.length(), last.length());
+		while (end < max && first.charAt(end) == last.charAt(end)) {
+			end++;
+		}
+		prefix = end == pos ? NO_CHARS : first.substring(pos, end).toCharArray();
+		// a key that ends here sorts ahead of its extensions
+		if (first.length() == end) {
+			data = values.get(first);
+			from++;
+		} else {
+			data = null;
+		}
+		List<CharSequenceLookup<T>> kids = new ArrayList<>();
+		StringBuilder chars = new StringBuilder();
+		while (from < to) {
+			char c = keys[from].charAt(end);
+			int next = from + 1;
+			while (next < to && keys[next].charAt(end) == c) {
+				next++;
 			}
-			if (pm == prefix.length) {
-				if (pos == csl) {
-					// this is the right destination for the data
-					this.data = data;
-					return;
+			chars.append(c);
+			kids.add(new CharSequenceLookup<>(keys, from, next, end + 1, values));
+			from = next;
+		}
+		branches = chars.length() == 0 ? NO_CHARS : chars.toString().toCharArray();
+		children = kids.isEmpty() ? (CharSequenceLookup<T>[]) NO_CHILDREN
+				: kids.toArray((CharSequenceLookup<T>[]) new CharSequenceLookup<?>[kids.size()]);
+	}
+
+	private CharSequenceLookup<T> child(char c) {
+		final char[] b = branches;
+		final int bl = b.length;
+		if (bl <= LINEAR_BRANCHES) {
+			for (int i = 0; i < bl; i++) {
+				char x = b[i];
+				if (x == c) {
+					return children[i];
 				}
-			} else {
-				// we need to split this prefix apart
-				CharSequenceLookup<T> split = new CharSequenceLookup<>();
-				split.children = this.children;
-				this.children = new CharSequenceLookup[95];
-				split.prefix = Arrays.copyOfRange(prefix, pm + 1, prefix.length);
-				split.data = this.data;
-				this.children[prefix[pm] - ' '] = split;
-				prefix = Arrays.copyOfRange(prefix, 0, pm);
-				if (pos == csl) {
-					// we need to capture this value on the first half of the split
-					this.data = data;
-					return;
+				if (x > c) {
+					return null;
 				}
-				this.data = null;
 			}
+			return null;
 		}
-		char first = cs.charAt(pos++);
-		if (first < 32 || first > 126) {
-			throw new IllegalArgumentException("Character out of range for CharSequenceLookup " + first);
-		}
-		CharSequenceLookup<T> dest = children[first - ' '];
-		if (dest == null) {
-			dest = new CharSequenceLookup<>();
-			children[first - ' '] = dest;
-		}
-		dest.set(cs, pos, data);
+		int i = Arrays.binarySearch(b, c);
+		return i < 0 ? null : children[i];
 	}
 
 	public T get(CharSequence cs) {
 		final int csl = cs.length();
-		if (csl == 0) {
-			if (prefix.length == 0) {
-				return data;
-			}
-			return null;
-		}
-		if(cs instanceof CharArraySequence cas) {
-			var buf = cas.buffer.buffer;
-			var pos = cas.start;
-			var end = pos + csl;
-			char c = buf[pos++];
-			CharSequenceLookup<T> node = this;
-			while (node != null) {
+		CharSequenceLookup<T> node = this;
+		if (cs instanceof CharArraySequence cas) {
+			final var buf = cas.buffer.buffer;
+			int pos = cas.start;
+			final int end = pos + csl;
+			while (true) {
 				final char[] np = node.prefix;
 				final int npl = np.length;
-				if (npl > 0) {
-					for (int pm = 0; pm < npl ; pm++) {
-						if (np[pm] != c) {
-							return null;
-						}
-						if (pos == end) {
-							if (pm < npl - 1) {
-								return null;
-							}
-							return node.data;
-						}
-						c = buf[pos++];
-					}
+				if (end - pos < npl) {
+					return null;
 				}
-				if (c < 32 || c > 126) {
-					throw new IllegalArgumentException("Character out of range for CharSequenceLookup " + c);
+				for (int pm = 0; pm < npl; pm++) {
+					if (np[pm] != buf[pos++]) {
+						return null;
+					}
 				}
-				node = node.children[c - ' '];
 				if (pos == end) {
-					return node == null ? null : node.data;
+					return node.data;
+				}
+				node = node.child(buf[pos++]);
+				if (node == null) {
+					return null;
 				}
-				c = buf[pos++];
 			}
 		}
-		else {
-			char c = cs.charAt(0);
-			int pos = 1;
-			CharSequenceLookup<T> node = this;
-			while (node != null) {
+		if (cs instanceof ByteArraySequence bas) {
+			// raw ASCII bytes from a UTF-8 source, compared without decoding
+			final var buf = bas.buffer.buffer;
+			int pos = bas.start;
+			final int end = pos + csl;
+			while (true) {
 				final char[] np = node.prefix;
 				final int npl = np.length;
-				if (npl > 0) {
-					for (int pm = 0; pm < npl ; pm++) {
-						if (np[pm] != c) {
-							return null;
-						}
-						if (pos == csl) {
-							if (pm < npl - 1) {
-								return null;
-							}
-							return node.data;
-						}
-						c = cs.charAt(pos++);
+				if (end - pos < npl) {
+					return null;
+				}
+				for (int pm = 0; pm < npl; pm++) {
+					if (np[pm] != buf[pos++]) {
+						return null;
 					}
 				}
-				if (c < 32 || c > 126) {
-					throw new IllegalArgumentException("Character out of range for CharSequenceLookup " + c);
+				if (pos == end) {
+					return node.data;
 				}
-				node = node.children[c - ' '];
-				if (pos == csl) {
-					return node == null ? null : node.data;
+				node = node.child((char) buf[pos++]);
+				if (node == null) {
+					return null;
 				}
-				c = cs.charAt(pos++);
 			}
 		}
-		return null;
+		int pos = 0;
+		while (true) {
+			final char[] np = node.prefix;
+			final int npl = np.length;
+			if (csl - pos < npl) {
+				return null;
+			}
+			for (int pm = 0; pm < npl; pm++) {
+				if (np[pm] != cs.charAt(pos++)) {
+					return null;
+				}
+			}
+			if (pos == csl) {
+				return node.data;
+			}
+			node = node.child(cs.charAt(pos++));
+			if (node == null) {
+				return null;
+			}
+		}
 	}
 
 	public String toString() {
 		Map<String, CharSequenceLookup<T>> lettermappings = new HashMap<>();
 		for (int i = 0; i < children.length; i++) {
-			CharSequenceLookup<T> ln = children[i];
-			if (ln != null) {
-				lettermappings.put(String.valueOf((char) (i + ' ')), ln);
-			}
+			lettermappings.put(String.valueOf(branches[i]), children[i]);
 		}
-		return "[ prefix: " + (prefix == null ? null : new String(prefix)) + ", data: " + data + ", children: "
-				+ lettermappings + " ]";
+		return "[ prefix: " + new String(prefix) + ", data: " + data + ", children: " + lettermappings + " ]";
 	}
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import java.util.Arrays;
+
+import com.bigcloud.djomo.api.Field;
+
+/**
+ * The fields of an object model in the order they are written, with each key
+ * pre-encoded as it appears in JSON including the quotes. Input produced in the
+ * same order can be matched against the predicted next key with one array
+ * comparison, falling back to decoding the key and looking it up only on a
+ * miss.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public final class FieldOrder {
+	private final Field[] fields;
+	private final char[][] chars;
+	private final byte[][] bytes;
+
+	public FieldOrder(Field[] fields) {
+		this.fields = fields;
+		this.chars = new char[fields.length][];
+		this.bytes = new byte[fields.length][];
+		for (int i = 0; i < fields.length; i++) {
+			FieldToken token = FieldToken.of(fields[i].key());
+			// drop the trailing colon, whitespace may precede it in the input
+			chars[i] = Arrays.copyOf(token.chars, token.chars.length - 1);
+			bytes[i] = Arrays.copyOf(token.bytes, token.bytes.length - 1);
+		}
+	}
+
+	public int size() {
+		return fields.length;
+	}
+
+	public Field field(int index) {
+		return fields[index];
+	}
+
+	/**
+	 * @return the number of bytes matched by a successful byte[] match
+	 */
+	public int byteLength(int index) {
+		return bytes[index].length;
+	}
+
+	/**
+	 * @return the number of chars matched by a successful char[] match
+	 */
+	public int charLength(int index) {
+		return chars[index].length;
+	}
+
+	/**
+	 * @param index    the predicted field
+	 * @param input    a buffer positioned at the opening quote of a key
+	 * @param position the position of the opening quote
+	 * @param limit    the end of readable data in the buffer
+	 * @return true if the key is the predicted field; false if it is not or is not
+	 *         entirely in the buffer
+	 */
+	public boolean matches(int index, byte[] input, int position, int limit) {
+		byte[] key = bytes[index];
+		int end = position + key.length;
+		return end <= limit && Arrays.equals(key, 0, key.length, input, position, end);
+	}
+
+	public boolean matches(int index, char[] input, int position, int limit) {
+		char[] key = chars[index];
+		int end = position + key.length;
+		return end <= limit && Arrays.equals(key, 0, key.length, input, position, end);
+	}
+
+	/**
+	 * Find where a field looked up after a failed prediction sits in the order, to
+	 * predict its successor next
+	 * 
+	 * @param field a field of the model
+	 * @param from  the failed prediction, where the search starts
+	 * @return the index of the field, or -1 if it is not part of this order
+	 */
+	public int indexOf(Field field, int from) {
+		int n = fields.length;
+		for (int i = 0; i < n; i++) {
+			int p = from + i;
+			if (p >= n) {
+				p -= n;
+			}
+			if (fields[p] == field) {
+				return p;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import java.nio.charset.StandardCharsets;
+
+import com.bigcloud.djomo.api.Visitor;
+
+/**
+ * A field name along with its JSON encoding, escaped once so that writers can
+ * copy the <code>"name":</code> token directly into their output buffers.
+ * Tokens are only handed to a {@link Writer}; every other visitor, including
+ * filters, receives the plain field key.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public final class FieldToken implements CharSequence {
+	private static final char[] hexchars = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E',
+			'F' };
+	private final String name;
+	/**
+	 * the escaped, quoted name followed by a colon
+	 */
+	public final char[] chars;
+	/**
+	 * UTF-8 encoding of {@link #chars}
+	 */
+	public final byte[] bytes;
+
+	private FieldToken(String name) {
+		this.name = name;
+		this.chars = encode(name);
+		this.bytes = new String(chars).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Implemented by the JSON writers to accept a pre-encoded field name
+	 */
+	public interface Writer {
+		void visitFieldToken(FieldToken token);
+	}
+
+	/**
+	 * Visit the field name, as this token if the visitor is an unfiltered writer,
+	 * otherwise as the field key
+	 */
+	public void visit(Visitor visitor, Object key) {
+		if (visitor instanceof Writer writer) {
+			writer.visitFieldToken(this);
+		} else {
+			visitor.visitObjectField(key);
+		}
+	}
+
+	public static FieldToken of(Object key) {
+		if (key instanceof FieldToken t) {
+			return t;
+		}
+		return new FieldToken(String.valueOf(key));
+	}
+
+	private static char[] encode(String name) {
+		StringBuilder sb = new StringBuilder(name.length() + 3);
+		sb.append('"');
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			switch (c) {
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\f':
+				sb.append("\\f");
+				break;
+			case '\b':
+				sb.append("\\b");
+				break;
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (c < 32 || c == '\u2028' || c == '\u2029') {
+					sb.append("\\u").append(hexchars[c >> 12]).append(hexchars[(c >> 8) & 0xF])
+							.append(hexchars[(c >> 4) & 0xF]).append(hexchars[c & 0xF]);
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"').append(':');
+		char[] encoded = new char[sb.length()];
+		sb.getChars(0, encoded.length, encoded, 0);
+		return encoded;
+	}
+
+	@Override
+	public int length() {
+		return name.length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return name.charAt(index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return name.subSequence(start, end);
+	}
+
+	public int hashCode() {
+		return name.hashCode();
+	}
+
+	public boolean equals(Object o) {
+		if (o instanceof CharSequence cs) {
+			return name.contentEquals(cs);
+		}
+		return false;
+	}
+
+	public String toString() {
+		return name;
+	}
+}
@@ -253,8 +253,9 @@ public class FloatingParser {
 		// Parse optional leading zero
 		// ---------------------------
 		final boolean hasLeadingZero = ch == '0';
-		if (hasLeadingZero) {
-			ch = str[++index];
+		if (hasLeadingZero && ++index < endIndex) {
+			// a lone zero must not look past its end, at stale buffer contents
+			ch = str[index];
 			if (ch == '0') {
 				throw new NumberFormatException(new String(str, offset, length));
 			}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.Resolver;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.poly.AnyModel;
+import com.bigcloud.djomo.poly.ResolverModel;
+
+/**
+ * Per call-site cache from runtime class to {@link Model}, for places where the
+ * declared type says little about the values actually seen, like interface
+ * typed fields or lists of Object. The first class seen is held in a
+ * monomorphic slot; up to {@link #LIMIT} further classes are kept in a small
+ * array scanned by identity, after which lookups go to {@link Models}.
+ * <p>
+ * Entries are immutable and replaced wholesale, so concurrent visitors may at
+ * worst lose an update and repeat a lookup.
+ * </p>
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public final class InlineCache {
+	static final int LIMIT = 4;
+	private static final Entry[] EMPTY = new Entry[0];
+
+	private final Models models;
+	private Entry first;
+	private Entry[] others = EMPTY;
+
+	public InlineCache(Models models) {
+		this.models = models;
+	}
+
+	/**
+	 * @param model a declared field or item model
+	 * @return true if values are dispatched to a model based on their runtime
+	 *         class
+	 */
+	public static boolean isPolymorphic(Model<?> model) {
+		return model instanceof AnyModel
+				|| (model instanceof ResolverModel<?> rm && !(rm.getResolver() instanceof Resolver.Substitute));
+	}
+
+	@SuppressWarnings("rawtypes")
+	public Model get(Class<?> type) {
+		Entry e = first;
+		if (e != null && e.type == type) {
+			return e.model;
+		}
+		return miss(type);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Model miss(Class<?> type) {
+		Entry[] es = others;
+		for (int i = 0; i < es.length; i++) {
+			Entry e = es[i];
+			if (e.type == type) {
+				return e.model;
+			}
+		}
+		Model model = models.get(type);
+		Entry e = new Entry(type, model);
+		if (first == null) {
+			first = e;
+		} else if (es.length < LIMIT) {
+			Entry[] grown = new Entry[es.length + 1];
+			System.arraycopy(es, 0, grown, 0, es.length);
+			grown[es.length] = e;
+			others = grown;
+		}
+		return model;
+	}
+
+	private static final class Entry {
+		final Class<?> type;
+		@SuppressWarnings("rawtypes")
+		final Model model;
+
+		Entry(Class<?> type, Model<?> model) {
+			this.type = type;
+			this.model = model;
+		}
+	}
+}
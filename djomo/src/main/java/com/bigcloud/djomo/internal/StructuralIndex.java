@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import java.util.Arrays;
+
+/**
+ * First phase of a two-phase parse over a fully buffered UTF-8 document: one
+ * pass records the positions of the brackets, braces and commas that lie
+ * outside of strings, and pairs each opening bracket or brace with its close.
+ * The elements of any array can then be located without tokenizing their
+ * contents, so they can be bound independently.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public final class StructuralIndex {
+	private final byte[] data;
+	private int[] positions;
+	// for opening entries, the index of the matching close; otherwise unused
+	private int[] matches;
+	private int size;
+
+	private StructuralIndex(byte[] data, int capacity) {
+		this.data = data;
+		this.positions = new int[capacity];
+		this.matches = new int[capacity];
+	}
+
+	/**
+	 * @return the index, or null if the brackets and strings in the range are not
+	 *         balanced; a regular parse will then report the error
+	 */
+	public static StructuralIndex build(byte[] data, int offset, int length) {
+		final int end = offset + length;
+		StructuralIndex index = new StructuralIndex(data, Math.max(16, length >>> 4));
+		int[] stack = new int[32];
+		int depth = 0;
+		for (int i = offset; i < end; i++) {
+			switch (data[i]) {
+			case '"':
+				// pass over the string body
+				i++;
+				while (true) {
+					i = ByteScanner.scanString(data, i, end);
+					if (i >= end) {
+						return null;
+					}
+					byte b = data[i];
+					if (b == '"') {
+						break;
+					}
+					i += b == '\\' ? 2 : 1;
+				}
+				break;
+			case '[':
+			case '{':
+				if (depth == stack.length) {
+					stack = Arrays.copyOf(stack, depth * 2);
+				}
+				stack[depth++] = index.add(i);
+				break;
+			case ']':
+			case '}':
+				if (depth == 0) {
+					return null;
+				}
+				int open = stack[--depth];
+				if (data[index.positions[open]] != (data[i] == ']' ? '[' : '{')) {
+					return null;
+				}
+				// add first: it may replace the matches array
+				int close = index.add(i);
+				index.matches[open] = close;
+				break;
+			case ',':
+				index.add(i);
+				break;
+			default:
+			}
+		}
+		return depth == 0 ? index : null;
+	}
+
+	private int add(int position) {
+		int s = size;
+		if (s == positions.length) {
+			positions = Arrays.copyOf(positions, s * 2);
+			matches = Arrays.copyOf(matches, s * 2);
+		}
+		positions[s] = position;
+		size = s + 1;
+		return s;
+	}
+
+	/**
+	 * @return the number of structural entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the byte position of the entry
+	 */
+	public int position(int entry) {
+		return positions[entry];
+	}
+
+	/**
+	 * @return the entry at a byte position, or -1 if there is no structural
+	 *         character there
+	 */
+	public int entryAt(int position) {
+		int e = Arrays.binarySearch(positions, 0, size, position);
+		return e < 0 ? -1 : e;
+	}
+
+	/**
+	 * @return the entry closing the array or object opened by this entry
+	 */
+	public int match(int open) {
+		return matches[open];
+	}
+
+	/**
+	 * Locate the elements of an array, or the members of an object
+	 * 
+	 * @param open the entry of the opening bracket or brace
+	 * @return the byte position at which each element begins, which may be
+	 *         preceded by whitespace; empty for an empty array or object
+	 */
+	public int[] elementStarts(int open) {
+		final int close = matches[open];
+		int[] starts = new int[8];
+		int count = 0;
+		starts[count++] = positions[open] + 1;
+		for (int e = open + 1; e < close; e++) {
+			switch (data[positions[e]]) {
+			case ',':
+				if (count == starts.length) {
+					starts = Arrays.copyOf(starts, count * 2);
+				}
+				starts[count++] = positions[e] + 1;
+				break;
+			case '[':
+			case '{':
+				e = matches[e];
+				break;
+			default:
+			}
+		}
+		if (count == 1) {
+			// a single element, unless there is nothing but whitespace
+			int p = starts[0], end = positions[close];
+			while (p < end && isWhitespace(data[p])) {
+				p++;
+			}
+			if (p == end) {
+				return new int[0];
+			}
+		}
+		return count == starts.length ? starts : Arrays.copyOf(starts, count);
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+	}
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.internal;
+
+import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.Utf8Buffer;
+/**
+ * This class parses and returns a volatile char sequence representing a string read from UTF-8 input;
+ * the caller must use the CharSequence before reading more data from the readBuffer.  Strings made up
+ * only of unescaped ASCII are returned as a view of the raw bytes without decoding; anything else is decoded
+ * into the writeBuffer.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class Utf8SequenceParser {
+
+	public static CharSequence parse(Utf8Buffer readBuffer, Buffer writeBuffer) {
+		int rp = readBuffer.readPosition + 1, start = rp;
+		int wp = readBuffer.writePosition;
+		// happy path; first character is already known to be a quote
+		byte[] rb = readBuffer.buffer;
+		rp = ByteScanner.scanString(rb, rp, wp);
+		if (rp < wp && rb[rp] == '"') {
+			readBuffer.readPosition = rp + 1;
+			var seq = readBuffer.byteArraySequence;
+			seq.start = start;
+			seq.len = rp - start;
+			return seq;
+		}
+		byte r;
+		writeBuffer.writePosition = 0;
+		OUTER: while (true) {
+			if (rp == wp) {
+				writeBuffer.writeAscii(rb, start, rp - start);
+				readBuffer.refillStrict();
+				rp = start = readBuffer.readPosition;
+				wp = readBuffer.writePosition;
+			}
+			r = rb[rp++];
+			if (r == '"') {
+				writeBuffer.writeAscii(rb, start, rp - 1 - start);
+				readBuffer.readPosition = rp;
+				var seq = writeBuffer.charArraySequence;
+				seq.start = 0;
+				seq.len = writeBuffer.writePosition;
+				return seq;
+			}
+			if (r < 0) {
+				writeBuffer.writeAscii(rb, start, rp - 1 - start);
+				int code;
+				int rem;
+				if ((r & 0xE0) == 0xC0) {
+					code = r & 0x1F;
+					rem = 1;
+				} else if ((r & 0xF0) == 0xE0) {
+					code = r & 0x0F;
+					rem = 2;
+				} else if ((r & 0xF8) == 0xF0) {
+					code = r & 0x07;
+					rem = 3;
+				} else {
+					// stray continuation or invalid lead byte
+					code = 0xFFFD;
+					rem = 0;
+				}
+				for (; rem > 0; rem--) {
+					if (rp == wp) {
+						readBuffer.refillStrict();
+						rp = readBuffer.readPosition;
+						wp = readBuffer.writePosition;
+					}
+					code = (code << 6) | (rb[rp++] & 0x3F);
+				}
+				if (code >= 0x10000) {
+					writeBuffer.write((char) (0xD800 + ((code - 0x10000) >> 10)));
+					writeBuffer.write((char) (0xDC00 + (code & 0x3FF)));
+				} else {
+					writeBuffer.write((char) code);
+				}
+				start = rp;
+			} else if (r == '\\') {
+				writeBuffer.writeAscii(rb, start, rp - 1 - start);
+				if (rp == wp) {
+					readBuffer.refillStrict();
+					rp = start = readBuffer.readPosition;
+					wp = readBuffer.writePosition;
+				}
+				r = rb[rp++];
+				switch (r) {
+					case 'n':
+						writeBuffer.write('\n');
+						break;
+					case 'r':
+						writeBuffer.write('\r');
+						break;
+					case 't':
+						writeBuffer.write('\t');
+						break;
+					case 'f':
+						writeBuffer.write('\f');
+						break;
+					case 'b':
+						writeBuffer.write('\b');
+						break;
+					case 'u':
+						int accum = 0;
+						boolean ec6 = false;
+						int chars = 0;
+						ESCAPE: while (true) {
+							if (rp == wp) {
+								readBuffer.refillStrict();
+								rp = start = readBuffer.readPosition;
+								wp = readBuffer.writePosition;
+							}
+							r = rb[rp++];
+							int p = 0;
+							switch (r) {
+								case '0':
+									break;
+								case '1':
+									p = 1;
+									break;
+								case '2':
+									p = 2;
+									break;
+								case '3':
+									p = 3;
+									break;
+								case '4':
+									p = 4;
+									break;
+								case '5':
+									p = 5;
+									break;
+								case '6':
+									p = 6;
+									break;
+								case '7':
+									p = 7;
+									break;
+								case '8':
+									p = 8;
+									break;
+								case '9':
+									p = 9;
+									break;
+								case 'A':
+								case 'a':
+									p = 10;
+									break;
+								case 'B':
+								case 'b':
+									p = 11;
+									break;
+								case 'C':
+								case 'c':
+									p = 12;
+									break;
+								case 'D':
+								case 'd':
+									p = 13;
+									break;
+								case 'E':
+								case 'e':
+									p = 14;
+									break;
+								case 'F':
+								case 'f':
+									p = 15;
+									break;
+								case '}':
+									break ESCAPE;
+								case '{':
+									if (chars == 0) {
+										ec6 = true;
+										continue;
+									}
+								default:
+									// drop invalid
+									start = --rp;
+									continue OUTER;
+							}
+							accum = accum * 16 + p;
+							if (!ec6 && ++chars == 4) {
+								break;
+							}
+						}
+						writeBuffer.write((char) accum);
+						break;
+					default:
+						writeBuffer.write((char) r);
+				}
+				start = rp;
+			}
+			rp = ByteScanner.scanString(rb, rp, wp);
+		}
+
+	}
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Writes encoded UTF-8 bytes to an AsynchronousByteChannel, waiting for each
+ * flush of the writer's buffer to complete before the buffer is reused. The
+ * writer's buffer is a heap array, so the JDK copies each flush into a
+ * temporary direct buffer for the native write.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class AsynchronousChannelSink implements ByteSink {
+	final AsynchronousByteChannel channel;
+	ByteBuffer view;
+
+	public AsynchronousChannelSink(AsynchronousByteChannel channel) {
+		this.channel = channel;
+	}
+
+	@Override
+	public void buffer(byte[] buffer) {
+		this.view = ByteBuffer.wrap(buffer);
+	}
+
+	@Override
+	public void next(int len) {
+		final var v = view;
+		v.clear().limit(len);
+		try {
+			while (v.hasRemaining()) {
+				channel.write(v).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public void last(int len) {
+		next(len);
+	}
+
+}
@@ -25,6 +25,7 @@ import com.bigcloud.djomo.internal.CharArraySequence;
 
 public class Buffer extends Writer {
 	private final Reader source;
+	private final BufferPool pool;
 	public final CharArraySequence charArraySequence;
 	public char[] buffer;
 	public int readPosition;
@@ -35,8 +36,17 @@ public class Buffer extends Writer {
 	}
 
 	public Buffer(char[] firstBuffer, Reader source) {
+		this(firstBuffer, source, null);
+	}
+
+	/**
+	 * @param pool when not null, larger buffers are taken from and outgrown
+	 *             buffers returned to this pool
+	 */
+	public Buffer(char[] firstBuffer, Reader source, BufferPool pool) {
 		buffer = firstBuffer;
 		this.source = source;
+		this.pool = pool;
 		this.charArraySequence = new CharArraySequence(this);
 	}
 
@@ -53,6 +63,12 @@ public class Buffer extends Writer {
 		while (nbl < target) {
 			nbl *= 2;
 		}
+		if (pool != null) {
+			char[] grown = pool.chars(nbl);
+			System.arraycopy(buf, 0, grown, 0, buf.length);
+			pool.release(buf);
+			return buffer = grown;
+		}
 		return buffer = Arrays.copyOf(buf, nbl);
 	}
 
@@ -74,6 +90,17 @@ public class Buffer extends Writer {
 		str.getChars(offset, length + offset, reserve(wp + length), wp);
 	}
 
+	/**
+	 * Widen a run of 7-bit bytes into this buffer, one char per byte
+	 */
+	public void writeAscii(byte[] bytes, int start, int length) {
+		final int wp = writePosition;
+		final var buf = reserve(wp + length);
+		for (int i = 0; i < length; i++) {
+			buf[wp + i] = (char) bytes[start + i];
+		}
+	}
+
 	@Override
 	public void write(int c) {
 		final int wp = writePosition;
@@ -217,6 +244,115 @@ public class Buffer extends Writer {
 		}
 	}
 
+	/**
+	 * Skip whitespace between top-level values, as in newline-delimited JSON
+	 * 
+	 * @return true if there is another value to read, false at the end of input
+	 */
+	public boolean hasMore() {
+		var buf = buffer;
+		int rp = readPosition;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				switch (buf[rp]) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					++rp;
+					break;
+				default:
+					readPosition = rp;
+					return true;
+				}
+			}
+			if (!refill()) {
+				return false;
+			}
+			rp = readPosition;
+		}
+	}
+
+	/**
+	 * Advance past the next value without interpreting it; containers are
+	 * balanced by depth and string contents, including escapes, are passed over.
+	 * Input is only checked as far as needed to find the end of the value.
+	 */
+	public void skip() {
+		seek();
+		var buf = buffer;
+		int rp = readPosition;
+		int depth = 0;
+		boolean inString = false;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				if (inString) {
+					char c = buf[rp++];
+					if (c == '"') {
+						inString = false;
+						if (depth == 0) {
+							readPosition = rp;
+							return;
+						}
+					} else if (c == '\\') {
+						if (rp == wp) {
+							refillStrict();
+							rp = readPosition;
+							wp = writePosition;
+						}
+						rp++;
+					}
+					continue;
+				}
+				switch (buf[rp]) {
+				case '"':
+					inString = true;
+					break;
+				case '{':
+				case '[':
+					depth++;
+					break;
+				case '}':
+				case ']':
+					if (depth == 0) {
+						// a scalar ended by its enclosing container
+						readPosition = rp;
+						return;
+					}
+					if (--depth == 0) {
+						readPosition = rp + 1;
+						return;
+					}
+					break;
+				case ',':
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					if (depth == 0) {
+						readPosition = rp;
+						return;
+					}
+					break;
+				default:
+					break;
+				}
+				rp++;
+			}
+			if (!refill()) {
+				if (depth > 0 || inString) {
+					throw new ModelException("Unexpected EOF");
+				}
+				return;
+			}
+			rp = readPosition;
+		}
+	}
+
 	public void unread() {
 		--readPosition;
 	}
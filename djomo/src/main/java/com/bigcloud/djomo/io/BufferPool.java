@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+/**
+ * Source of the char[] and byte[] buffers used for reading and writing JSON.
+ * Buffers are pooled in power of two size classes from {@link #MIN_SIZE} to
+ * {@link #MAX_SIZE}; requests are rounded up to a size class, and larger
+ * requests are simply allocated. A released buffer must not be used again by
+ * the caller.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public interface BufferPool {
+	int MIN_SIZE = 1 << 12;
+	int MAX_SIZE = 1 << 17;
+	int SIZE_CLASSES = 6;
+
+	/**
+	 * @param minLength the smallest acceptable buffer length
+	 * @return a buffer of at least minLength chars, with undefined content
+	 */
+	char[] chars(int minLength);
+
+	/**
+	 * @param minLength the smallest acceptable buffer length
+	 * @return a buffer of at least minLength bytes, with undefined content
+	 */
+	byte[] bytes(int minLength);
+
+	/**
+	 * Return a buffer to the pool; buffers that are not a pooled size, or for
+	 * which there is no room, are left to the garbage collector
+	 */
+	void release(char[] buffer);
+
+	/**
+	 * Return a buffer to the pool; buffers that are not a pooled size, or for
+	 * which there is no room, are left to the garbage collector
+	 */
+	void release(byte[] buffer);
+
+	/**
+	 * @return the size class that would serve a request for minLength, or -1 if
+	 *         it is larger than {@link #MAX_SIZE}
+	 */
+	static int requestClass(int minLength) {
+		if (minLength <= MIN_SIZE) {
+			return 0;
+		}
+		if (minLength > MAX_SIZE) {
+			return -1;
+		}
+		return 32 - Integer.numberOfLeadingZeros(minLength - 1) - 12;
+	}
+
+	/**
+	 * @return the size class of a buffer of exactly this length, or -1 if it is
+	 *         not a pooled size
+	 */
+	static int releaseClass(int length) {
+		if (length < MIN_SIZE || length > MAX_SIZE || Integer.bitCount(length) != 1) {
+			return -1;
+		}
+		return Integer.numberOfTrailingZeros(length) - 12;
+	}
+
+	static int classSize(int sizeClass) {
+		return MIN_SIZE << sizeClass;
+	}
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * In-memory ByteSink that collects flushed bytes into a list of fixed size
+ * segments borrowed from a {@link BufferPool}, the byte counterpart to
+ * {@link CharArraySink}. Segments are handed back by {@link #release()}.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class ByteArraySink implements ByteSink {
+	static final int SEGMENT_LEN = 8192;
+	private final BufferPool pool;
+	private byte[] buffer;
+	private byte[][] segments = new byte[8][];
+	// number of segments in use; all but the last are full
+	private int count;
+	// bytes used in the last segment
+	private int fill = SEGMENT_LEN;
+	private int length;
+
+	public ByteArraySink() {
+		this(ThreadLocalBufferPool.DEFAULT);
+	}
+
+	public ByteArraySink(BufferPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void buffer(byte[] buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public void next(int len) {
+		final byte[] buf = buffer;
+		int off = 0;
+		while (len > 0) {
+			if (fill == SEGMENT_LEN) {
+				if (count == segments.length) {
+					segments = Arrays.copyOf(segments, count * 2);
+				}
+				segments[count++] = pool.bytes(SEGMENT_LEN);
+				fill = 0;
+			}
+			int n = Math.min(len, SEGMENT_LEN - fill);
+			System.arraycopy(buf, off, segments[count - 1], fill, n);
+			fill += n;
+			off += n;
+			len -= n;
+			length += n;
+		}
+	}
+
+	@Override
+	public void last(int len) {
+		next(len);
+	}
+
+	/**
+	 * @return the number of bytes written to this sink
+	 */
+	public int length() {
+		return length;
+	}
+
+	public byte[] toBytes() {
+		byte[] bytes = new byte[length];
+		int p = 0;
+		int end = count - 1;
+		for (int i = 0; i < end; i++) {
+			System.arraycopy(segments[i], 0, bytes, p, SEGMENT_LEN);
+			p += SEGMENT_LEN;
+		}
+		if (end >= 0) {
+			System.arraycopy(segments[end], 0, bytes, p, fill);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return a heap ByteBuffer wrapping {@link #toBytes()}
+	 */
+	public ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(toBytes());
+	}
+
+	/**
+	 * Receives the filled portion of each segment, in order
+	 */
+	@FunctionalInterface
+	public interface SegmentConsumer {
+		void accept(byte[] segment, int offset, int length);
+	}
+
+	/**
+	 * Pass each segment to the consumer in order, without copying
+	 */
+	public void forEachSegment(SegmentConsumer consumer) {
+		int end = count - 1;
+		for (int i = 0; i < end; i++) {
+			consumer.accept(segments[i], 0, SEGMENT_LEN);
+		}
+		if (end >= 0) {
+			consumer.accept(segments[end], 0, fill);
+		}
+	}
+
+	/**
+	 * Return this sink's segments to the pool; the sink is empty afterwards and
+	 * can be reused.
+	 */
+	public void release() {
+		for (int i = 0; i < count; i++) {
+			pool.release(segments[i]);
+			segments[i] = null;
+		}
+		count = 0;
+		fill = SEGMENT_LEN;
+		length = 0;
+	}
+}
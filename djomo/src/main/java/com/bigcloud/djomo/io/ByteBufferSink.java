@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Puts encoded UTF-8 bytes into a heap or direct ByteBuffer, starting at its
+ * current position. A heap destination is offered to the writer as its
+ * {@link #target()}, so output is encoded straight into the backing array; only
+ * what is written after the room runs short near its limit is staged in the
+ * writer's own buffer and copied. A direct destination has no array, so every writer flush
+ * still costs one bulk copy from the writer's heap buffer. A
+ * {@link BufferOverflowException} is thrown if the destination runs out of
+ * room; bytes past its final position may have been overwritten by then.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class ByteBufferSink implements ByteSink {
+	final ByteBuffer destination;
+	byte[] buffer;
+	// whether the writer is encoding into the destination's own array
+	boolean direct;
+
+	public ByteBufferSink(ByteBuffer destination) {
+		this.destination = destination;
+	}
+
+	@Override
+	public ByteBuffer target() {
+		return destination.hasArray() ? destination : null;
+	}
+
+	@Override
+	public void buffer(byte[] buffer) {
+		this.buffer = buffer;
+		this.direct = destination.hasArray() && buffer == destination.array();
+	}
+
+	@Override
+	public void next(int len) {
+		if (direct) {
+			// the bytes are already in place; len is their end within the array
+			destination.position(len - destination.arrayOffset());
+		} else {
+			destination.put(buffer, 0, len);
+		}
+	}
+
+	@Override
+	public void last(int len) {
+		next(len);
+	}
+
+}
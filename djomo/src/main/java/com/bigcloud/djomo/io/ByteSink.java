@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-oriented counterpart to {@link CharSink}, receiving UTF-8 encoded output
+ * from a byte-native JSON writer.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public interface ByteSink {
+	void buffer(byte[] buffer);
+	// sink should consume len bytes from buffer
+	void next(int len);
+	// sink should consume final len bytes from buffer
+	void last(int len);
+
+	/**
+	 * A sink backed by a heap ByteBuffer may offer it here. The writer then
+	 * encodes straight into its array, from the buffer's position up to its
+	 * limit, and passes that array to {@link #buffer(byte[])}. While it is the
+	 * current buffer, the len passed to next or last is the end index of the
+	 * written bytes within the array rather than a count from zero. Once the
+	 * region is used up, the writer moves on to a buffer of its own.
+	 * 
+	 * @return the destination to encode into directly, or null
+	 */
+	default ByteBuffer target() {
+		return null;
+	}
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes encoded UTF-8 bytes to a blocking WritableByteChannel, through a
+ * ByteBuffer view of the writer's own buffer rather than a stream wrapper. The
+ * view is a heap buffer, so for most channels the JDK still copies each flush
+ * into a temporary direct buffer before the native write.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class ChannelSink implements ByteSink {
+	final WritableByteChannel channel;
+	ByteBuffer view;
+
+	public ChannelSink(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	@Override
+	public void buffer(byte[] buffer) {
+		this.view = ByteBuffer.wrap(buffer);
+	}
+
+	@Override
+	public void next(int len) {
+		final var v = view;
+		v.clear().limit(len);
+		try {
+			while (v.hasRemaining()) {
+				channel.write(v);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void last(int len) {
+		next(len);
+	}
+
+}
@@ -15,12 +15,39 @@
  *******************************************************************************/
 package com.bigcloud.djomo.io;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+/**
+ * In-memory CharSink that collects flushed chars into a list of fixed size
+ * segments, so output is never re-copied as it grows, only when it is turned
+ * into a String, UTF-8 byte[] or ByteBuffer. Segments are borrowed from a
+ * {@link BufferPool} and handed back by {@link #release()}.
+ * 
+ * @author Alex Vigdor
+ *
+ */
 public class CharArraySink implements CharSink {
-	private char[] sunk;
+	static final int SEGMENT_LEN = 8192;
+	private final BufferPool pool;
 	private char[] buffer;
-	private int last = -1;
+	private char[][] segments = new char[8][];
+	// number of segments in use; all but the last are full
+	private int count;
+	// chars used in the last segment
+	private int fill = SEGMENT_LEN;
+	private int length;
+	// high surrogate carried over from the end of the previous segment while
+	// encoding
+	private char high;
+
+	public CharArraySink() {
+		this(ThreadLocalBufferPool.DEFAULT);
+	}
+
+	public CharArraySink(BufferPool pool) {
+		this.pool = pool;
+	}
 
 	@Override
 	public void buffer(char[] buffer) {
@@ -29,30 +56,188 @@ public class CharArraySink implements CharSink {
 
 	@Override
 	public void next(int len) {
-		if (sunk == null) {
-			sunk = Arrays.copyOf(buffer, len);
-		} else {
-			int sl = sunk.length;
-			sunk = Arrays.copyOf(sunk, sl + len);
-			System.arraycopy(buffer, 0, sunk, sl, len);
-		}
+		append(len);
 	}
 
 	@Override
 	public void last(int len) {
-		if (sunk == null) {
-			last = len;
-		} else {
-			int sl = sunk.length;
-			sunk = Arrays.copyOf(sunk, sl + len);
-			System.arraycopy(buffer, 0, sunk, sl, len);
+		// the writer's buffer may go back to the pool once it is closed
+		append(len);
+	}
+
+	private void append(int len) {
+		final char[] buf = buffer;
+		int off = 0;
+		while (len > 0) {
+			if (fill == SEGMENT_LEN) {
+				if (count == segments.length) {
+					segments = Arrays.copyOf(segments, count * 2);
+				}
+				segments[count++] = pool.chars(SEGMENT_LEN);
+				fill = 0;
+			}
+			int n = Math.min(len, SEGMENT_LEN - fill);
+			System.arraycopy(buf, off, segments[count - 1], fill, n);
+			fill += n;
+			off += n;
+			len -= n;
+			length += n;
 		}
 	}
 
+	/**
+	 * @return the number of chars written to this sink
+	 */
+	public int length() {
+		return length;
+	}
+
 	public String toString() {
-		if (last > 0) {
-			return new String(buffer, 0, last);
+		if (count == 0) {
+			return "";
+		}
+		if (count == 1) {
+			return new String(segments[0], 0, fill);
+		}
+		// gathered into one array of the final length, rather than a builder that
+		// would be copied again by its own toString
+		char[] chars = new char[length];
+		int end = count - 1;
+		for (int i = 0; i < end; i++) {
+			System.arraycopy(segments[i], 0, chars, i * SEGMENT_LEN, SEGMENT_LEN);
+		}
+		System.arraycopy(segments[end], 0, chars, end * SEGMENT_LEN, fill);
+		return new String(chars);
+	}
+
+	/**
+	 * @return the UTF-8 encoding of the chars written to this sink, with
+	 *         unpaired surrogates replaced as by String.getBytes
+	 */
+	public byte[] toBytes() {
+		byte[] bytes = new byte[encode(null)];
+		encode(bytes);
+		return bytes;
+	}
+
+	/**
+	 * @return a heap ByteBuffer wrapping {@link #toBytes()}
+	 */
+	public ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(toBytes());
+	}
+
+	/**
+	 * Receives the filled portion of each segment, in order
+	 */
+	@FunctionalInterface
+	public interface SegmentConsumer {
+		void accept(char[] segment, int offset, int length);
+	}
+
+	/**
+	 * Pass each segment to the consumer in order, without copying
+	 */
+	public void forEachSegment(SegmentConsumer consumer) {
+		int end = count - 1;
+		for (int i = 0; i < end; i++) {
+			consumer.accept(segments[i], 0, SEGMENT_LEN);
+		}
+		if (end >= 0) {
+			consumer.accept(segments[end], 0, fill);
+		}
+	}
+
+	/**
+	 * Return this sink's segments to the pool; the sink is empty afterwards and
+	 * can be reused.
+	 */
+	public void release() {
+		for (int i = 0; i < count; i++) {
+			pool.release(segments[i]);
+			segments[i] = null;
+		}
+		count = 0;
+		fill = SEGMENT_LEN;
+		length = 0;
+	}
+
+	// UTF-8 encode into dest, or just count the bytes when dest is null
+	private int encode(byte[] dest) {
+		if (count == 0) {
+			return 0;
+		}
+		int p = 0;
+		int end = count - 1;
+		for (int i = 0; i < end; i++) {
+			p = encode(segments[i], SEGMENT_LEN, dest, p);
+		}
+		return finish(dest, encode(segments[end], fill, dest, p));
+	}
+
+	// a high surrogate left over at the very end is unpaired
+	private int finish(byte[] dest, int p) {
+		if (high != 0) {
+			high = 0;
+			if (dest != null) {
+				dest[p] = '?';
+			}
+			p++;
+		}
+		return p;
+	}
+
+	private int encode(char[] chars, int len, byte[] dest, int p) {
+		char h = high;
+		for (int i = 0; i < len; i++) {
+			char c = chars[i];
+			if (h != 0) {
+				if (Character.isLowSurrogate(c)) {
+					if (dest != null) {
+						int cp = Character.toCodePoint(h, c);
+						dest[p] = (byte) (0xf0 | (cp >> 18));
+						dest[p + 1] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+						dest[p + 2] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+						dest[p + 3] = (byte) (0x80 | (cp & 0x3f));
+					}
+					p += 4;
+					h = 0;
+					continue;
+				}
+				if (dest != null) {
+					dest[p] = '?';
+				}
+				p++;
+				h = 0;
+			}
+			if (c < 0x80) {
+				if (dest != null) {
+					dest[p] = (byte) c;
+				}
+				p++;
+			} else if (c < 0x800) {
+				if (dest != null) {
+					dest[p] = (byte) (0xc0 | (c >> 6));
+					dest[p + 1] = (byte) (0x80 | (c & 0x3f));
+				}
+				p += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				h = c;
+			} else if (Character.isLowSurrogate(c)) {
+				if (dest != null) {
+					dest[p] = '?';
+				}
+				p++;
+			} else {
+				if (dest != null) {
+					dest[p] = (byte) (0xe0 | (c >> 12));
+					dest[p + 1] = (byte) (0x80 | ((c >> 6) & 0x3f));
+					dest[p + 2] = (byte) (0x80 | (c & 0x3f));
+				}
+				p += 3;
+			}
 		}
-		return new String(sunk);
+		high = h;
+		return p;
 	}
 }
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes already encoded UTF-8 bytes straight through to an OutputStream.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class OutputStreamSink implements ByteSink {
+	final OutputStream out;
+	byte[] buffer;
+
+	public OutputStreamSink(OutputStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void buffer(byte[] buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public void next(int len) {
+		try {
+			out.write(buffer, 0, len);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void last(int len) {
+		next(len);
+	}
+
+}
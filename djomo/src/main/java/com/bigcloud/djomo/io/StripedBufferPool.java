@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A BufferPool shared by all threads, so that short-lived and virtual threads
+ * still reuse buffers. Slots are spread over a number of stripes, picked by
+ * thread id, to limit contention; each stripe holds a fixed number of slots per
+ * size class, taken and filled with compare-and-set, so the pool is lock-free
+ * and its size is bounded.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class StripedBufferPool implements BufferPool {
+	private final AtomicReferenceArray<char[]> chars;
+	private final AtomicReferenceArray<byte[]> bytes;
+	private final int mask;
+	private final int depth;
+
+	public StripedBufferPool() {
+		this(Runtime.getRuntime().availableProcessors() * 2, 4);
+	}
+
+	/**
+	 * @param stripes the number of stripes, rounded up to a power of two
+	 * @param depth   the number of buffers of each size class and type held per
+	 *                stripe
+	 */
+	public StripedBufferPool(int stripes, int depth) {
+		int s = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		this.mask = s - 1;
+		this.depth = depth;
+		this.chars = new AtomicReferenceArray<>(s * SIZE_CLASSES * depth);
+		this.bytes = new AtomicReferenceArray<>(s * SIZE_CLASSES * depth);
+	}
+
+	private int base(int sizeClass) {
+		long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		int stripe = (int) (id >>> 32) & mask;
+		return (stripe * SIZE_CLASSES + sizeClass) * depth;
+	}
+
+	@Override
+	public char[] chars(int minLength) {
+		int c = BufferPool.requestClass(minLength);
+		if (c < 0) {
+			return new char[minLength];
+		}
+		var slots = chars;
+		int b = base(c);
+		for (int i = b, end = b + depth; i < end; i++) {
+			char[] buffer = slots.get(i);
+			if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+				return buffer;
+			}
+		}
+		return new char[BufferPool.classSize(c)];
+	}
+
+	@Override
+	public byte[] bytes(int minLength) {
+		int c = BufferPool.requestClass(minLength);
+		if (c < 0) {
+			return new byte[minLength];
+		}
+		var slots = bytes;
+		int b = base(c);
+		for (int i = b, end = b + depth; i < end; i++) {
+			byte[] buffer = slots.get(i);
+			if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+				return buffer;
+			}
+		}
+		return new byte[BufferPool.classSize(c)];
+	}
+
+	@Override
+	public void release(char[] buffer) {
+		int c = BufferPool.releaseClass(buffer.length);
+		if (c >= 0) {
+			var slots = chars;
+			int b = base(c);
+			for (int i = b, end = b + depth; i < end; i++) {
+				if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+					return;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void release(byte[] buffer) {
+		int c = BufferPool.releaseClass(buffer.length);
+		if (c >= 0) {
+			var slots = bytes;
+			int b = base(c);
+			for (int i = b, end = b + depth; i < end; i++) {
+				if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+/**
+ * A BufferPool that keeps a few buffers of each size class per thread, with no
+ * synchronization. This suits a bounded set of long-lived platform threads; for
+ * virtual threads, which each start with an empty pool, use a
+ * {@link StripedBufferPool}.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class ThreadLocalBufferPool implements BufferPool {
+	/**
+	 * The pool used unless another is configured
+	 */
+	public static final ThreadLocalBufferPool DEFAULT = new ThreadLocalBufferPool();
+	private final ThreadLocal<Slots> slots;
+
+	public ThreadLocalBufferPool() {
+		this(8);
+	}
+
+	/**
+	 * @param depth the number of buffers of each size class and type kept per
+	 *              thread
+	 */
+	public ThreadLocalBufferPool(int depth) {
+		this.slots = ThreadLocal.withInitial(() -> new Slots(depth));
+	}
+
+	private static class Slots {
+		final char[][][] chars;
+		final byte[][][] bytes;
+		final int[] charCounts = new int[SIZE_CLASSES];
+		final int[] byteCounts = new int[SIZE_CLASSES];
+
+		Slots(int depth) {
+			chars = new char[SIZE_CLASSES][depth][];
+			bytes = new byte[SIZE_CLASSES][depth][];
+		}
+	}
+
+	@Override
+	public char[] chars(int minLength) {
+		int c = BufferPool.requestClass(minLength);
+		if (c < 0) {
+			return new char[minLength];
+		}
+		Slots s = slots.get();
+		int n = s.charCounts[c];
+		if (n == 0) {
+			return new char[BufferPool.classSize(c)];
+		}
+		s.charCounts[c] = --n;
+		char[] buffer = s.chars[c][n];
+		s.chars[c][n] = null;
+		return buffer;
+	}
+
+	@Override
+	public byte[] bytes(int minLength) {
+		int c = BufferPool.requestClass(minLength);
+		if (c < 0) {
+			return new byte[minLength];
+		}
+		Slots s = slots.get();
+		int n = s.byteCounts[c];
+		if (n == 0) {
+			return new byte[BufferPool.classSize(c)];
+		}
+		s.byteCounts[c] = --n;
+		byte[] buffer = s.bytes[c][n];
+		s.bytes[c][n] = null;
+		return buffer;
+	}
+
+	@Override
+	public void release(char[] buffer) {
+		int c = BufferPool.releaseClass(buffer.length);
+		if (c >= 0) {
+			Slots s = slots.get();
+			int n = s.charCounts[c];
+			if (n < s.chars[c].length) {
+				s.chars[c][n] = buffer;
+				s.charCounts[c] = n + 1;
+			}
+		}
+	}
+
+	@Override
+	public void release(byte[] buffer) {
+		int c = BufferPool.releaseClass(buffer.length);
+		if (c >= 0) {
+			Slots s = slots.get();
+			int n = s.byteCounts[c];
+			if (n < s.bytes[c].length) {
+				s.bytes[c][n] = buffer;
+				s.byteCounts[c] = n + 1;
+			}
+		}
+	}
+}
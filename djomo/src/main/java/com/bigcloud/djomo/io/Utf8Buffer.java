@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.bigcloud.djomo.error.ModelException;
+import com.bigcloud.djomo.internal.ByteArraySequence;
+import com.bigcloud.djomo.internal.ByteScanner;
+
+/**
+ * Byte-oriented counterpart to {@link Buffer}, used to tokenize UTF-8 encoded
+ * input directly without decoding it to chars first. Structural characters,
+ * numbers and literals are all ASCII, so they can be matched against raw bytes;
+ * only string contents ever need decoding.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class Utf8Buffer {
+	private final InputStream source;
+	private final FileChannel channel;
+	private final ByteBuffer channelBuffer;
+	public final ByteArraySequence byteArraySequence;
+	public final byte[] buffer;
+	public int readPosition;
+	public int writePosition;
+
+	/**
+	 * Parse a complete in-memory document; the array is read in place and never
+	 * modified.
+	 * 
+	 * @param data UTF-8 encoded bytes
+	 */
+	public Utf8Buffer(byte[] data) {
+		this(data, 0, data.length);
+	}
+
+	/**
+	 * Parse a range of an in-memory document; the array is read in place and never
+	 * modified.
+	 * 
+	 * @param data   UTF-8 encoded bytes
+	 * @param offset position of the first byte to parse
+	 * @param length number of bytes to parse
+	 */
+	public Utf8Buffer(byte[] data, int offset, int length) {
+		this.source = null;
+		this.channel = null;
+		this.channelBuffer = null;
+		this.buffer = data;
+		this.readPosition = offset;
+		this.writePosition = offset + length;
+		this.byteArraySequence = new ByteArraySequence(this);
+	}
+
+	/**
+	 * Parse a stream of UTF-8 encoded bytes, using the provided array as the
+	 * working buffer.
+	 * 
+	 * @param buffer working buffer to read stream contents into
+	 * @param source stream to read from
+	 */
+	public Utf8Buffer(byte[] buffer, InputStream source) {
+		this.source = source;
+		this.channel = null;
+		this.channelBuffer = null;
+		this.buffer = buffer;
+		this.byteArraySequence = new ByteArraySequence(this);
+	}
+
+	/**
+	 * Parse a file, reading it directly into the working buffer one block at a
+	 * time.
+	 * 
+	 * @param buffer  working buffer to read file contents into
+	 * @param channel file to read from, starting at its current position
+	 */
+	public Utf8Buffer(byte[] buffer, FileChannel channel) {
+		this.source = null;
+		this.channel = channel;
+		this.channelBuffer = ByteBuffer.wrap(buffer);
+		this.buffer = buffer;
+		this.byteArraySequence = new ByteArraySequence(this);
+	}
+
+	public boolean refill() {
+		if (channel != null) {
+			return refillFromChannel();
+		}
+		if (source != null) {
+			int read;
+			try {
+				read = source.read(buffer);
+			} catch (IOException e) {
+				throw new ModelException("Error reading input", e);
+			}
+			if (read > 0) {
+				readPosition = 0;
+				writePosition = read;
+				return true;
+			}
+		}
+		readPosition = writePosition;
+		return false;
+	}
+
+	private boolean refillFromChannel() {
+		int read;
+		try {
+			channelBuffer.clear();
+			read = channel.read(channelBuffer);
+		} catch (IOException e) {
+			throw new ModelException("Error reading input", e);
+		}
+		if (read > 0) {
+			readPosition = 0;
+			writePosition = read;
+			return true;
+		}
+		readPosition = writePosition;
+		return false;
+	}
+
+	public void refillStrict() {
+		if (!refill()) {
+			throw new ModelException("Unexpected EOF");
+		}
+	}
+
+	public char seek() {
+		int rp = readPosition;
+		var buf = buffer;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				byte c = buf[rp];
+				switch (c) {
+				case ' ':
+					rp = ByteScanner.skipSpaces(buf, rp + 1, wp);
+					break;
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+				case ',':
+					++rp;
+					break;
+				default:
+					readPosition = rp;
+					return (char) (c & 0xFF);
+				}
+			}
+			refillStrict();
+			rp = readPosition;
+		}
+	}
+
+	public char seek(char gobble) {
+		int rp = readPosition;
+		var buf = buffer;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				byte c = buf[rp];
+				switch (c) {
+				case ' ':
+					rp = ByteScanner.skipSpaces(buf, rp + 1, wp);
+					break;
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+				case ',':
+					++rp;
+					break;
+				default:
+					if (c == gobble) {
+						++rp;
+					}
+					readPosition = rp;
+					return (char) (c & 0xFF);
+				}
+			}
+			refillStrict();
+			rp = readPosition;
+		}
+	}
+
+	public void expect(char target) {
+		int rp = readPosition;
+		var buf = buffer;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				byte c = buf[rp++];
+				switch (c) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					break;
+				default:
+					if (c != target) {
+						throw new ModelException("Expected " + target + " but found " + (char) (c & 0xFF) + " at " + describe());
+					}
+					readPosition = rp;
+					return;
+				}
+			}
+			refillStrict();
+			rp = readPosition;
+		}
+	}
+
+	public void expect(char[] target) {
+		int rp = readPosition;
+		var buf = buffer;
+		int tp = 0;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				byte c = buf[rp++];
+				switch (c) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					if (tp == 0) {
+						break;
+					}
+				default:
+					if (c != target[tp++]) {
+						throw new ModelException("Expected " + new String(target) + " but found " + describe());
+					}
+					if (tp == target.length) {
+						readPosition = rp;
+						return;
+					}
+				}
+			}
+			refillStrict();
+			rp = readPosition;
+		}
+	}
+
+	/**
+	 * Skip whitespace between top-level values, as in newline-delimited JSON
+	 * 
+	 * @return true if there is another value to read, false at the end of input
+	 */
+	public boolean hasMore() {
+		var buf = buffer;
+		int rp = readPosition;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				switch (buf[rp]) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					++rp;
+					break;
+				default:
+					readPosition = rp;
+					return true;
+				}
+			}
+			if (!refill()) {
+				return false;
+			}
+			rp = readPosition;
+		}
+	}
+
+	/**
+	 * Advance past the next value without interpreting it; containers are
+	 * balanced by depth and string contents, including escapes, are passed over.
+	 * Input is only checked as far as needed to find the end of the value.
+	 */
+	public void skip() {
+		seek();
+		var buf = buffer;
+		int rp = readPosition;
+		int depth = 0;
+		boolean inString = false;
+		while (true) {
+			int wp = writePosition;
+			while (rp < wp) {
+				if (inString) {
+					rp = ByteScanner.scanString(buf, rp, wp);
+					if (rp == wp) {
+						break;
+					}
+					byte c = buf[rp++];
+					if (c == '"') {
+						inString = false;
+						if (depth == 0) {
+							readPosition = rp;
+							return;
+						}
+					} else if (c == '\\') {
+						if (rp == wp) {
+							refillStrict();
+							rp = readPosition;
+							wp = writePosition;
+						}
+						rp++;
+					}
+					continue;
+				}
+				switch (buf[rp]) {
+				case '"':
+					inString = true;
+					break;
+				case '{':
+				case '[':
+					depth++;
+					break;
+				case '}':
+				case ']':
+					if (depth == 0) {
+						// a scalar ended by its enclosing container
+						readPosition = rp;
+						return;
+					}
+					if (--depth == 0) {
+						readPosition = rp + 1;
+						return;
+					}
+					break;
+				case ',':
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+				case '\f':
+					if (depth == 0) {
+						readPosition = rp;
+						return;
+					}
+					break;
+				default:
+					break;
+				}
+				rp++;
+			}
+			if (!refill()) {
+				if (depth > 0 || inString) {
+					throw new ModelException("Unexpected EOF");
+				}
+				return;
+			}
+			rp = readPosition;
+		}
+	}
+
+	public String toString() {
+		var rp = readPosition;
+		return new String(buffer, rp, writePosition - rp, StandardCharsets.UTF_8);
+	}
+
+	public String describe() {
+		int start = readPosition - 10;
+		if (start < 0) {
+			start = 0;
+		}
+		int end = start + 20;
+		if (end > writePosition) {
+			end = writePosition;
+		}
+		if (end < start) {
+			end = start;
+		}
+		return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+	}
+}
@@ -21,32 +21,42 @@ import java.io.Reader;
 
 public class Utf8StreamReader extends Reader {
 	private static final int BUF_LEN = 8192;
-	private static final ThreadLocal<byte[]> localUtf8Buffer = new ThreadLocal<>() {
-		public byte[] initialValue() {
-			return new byte[BUF_LEN];
-		}
-	};
 	private final byte[] utf8Buffer;
+	private final BufferPool pool;
 	final InputStream stream;
 	int pointer = 0;
 	int limit = 0;
 	int leftoverCode;
 	int remaining;
 	int trail = -1;
+	boolean closed;
 
 	public Utf8StreamReader(InputStream stream) {
+		this(stream, ThreadLocalBufferPool.DEFAULT);
+	}
+
+	/**
+	 * @param pool the byte buffer is borrowed from this pool, and returned when
+	 *             the reader is closed; the stream itself is left open
+	 */
+	public Utf8StreamReader(InputStream stream, BufferPool pool) {
 		this.stream = stream;
-		utf8Buffer = localUtf8Buffer.get();
+		this.pool = pool;
+		utf8Buffer = pool.bytes(BUF_LEN);
 	}
 
 	public Utf8StreamReader(byte[] data) {
 		this.stream = null;
+		this.pool = null;
 		utf8Buffer = data;
 		limit = data.length;
 	}
 
 	@Override
 	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
 		var ubuf = utf8Buffer;
 		int p = pointer;
 		int lim = limit;
@@ -129,7 +139,12 @@ public class Utf8StreamReader extends Reader {
 
 	@Override
 	public void close() throws IOException {
-
+		if (!closed) {
+			closed = true;
+			if (pool != null) {
+				pool.release(utf8Buffer);
+			}
+		}
 	}
 
 }
@@ -20,18 +20,20 @@ import java.io.OutputStream;
 
 public class Utf8StreamSink implements CharSink {
 	private static final int BUF_LEN = 4096;
-	private static final ThreadLocal<byte[]> localUtf8Buffer = new ThreadLocal<>() {
-		public byte[] initialValue() {
-			return new byte[BUF_LEN];
-		}
-	};
-	private final byte[] utf8Buffer = localUtf8Buffer.get();
+	private final BufferPool pool;
+	private final byte[] utf8Buffer;
 	private final OutputStream out;
 	char[] buffer;
 	int hi = -1;
 
 	public Utf8StreamSink(OutputStream out) {
+		this(out, ThreadLocalBufferPool.DEFAULT);
+	}
+
+	public Utf8StreamSink(OutputStream out, BufferPool pool) {
 		this.out = out;
+		this.pool = pool;
+		this.utf8Buffer = pool.bytes(BUF_LEN);
 	}
 
 	@Override
@@ -110,7 +112,11 @@ public class Utf8StreamSink implements CharSink {
 
 	@Override
 	public void last(int len) {
-		next(len);
+		try {
+			next(len);
+		} finally {
+			pool.release(utf8Buffer);
+		}
 	}
 
 }
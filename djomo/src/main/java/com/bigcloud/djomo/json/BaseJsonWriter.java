@@ -21,22 +21,14 @@ import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.api.VisitorFilterFactory;
 import com.bigcloud.djomo.base.BaseVisitor;
 import com.bigcloud.djomo.internal.DoublePrinter;
+import com.bigcloud.djomo.internal.FieldToken;
 import com.bigcloud.djomo.internal.FloatPrinter;
+import com.bigcloud.djomo.io.BufferPool;
 import com.bigcloud.djomo.io.CharSink;
 
-public abstract class BaseJsonWriter extends BaseVisitor implements AutoCloseable {
+public abstract class BaseJsonWriter extends BaseVisitor implements AutoCloseable, FieldToken.Writer {
 	private static final char[] NULL = { 'n', 'u', 'l', 'l' };
 	protected static final int BUF_LEN = 4096;
-	private static final ThreadLocal<char[]> localBuffer = new ThreadLocal<>() {
-		public char[] initialValue() {
-			return new char[BUF_LEN];
-		}
-	};
-	private static final ThreadLocal<char[]> localStrBuffer = new ThreadLocal<>() {
-		public char[] initialValue() {
-			return new char[BUF_LEN];
-		}
-	};
 	private static final char[] hexchars = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E',
 			'F' };
 	private static final boolean[] special = new boolean[65536];
@@ -47,14 +39,19 @@ public abstract class BaseJsonWriter extends BaseVisitor implements AutoCloseabl
 		special['\u2028'] = true;
 		special['\u2029'] = true;
 	}
-	protected final char[] buffer = localBuffer.get();
-	protected final char[] strBuffer = localStrBuffer.get();
+	protected final char[] buffer;
+	protected final char[] strBuffer;
 	protected final CharSink sink;
+	private final BufferPool bufferPool;
+	private boolean closed;
 	int pos = 0;
 	boolean first;
 
 	public BaseJsonWriter(Models context, CharSink sink, VisitorFilterFactory... filters) {
 		super(context, filters);
+		this.bufferPool = context.bufferPool();
+		this.buffer = bufferPool.chars(BUF_LEN);
+		this.strBuffer = bufferPool.chars(BUF_LEN);
 		this.sink = sink;
 		sink.buffer(buffer);
 	}
@@ -210,7 +207,16 @@ public abstract class BaseJsonWriter extends BaseVisitor implements AutoCloseabl
 
 	@Override
 	public void close() {
-		sink.last(pos);
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			sink.last(pos);
+		} finally {
+			bufferPool.release(strBuffer);
+			bufferPool.release(buffer);
+		}
 	}
 
 	@Override
@@ -326,4 +332,9 @@ public abstract class BaseJsonWriter extends BaseVisitor implements AutoCloseabl
 		pos = p;
 	}
 
+	@Override
+	public void visitFieldToken(FieldToken token) {
+		// visitObjectField copies the pre-encoded form of a token
+		visitObjectField(token);
+	}
 }
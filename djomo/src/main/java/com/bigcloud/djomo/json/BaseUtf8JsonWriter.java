@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.nio.ByteBuffer;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.base.BaseVisitor;
+import com.bigcloud.djomo.internal.DoublePrinter;
+import com.bigcloud.djomo.internal.FieldToken;
+import com.bigcloud.djomo.internal.FloatPrinter;
+import com.bigcloud.djomo.io.BufferPool;
+import com.bigcloud.djomo.io.ByteSink;
+
+/**
+ * Byte-native counterpart to {@link BaseJsonWriter}; structure, numbers and
+ * ASCII string content are written straight into a byte buffer, and only
+ * non-ASCII string content is UTF-8 encoded, as it is written.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public abstract class BaseUtf8JsonWriter extends BaseVisitor implements AutoCloseable, FieldToken.Writer {
+	private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+	private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+	private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+	protected static final int BUF_LEN = 8192;
+	// room for the longest encoding of a single char, a six byte unicode escape
+	private static final int MAX_CHAR_BYTES = 6;
+	private static final byte[] hexbytes = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E',
+			'F' };
+	private static final boolean[] special = new boolean[128];
+	static {
+		for (int i = 0; i < 32; i++) {
+			special[i] = true;
+		}
+		special['"'] = true;
+		special['\\'] = true;
+	}
+	// either a pooled buffer, or the array of the sink's target until it fills
+	protected byte[] buffer;
+	private final char[] numberBuffer = new char[24];
+	protected final ByteSink sink;
+	private final BufferPool bufferPool;
+	private boolean pooled;
+	private boolean closed;
+	int pos = 0;
+	// end of the writable region of the buffer
+	int limit = BUF_LEN;
+	boolean first;
+
+	public BaseUtf8JsonWriter(Models context, ByteSink sink, VisitorFilterFactory... filters) {
+		super(context, filters);
+		this.bufferPool = context.bufferPool();
+		this.sink = sink;
+		ByteBuffer target = sink.target();
+		if (target != null && target.hasArray()) {
+			this.buffer = target.array();
+			this.pos = target.arrayOffset() + target.position();
+			this.limit = target.arrayOffset() + target.limit();
+		} else {
+			this.buffer = bufferPool.bytes(BUF_LEN);
+			this.pooled = true;
+		}
+		sink.buffer(buffer);
+	}
+
+	/**
+	 * Hand the buffer up to end to the sink. Once the region of a target array
+	 * is used up, writing continues in a pooled buffer; callers holding the
+	 * buffer in a local must reload it.
+	 * 
+	 * @return the position to continue writing at
+	 */
+	protected final int flush(int end) {
+		sink.next(end);
+		if (!pooled) {
+			buffer = bufferPool.bytes(BUF_LEN);
+			limit = BUF_LEN;
+			pooled = true;
+			sink.buffer(buffer);
+		}
+		return 0;
+	}
+
+	protected final void reserve(int len) {
+		if (limit - pos < len) {
+			pos = flush(pos);
+		}
+	}
+
+	@Override
+	public void visitNull() {
+		raw(NULL, 0, 4);
+	}
+
+	@Override
+	public void visitString(CharSequence str) {
+		final var spec = special;
+		int p = pos;
+		if (p == limit) {
+			p = flush(p);
+		}
+		var buf = buffer;
+		buf[p++] = '"';
+		final int len = str.length();
+		int i = 0;
+		while (i < len) {
+			// ASCII run; no bounds checks needed within the room left in the buffer
+			int stop = i + Math.min(len - i, limit - p);
+			char c = 0;
+			while (i < stop && (c = str.charAt(i)) < 128 && !spec[c]) {
+				buf[p++] = (byte) c;
+				i++;
+			}
+			if (i == stop) {
+				if (p == limit) {
+					p = flush(p);
+					buf = buffer;
+				}
+				continue;
+			}
+			if (limit - p < MAX_CHAR_BYTES) {
+				p = flush(p);
+				buf = buffer;
+			}
+			i++;
+			if (c < 128) {
+				buf[p++] = '\\';
+				switch (c) {
+				case '\n':
+					buf[p++] = 'n';
+					break;
+				case '\r':
+					buf[p++] = 'r';
+					break;
+				case '\t':
+					buf[p++] = 't';
+					break;
+				case '\f':
+					buf[p++] = 'f';
+					break;
+				case '\b':
+					buf[p++] = 'b';
+					break;
+				case '"':
+					buf[p++] = '"';
+					break;
+				case '\\':
+					buf[p++] = '\\';
+					break;
+				default:
+					buf[p++] = 'u';
+					p = hex(c, buf, p);
+				}
+			} else if (c < 0x800) {
+				buf[p++] = (byte) (0xc0 | (c >> 6));
+				buf[p++] = (byte) (0x80 | (c & 0x3f));
+			} else if (c == '\u2028' || c == '\u2029') {
+				buf[p++] = '\\';
+				buf[p++] = 'u';
+				p = hex(c, buf, p);
+			} else if (Character.isSurrogate(c)) {
+				char low;
+				if (Character.isHighSurrogate(c) && i < len && Character.isLowSurrogate(low = str.charAt(i))) {
+					i++;
+					int cp = Character.toCodePoint(c, low);
+					buf[p++] = (byte) (0xf0 | (cp >> 18));
+					buf[p++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+					buf[p++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+					buf[p++] = (byte) (0x80 | (cp & 0x3f));
+				} else {
+					// unpaired surrogate, replaced as by String.getBytes
+					buf[p++] = '?';
+				}
+			} else {
+				buf[p++] = (byte) (0xe0 | (c >> 12));
+				buf[p++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				buf[p++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+		if (p == limit) {
+			p = flush(p);
+			buf = buffer;
+		}
+		buf[p] = '"';
+		pos = p + 1;
+	}
+
+	private static int hex(int c, byte[] buf, int p) {
+		final byte[] hex = hexbytes;
+		buf[p++] = hex[(c >> 12) & 0xF];
+		buf[p++] = hex[(c >> 8) & 0xF];
+		buf[p++] = hex[(c >> 4) & 0xF];
+		buf[p++] = hex[c & 0xF];
+		return p;
+	}
+
+	public void raw(byte[] bytes, int offset, int len) {
+		var p = pos;
+		int room = limit - p;
+		while (room < len) {
+			System.arraycopy(bytes, offset, buffer, p, room);
+			p = flush(p + room);
+			offset += room;
+			len -= room;
+			room = limit;
+		}
+		System.arraycopy(bytes, offset, buffer, p, len);
+		pos = p + len;
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			sink.last(pos);
+		} finally {
+			if (pooled) {
+				bufferPool.release(buffer);
+			}
+		}
+	}
+
+	@Override
+	public void visitInt(int value) {
+		visitLong(value);
+	}
+
+	@Override
+	public void visitLong(long value) {
+		var p = pos;
+		if (limit - p < 20) {
+			p = flush(p);
+		}
+		final byte[] buf = buffer;
+		if (value >= 0 && value < 10) {
+			buf[p] = (byte) ('0' + value);
+			pos = p + 1;
+			return;
+		}
+		// work with the negative magnitude so Long.MIN_VALUE needs no special case
+		long negative = value < 0 ? value : -value;
+		int len = value < 0 ? 2 : 1;
+		for (long n = negative / 10; n != 0; n /= 10) {
+			len++;
+		}
+		int end = p + len;
+		int q = end;
+		do {
+			buf[--q] = (byte) ('0' - (negative % 10));
+			negative /= 10;
+		} while (negative != 0);
+		if (value < 0) {
+			buf[p] = '-';
+		}
+		pos = end;
+	}
+
+	@Override
+	public void visitFloat(float value) {
+		var p = pos;
+		if (limit - p < 15) {
+			p = flush(p);
+		}
+		pos = ascii(FloatPrinter.printFloat(value, numberBuffer, 0), p);
+	}
+
+	@Override
+	public void visitDouble(double value) {
+		var p = pos;
+		if (limit - p < 24) {
+			p = flush(p);
+		}
+		pos = ascii(DoublePrinter.printDouble(value, numberBuffer, 0), p);
+	}
+
+	// narrow printed digits from the number buffer into the output buffer
+	private int ascii(int len, int p) {
+		final char[] nb = numberBuffer;
+		final byte[] buf = buffer;
+		for (int i = 0; i < len; i++) {
+			buf[p++] = (byte) nb[i];
+		}
+		return p;
+	}
+
+	@Override
+	public void visitBoolean(boolean value) {
+		if (value) {
+			raw(TRUE, 0, 4);
+		} else {
+			raw(FALSE, 0, 5);
+		}
+	}
+
+	@Override
+	public void visitFieldToken(FieldToken token) {
+		// visitObjectField copies the pre-encoded form of a token
+		visitObjectField(token);
+	}
+}
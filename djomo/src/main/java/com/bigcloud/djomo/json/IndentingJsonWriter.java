@@ -19,6 +19,7 @@ import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.api.ListModel;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.internal.FieldToken;
 import com.bigcloud.djomo.io.CharSink;
 
 public class IndentingJsonWriter extends BaseJsonWriter {
@@ -100,7 +101,12 @@ public class IndentingJsonWriter extends BaseJsonWriter {
 		}
 		buf[pos++] = '\n';
 		indent();
-		visitString(name.toString());
+		if (name instanceof FieldToken token) {
+			char[] encoded = token.chars;
+			raw(encoded, 0, encoded.length - 1);
+		} else {
+			visitString(name.toString());
+		}
 		reserve(3);
 		buf[pos++] = ' ';
 		buf[pos++] = ':';
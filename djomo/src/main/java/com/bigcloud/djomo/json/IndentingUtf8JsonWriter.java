@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.nio.charset.StandardCharsets;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.internal.FieldToken;
+import com.bigcloud.djomo.io.ByteSink;
+
+/**
+ * A ModelVisitor that produces an indented serialized JSON representation of a
+ * Model as UTF-8 bytes
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class IndentingUtf8JsonWriter extends BaseUtf8JsonWriter {
+	private final byte[] indent;
+	private int depth = 0;
+
+	public IndentingUtf8JsonWriter(Models context, ByteSink sink, String indent, VisitorFilterFactory... filters) {
+		super(context, sink, filters);
+		this.indent = indent.getBytes(StandardCharsets.UTF_8);
+	}
+	protected void indent() {
+		for(int i=0;i<depth;i++) {
+			System.arraycopy(indent, 0, buffer, pos, indent.length);
+			pos+=indent.length;
+		}
+	}
+
+	public <T> void visitObject(T model, ObjectModel<T> definition) {
+		if (pos == limit) {
+			pos = flush(pos);
+		}
+		buffer[pos++] = '{';
+		first = true;
+		depth++;
+		super.visitObject(model, definition);
+		depth--;
+		if(!first) {
+			reserve(2+(depth*indent.length));
+			buffer[pos++] = '\n';
+			indent();
+		}
+		else {
+			first = false;
+			if (pos == limit) {
+				pos = flush(pos);
+			}
+		}
+		buffer[pos++] = '}';
+	}
+
+	public <T> void visitList(T model, ListModel<T> definition) {
+		if (pos == limit) {
+			pos = flush(pos);
+		}
+		buffer[pos++] = '[';
+		first = true;
+		depth++;
+		super.visitList(model, definition);
+		depth--;
+		if(!first) {
+			reserve(2+(depth*indent.length));
+			buffer[pos++] = '\n';
+			indent();
+		}
+		else {
+			first = false;
+			if (pos == limit) {
+				pos = flush(pos);
+			}
+		}
+		buffer[pos++] = ']';
+	}
+
+	public void visitObjectField(Object name) {
+		if (!first) {
+			reserve(2+(depth*indent.length));
+			buffer[pos++] = ',';
+		}
+		else {
+			reserve(1+(depth*indent.length));
+			first = false;
+		}
+		buffer[pos++] = '\n';
+		indent();
+		if (name instanceof FieldToken token) {
+			byte[] encoded = token.bytes;
+			raw(encoded, 0, encoded.length - 1);
+		} else {
+			visitString(name.toString());
+		}
+		reserve(3);
+		buffer[pos++] = ' ';
+		buffer[pos++] = ':';
+		buffer[pos++] = ' ';
+	}
+
+	public void visitListItem() {
+		if (!first) {
+			reserve(2+(depth*indent.length));
+			buffer[pos++] = ',';
+		}
+		else {
+			reserve(1+(depth*indent.length));
+			first = false;
+		}
+		buffer[pos++] = '\n';
+		indent();
+	}
+}
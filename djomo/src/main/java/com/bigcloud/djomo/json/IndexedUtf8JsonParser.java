@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.base.BaseListModel;
+import com.bigcloud.djomo.base.BaseParserFilter;
+import com.bigcloud.djomo.internal.StructuralIndex;
+import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.BufferPool;
+import com.bigcloud.djomo.io.Utf8Buffer;
+
+/**
+ * Second phase of a two-phase parse of a fully buffered UTF-8 document. Values
+ * are parsed as by {@link Utf8JsonParser}, except that an array with at least
+ * a minimum number of items, found at any depth outside of a parallel region,
+ * is split using the {@link StructuralIndex}: contiguous runs of its items are
+ * bound concurrently on a ForkJoinPool, each by its own parser over the shared
+ * bytes, and the results are added to the list in order. Objects are not
+ * split: their fields are bound in order, as by the regular parser.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class IndexedUtf8JsonParser extends Utf8JsonParser {
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int MIN_CHUNK = 16;
+	private final StructuralIndex index;
+	private final ForkJoinPool pool;
+	private final int minItems;
+
+	public IndexedUtf8JsonParser(Models context, StructuralIndex index, Utf8Buffer input, Buffer overflow,
+			ForkJoinPool pool, int minItems) {
+		super(context, input, overflow);
+		this.index = index;
+		this.pool = pool;
+		this.minItems = Math.max(2, minItems);
+	}
+
+	/**
+	 * Supplies already bound items to a list model's parseItem
+	 */
+	private static class ItemReplay extends BaseParserFilter {
+		Object item;
+
+		@Override
+		public Object parse(Model model) {
+			return item;
+		}
+
+		@Override
+		public void parseListItem() {
+		}
+	}
+
+	@Override
+	public Object parseList(ListModel definition) {
+		if (parser != this || !(definition instanceof BaseListModel) || input.seek() != '[') {
+			return super.parseList(definition);
+		}
+		int open = index.entryAt(input.readPosition);
+		if (open < 0) {
+			return super.parseList(definition);
+		}
+		int[] starts = index.elementStarts(open);
+		if (starts.length < minItems) {
+			return super.parseList(definition);
+		}
+		int close = index.position(index.match(open));
+		Object[] items = parseItems(definition.itemModel(), starts, close);
+		if (items == null) {
+			// not strictly delimited; leave the lenient handling to a regular parse
+			input.readPosition = index.position(open);
+			return super.parseList(definition);
+		}
+		Object maker = listMaker(definition);
+		ItemReplay replay = new ItemReplay();
+		for (Object item : items) {
+			replay.item = item;
+			definition.parseItem(maker, replay);
+		}
+		input.readPosition = close + 1;
+		return definition.make(maker);
+	}
+
+	/**
+	 * @return the bound items, or null if any element is empty or is not followed
+	 *         directly by its separator
+	 */
+	private Object[] parseItems(Model itemModel, int[] starts, int close) {
+		final int count = starts.length;
+		final Object[] items = new Object[count];
+		// the first item is bound here, so the item model is fully resolved before
+		// any worker looks it up
+		if (!parseItem(itemModel, this, input, starts, close, items, 0)) {
+			return null;
+		}
+		int chunkSize = Math.max(MIN_CHUNK, -Math.floorDiv(-(count - 1), pool.getParallelism() * CHUNKS_PER_THREAD));
+		List<ForkJoinTask<Boolean>> tasks = new ArrayList<>();
+		for (int from = 1; from < count; from += chunkSize) {
+			final int start = from, end = Math.min(count, from + chunkSize);
+			tasks.add(pool.submit(() -> parseChunk(itemModel, starts, close, items, start, end)));
+		}
+		boolean valid = true;
+		try {
+			for (var task : tasks) {
+				valid &= task.join();
+			}
+		} catch (RuntimeException | Error e) {
+			tasks.forEach(t -> t.cancel(false));
+			throw e;
+		}
+		return valid ? items : null;
+	}
+
+	private boolean parseChunk(Model itemModel, int[] starts, int close, Object[] items, int from, int to) {
+		final Utf8Buffer in = input;
+		final BufferPool bufferPool = models.bufferPool();
+		final Utf8Buffer chunkInput = new Utf8Buffer(in.buffer, 0, in.writePosition);
+		final Buffer chunkOverflow = new Buffer(bufferPool.chars(4096), null, bufferPool);
+		try {
+			var chunkParser = new Utf8JsonParser(models, chunkInput, chunkOverflow);
+			for (int i = from; i < to; i++) {
+				if (!parseItem(itemModel, chunkParser, chunkInput, starts, close, items, i)) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			bufferPool.release(chunkOverflow.buffer);
+		}
+	}
+
+	/**
+	 * Bind one element, checking that it is not empty and that only whitespace
+	 * lies between its value and the following comma or closing bracket; the
+	 * regular parser treats a stray comma as whitespace, so would read a
+	 * different list.
+	 */
+	private static boolean parseItem(Model itemModel, Utf8JsonParser parser, Utf8Buffer in, int[] starts, int close,
+			Object[] items, int i) {
+		final byte[] buf = in.buffer;
+		final int end = i + 1 < starts.length ? starts[i + 1] - 1 : close;
+		final int start = skipWhitespace(buf, starts[i], end);
+		if (start == end) {
+			return false;
+		}
+		in.readPosition = start;
+		items[i] = itemModel.parse(parser);
+		return skipWhitespace(buf, in.readPosition, end) == end;
+	}
+
+	private static int skipWhitespace(byte[] buf, int p, int end) {
+		while (p < end) {
+			switch (buf[p]) {
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+			case '\f':
+				++p;
+				break;
+			default:
+				return p;
+			}
+		}
+		return p;
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.Parser;
+import com.bigcloud.djomo.error.ModelException;
+
+/**
+ * Iterates the items of a JSON array one at a time, parsing each item on
+ * demand so that memory use is independent of the length of the array. A null
+ * literal in place of the array is treated as empty.
+ * 
+ * @author Alex Vigdor
+ *
+ * @param <T> the type of items in the array
+ */
+public abstract class JsonArrayIterator<T> implements Iterator<T> {
+	private final Parser parser;
+	private final Model<T> model;
+	private boolean started;
+	private boolean ready;
+	private boolean done;
+
+	protected JsonArrayIterator(Parser parser, Model<T> model) {
+		this.parser = parser;
+		this.model = model;
+	}
+
+	/**
+	 * Skip whitespace and commas, consuming the next character only if it
+	 * matches
+	 * 
+	 * @param gobble the character to consume if found
+	 * @return the next non-whitespace character
+	 */
+	protected abstract char seek(char gobble);
+
+	@Override
+	public boolean hasNext() {
+		if (ready) {
+			return true;
+		}
+		if (done) {
+			return false;
+		}
+		if (!started) {
+			started = true;
+			char c = seek('[');
+			if (c == 'n') {
+				parser.parseNull();
+				done = true;
+				return false;
+			}
+			if (c != '[') {
+				throw new ModelException("Expected start of array but found " + c);
+			}
+		}
+		if (seek(']') == ']') {
+			done = true;
+			return false;
+		}
+		return ready = true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ready = false;
+		return (T) parser.parse(model);
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ParserFilterFactory;
+import com.bigcloud.djomo.error.ModelException;
+import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.Utf8Buffer;
+
+/**
+ * A Spliterator over newline-delimited JSON in UTF-8 that splits only at line
+ * boundaries, so a parallel stream can parse lines on several cores at once.
+ * Each split gets its own parser and filter chain. In-memory input is split in
+ * halves; stream input is read in blocks that end on a line break, and each
+ * block is handed off as a split while the next is read.
+ * 
+ * @author Alex Vigdor
+ *
+ * @param <T> the type of value on each line
+ */
+public class JsonLinesSpliterator<T> implements Spliterator<T> {
+	private static final int MIN_SPLIT = 1 << 14;
+	private static final int BLOCK_SIZE = 1 << 20;
+	private final Models models;
+	private final Model<T> model;
+	private final ParserFilterFactory[] filters;
+	private final InputStream source;
+	private byte[] data;
+	private int position;
+	private int end;
+	private byte[] carry;
+	private int carryLength;
+	private Iterator<T> lines;
+	private Utf8Buffer input;
+
+	public JsonLinesSpliterator(Models models, Model<T> model, ParserFilterFactory[] filters, byte[] data, int offset,
+			int length) {
+		this(models, model, filters, null, data, offset, offset + length);
+	}
+
+	public JsonLinesSpliterator(Models models, Model<T> model, ParserFilterFactory[] filters, InputStream source) {
+		this(models, model, filters, source, new byte[0], 0, 0);
+	}
+
+	private JsonLinesSpliterator(Models models, Model<T> model, ParserFilterFactory[] filters, InputStream source,
+			byte[] data, int position, int end) {
+		this.models = models;
+		this.model = model;
+		this.filters = filters;
+		this.source = source;
+		this.data = data;
+		this.position = position;
+		this.end = end;
+	}
+
+	private int current() {
+		return input == null ? position : input.readPosition;
+	}
+
+	/**
+	 * Read the next block of the source, ending on the last line break read;
+	 * whatever follows is carried over to the start of the block after
+	 * 
+	 * @return false once the source is exhausted
+	 */
+	private boolean nextBlock() {
+		if (source == null) {
+			return false;
+		}
+		byte[] block = new byte[Math.max(BLOCK_SIZE, carryLength * 2)];
+		int len = carryLength;
+		if (len > 0) {
+			System.arraycopy(carry, 0, block, 0, len);
+		}
+		boolean eof = false;
+		while (true) {
+			try {
+				int read = source.read(block, len, block.length - len);
+				if (read < 0) {
+					eof = true;
+				} else {
+					len += read;
+				}
+			} catch (IOException e) {
+				throw new ModelException("Error reading input", e);
+			}
+			if (eof || len == block.length) {
+				int cut = len;
+				if (!eof) {
+					while (cut > 0 && block[cut - 1] != '\n') {
+						cut--;
+					}
+					if (cut == 0) {
+						// a single line longer than the block
+						block = Arrays.copyOf(block, block.length * 2);
+						continue;
+					}
+				}
+				carryLength = len - cut;
+				carry = carryLength > 0 ? Arrays.copyOfRange(block, cut, len) : null;
+				if (cut == 0) {
+					return false;
+				}
+				data = block;
+				position = 0;
+				end = cut;
+				input = null;
+				lines = null;
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while (true) {
+			if (lines == null) {
+				input = new Utf8Buffer(data, position, end - position);
+				lines = new Utf8JsonParser(models, input, new Buffer(new char[256]), filters).lines(model);
+			}
+			if (lines.hasNext()) {
+				action.accept(lines.next());
+				return true;
+			}
+			if (!nextBlock()) {
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int from = current();
+		if (end - from >= MIN_SPLIT) {
+			int mid = from + (end - from) / 2;
+			while (mid < end && data[mid] != '\n') {
+				mid++;
+			}
+			if (++mid < end) {
+				var prefix = new JsonLinesSpliterator<>(models, model, filters, null, data, from, mid);
+				position = mid;
+				input = null;
+				lines = null;
+				return prefix;
+			}
+		}
+		if (source != null) {
+			var prefix = from < end ? new JsonLinesSpliterator<>(models, model, filters, null, data, from, end) : null;
+			if (!nextBlock()) {
+				position = end;
+				input = null;
+				lines = null;
+				return prefix;
+			}
+			return prefix != null ? prefix : trySplit();
+		}
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return source != null ? Long.MAX_VALUE : end - current();
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED;
+	}
+}
@@ -15,15 +15,20 @@
  *******************************************************************************/
 package com.bigcloud.djomo.json;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.ParserFilterFactory;
 import com.bigcloud.djomo.base.BaseParser;
 import com.bigcloud.djomo.error.ModelException;
 import com.bigcloud.djomo.internal.CharSequenceParser;
+import com.bigcloud.djomo.internal.FieldOrder;
 import com.bigcloud.djomo.internal.FloatingParser;
 import com.bigcloud.djomo.io.Buffer;
 
@@ -59,12 +64,59 @@ public class JsonParser extends BaseParser implements Parser {
 		}
 	}
 
+	/**
+	 * Lazily iterate the items of the array at the current position, rather than
+	 * collecting them all up front
+	 * 
+	 * @param <T>   the type of array items
+	 * @param model the model used to parse each item
+	 * @return an iterator that parses the next item on each call to next()
+	 */
+	public <T> Iterator<T> iterator(Model<T> model) {
+		return new JsonArrayIterator<T>(parser, model) {
+			@Override
+			protected char seek(char gobble) {
+				return input.seek(gobble);
+			}
+		};
+	}
+
+	/**
+	 * Iterate a sequence of top-level values separated only by whitespace, such
+	 * as newline-delimited JSON, parsing each value on demand
+	 * 
+	 * @param <T>   the type of values
+	 * @param model the model used to parse each value
+	 * @return an iterator that parses the next value on each call to next()
+	 */
+	public <T> Iterator<T> lines(Model<T> model) {
+		final Parser parser = this.parser;
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return input.hasMore();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (!input.hasMore()) {
+					throw new NoSuchElementException();
+				}
+				return (T) parser.parse(model);
+			}
+		};
+	}
+
 	@Override
 	public Object parseObject(ObjectModel model) {
 		final Buffer input = this.input;
 		final Buffer overflow = this.overflow;
 		final Parser parser= this.parser;
 		final Object maker = objectMaker(model);
+		final FieldOrder order = fieldOrder(model);
+		// the field expected next when input follows the write order
+		int next = 0;
 		var n = input.seek('{');
 		if(n == 'n') {
 			return parseNull();
@@ -75,12 +127,23 @@ public class JsonParser extends BaseParser implements Parser {
 		while (true) {
 			switch (input.seek('}')) {
 			case '"':
-				var fn =CharSequenceParser.parse(input, overflow);
-				Field f = parser.parseObjectField(model, fn);
+				Field f;
+				if (order != null && next < order.size()
+						&& order.matches(next, input.buffer, input.readPosition, input.writePosition)) {
+					input.readPosition += order.charLength(next);
+					input.expect(':');
+					f = order.field(next++);
+				} else {
+					var fn = CharSequenceParser.parse(input, overflow);
+					f = parser.parseObjectField(model, fn);
+					if (order != null && f != null) {
+						next = order.indexOf(f, next) + 1;
+					}
+				}
 				if (f != null) {
 					f.parse(maker, parser);
 				} else {
-					parser.parse();
+					parser.skip();
 				}
 				break;
 			case '}':
@@ -127,6 +190,11 @@ public class JsonParser extends BaseParser implements Parser {
 		return null;
 	}
 
+	@Override
+	public void skip() {
+		input.skip();
+	}
+
 	@Override
 	public int parseInt() {
 		// CPD-OFF
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ParserFilterFactory;
+import com.bigcloud.djomo.error.ModelException;
+import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.Utf8Buffer;
+
+/**
+ * <p>
+ * A non-blocking parser for UTF-8 JSON that is pushed chunks of input as they
+ * arrive, for example from an event loop, instead of pulling from a stream.
+ * </p>
+ * <p>
+ * Incoming bytes are scanned incrementally just far enough to track nesting,
+ * strings and escapes; as soon as a complete value has arrived it is bound to
+ * the model and handed to the consumer. Values contained within a single chunk
+ * are parsed in place; only values that straddle chunks are accumulated. By
+ * default each whitespace separated top-level value is emitted, which covers
+ * a single request body as well as newline-delimited JSON. In array mode the
+ * input must be one top-level array, and each of its items is emitted as soon
+ * as it is complete.
+ * </p>
+ * <p>
+ * A JsonPushParser is stateful and not thread safe; feed it from one thread at
+ * a time and call {@link #end()} when the input is complete.
+ * </p>
+ * 
+ * @author Alex Vigdor
+ *
+ * @param <T> the type of value (or array item) to produce
+ */
+public class JsonPushParser<T> {
+	private final Models models;
+	private final Model<T> model;
+	private final boolean arrayItems;
+	private final Consumer<? super T> consumer;
+	private final ParserFilterFactory[] filters;
+	private final Buffer overflow = new Buffer(new char[256]);
+	private byte[] pending = new byte[0];
+	private int pendingLength;
+	private byte[] scratch = new byte[0];
+	private boolean inValue;
+	private boolean inString;
+	private boolean escape;
+	private boolean scalar;
+	private int depth;
+	private boolean arrayOpen;
+	private boolean arrayClosed;
+
+	public JsonPushParser(Models models, Model<T> model, boolean arrayItems, Consumer<? super T> consumer,
+			ParserFilterFactory... filters) {
+		this.models = models;
+		this.model = model;
+		this.arrayItems = arrayItems;
+		this.consumer = consumer;
+		this.filters = filters;
+	}
+
+	/**
+	 * Push the remaining bytes of a chunk; the buffer position is advanced to its
+	 * limit.
+	 * 
+	 * @param chunk the next bytes of input
+	 */
+	public void feed(ByteBuffer chunk) {
+		int len = chunk.remaining();
+		if (chunk.hasArray()) {
+			int start = chunk.arrayOffset() + chunk.position();
+			chunk.position(chunk.limit());
+			feed(chunk.array(), start, len);
+			return;
+		}
+		if (scratch.length < len) {
+			scratch = new byte[len];
+		}
+		chunk.get(scratch, 0, len);
+		feed(scratch, 0, len);
+	}
+
+	/**
+	 * Push a range of bytes; the array is not retained once this method returns.
+	 * 
+	 * @param bytes  the next bytes of input
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 */
+	public void feed(byte[] bytes, int offset, int length) {
+		final int end = offset + length;
+		int start = offset;
+		for (int i = offset; i < end; i++) {
+			byte c = bytes[i];
+			if (!inValue) {
+				if (whitespace(c)) {
+					continue;
+				}
+				if (arrayItems) {
+					if (arrayClosed) {
+						throw new ModelException("Unexpected content after end of array: " + (char) c);
+					}
+					if (!arrayOpen) {
+						if (c != '[') {
+							throw new ModelException("Expected start of array but found " + (char) c);
+						}
+						arrayOpen = true;
+						continue;
+					}
+					if (c == ',') {
+						continue;
+					}
+					if (c == ']') {
+						arrayClosed = true;
+						continue;
+					}
+				}
+				inValue = true;
+				start = i;
+				switch (c) {
+				case '{':
+				case '[':
+					depth = 1;
+					break;
+				case '"':
+					inString = true;
+					break;
+				case ',':
+				case ']':
+				case '}':
+					throw new ModelException("Unexpected character " + (char) c);
+				default:
+					scalar = true;
+				}
+				continue;
+			}
+			if (inString) {
+				if (escape) {
+					escape = false;
+				} else if (c == '\\') {
+					escape = true;
+				} else if (c == '"') {
+					inString = false;
+					if (depth == 0) {
+						complete(bytes, start, i + 1);
+					}
+				}
+				continue;
+			}
+			if (scalar) {
+				if (whitespace(c) || c == ',' || c == ']' || c == '}') {
+					complete(bytes, start, i);
+					// the terminator may be significant between values
+					i--;
+				}
+				continue;
+			}
+			switch (c) {
+			case '"':
+				inString = true;
+				break;
+			case '{':
+			case '[':
+				depth++;
+				break;
+			case '}':
+			case ']':
+				if (--depth == 0) {
+					complete(bytes, start, i + 1);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		if (inValue) {
+			append(bytes, start, end - start);
+		}
+	}
+
+	/**
+	 * Signal the end of input, emitting a trailing top-level number or literal
+	 * that had no terminator
+	 * 
+	 * @throws ModelException if the input ended part way through a value
+	 */
+	public void end() {
+		if (inValue) {
+			if (!scalar) {
+				throw new ModelException("Unexpected EOF");
+			}
+			complete(pending, 0, 0);
+		}
+		if (arrayItems && !arrayClosed) {
+			throw new ModelException("Unexpected EOF");
+		}
+	}
+
+	private static boolean whitespace(byte c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+	}
+
+	private void append(byte[] bytes, int start, int len) {
+		int pl = pendingLength;
+		if (pending.length < pl + len) {
+			pending = Arrays.copyOf(pending, Math.max(pl + len, pending.length * 2));
+		}
+		System.arraycopy(bytes, start, pending, pl, len);
+		pendingLength = pl + len;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void complete(byte[] bytes, int start, int stop) {
+		Utf8Buffer input;
+		if (pendingLength > 0) {
+			if (bytes != pending) {
+				append(bytes, start, stop - start);
+			}
+			input = new Utf8Buffer(pending, 0, pendingLength);
+		} else {
+			input = new Utf8Buffer(bytes, start, stop - start);
+		}
+		inValue = false;
+		scalar = false;
+		depth = 0;
+		var parser = new Utf8JsonParser(models, input, overflow, filters);
+		T value;
+		try {
+			value = (T) (model == null ? parser.parse() : parser.parse(model));
+		} finally {
+			// a document that fails to bind must not leak into the next one
+			pendingLength = 0;
+		}
+		consumer.accept(value);
+	}
+}
@@ -15,10 +15,15 @@
  *******************************************************************************/
 package com.bigcloud.djomo.json;
 
+import java.util.concurrent.ForkJoinPool;
+
 import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.internal.FieldToken;
+import com.bigcloud.djomo.io.CharArraySink;
 import com.bigcloud.djomo.io.CharSink;
 
 /**
@@ -28,11 +33,27 @@ import com.bigcloud.djomo.io.CharSink;
  *
  */
 public class JsonWriter extends BaseJsonWriter implements AutoCloseable {
+	private ForkJoinPool parallelPool;
+	private int parallelItems;
 
 	public JsonWriter(Models context, CharSink sink, VisitorFilterFactory... filters) {
 		super(context, sink, filters);
 	}
 
+	/**
+	 * Opt in to writing lists and arrays of at least minItems items in chunks on
+	 * the given pool, stitched back together in order; output is identical to
+	 * sequential writing. Only applies when the writer has no filters, and only to
+	 * the outermost such list.
+	 * 
+	 * @return this writer
+	 */
+	public JsonWriter parallel(ForkJoinPool pool, int minItems) {
+		this.parallelPool = pool;
+		this.parallelItems = minItems;
+		return this;
+	}
+
 	@Override
 	public <T> void visitObject(T model, ObjectModel<T> definition) {
 		char[] buf = buffer;
@@ -65,7 +86,13 @@ public class JsonWriter extends BaseJsonWriter implements AutoCloseable {
 		buf[p] = '[';
 		pos = p + 1;
 		first = true;
-		definition.visitItems(model, current);
+		ListChunks chunks;
+		if (parallelPool != null && current == this
+				&& (chunks = ListChunks.of(model, definition, parallelItems)) != null) {
+			visitChunks(chunks, definition.itemModel());
+		} else {
+			definition.visitItems(model, current);
+		}
 		if ((p = pos) == BUF_LEN) {
 			sink.next(BUF_LEN);
 			p = 0;
@@ -75,6 +102,28 @@ public class JsonWriter extends BaseJsonWriter implements AutoCloseable {
 		first = false;
 	}
 
+	private void visitChunks(ListChunks chunks, Model itemModel) {
+		// chunk writers are not parallel themselves, so nested lists stay sequential
+		chunks.write(parallelPool, (from, to) -> {
+			var chunkSink = new CharArraySink(models.bufferPool());
+			try (var writer = new JsonWriter(models, chunkSink)) {
+				writer.first = true;
+				for (int i = from; i < to; i++) {
+					writer.visitListItem();
+					chunks.visit(i, itemModel, writer);
+				}
+			} catch (RuntimeException | Error e) {
+				chunkSink.release();
+				throw e;
+			}
+			return chunkSink;
+		}, chunkSink -> {
+			visitListItem();
+			chunkSink.forEachSegment(this::raw);
+			chunkSink.release();
+		}, CharArraySink::release);
+	}
+
 	@Override
 	public void visitObjectField(Object name) {
 		char[] buf = buffer;
@@ -89,6 +138,11 @@ public class JsonWriter extends BaseJsonWriter implements AutoCloseable {
 		} else {
 			first = false;
 		}
+		if (name instanceof FieldToken token) {
+			char[] encoded = token.chars;
+			raw(encoded, 0, encoded.length);
+			return;
+		}
 		visitString(name.toString());
 		if ((p = pos) == BUF_LEN) {
 			sink.next(BUF_LEN);
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.list.ArrayModel;
+import com.bigcloud.djomo.list.CollectionModel;
+import com.bigcloud.djomo.list.DoubleArrayModel;
+import com.bigcloud.djomo.list.ImmutableListModel;
+import com.bigcloud.djomo.list.IntArrayModel;
+import com.bigcloud.djomo.list.LongArrayModel;
+
+/**
+ * Splits a large random access list or array into contiguous chunks that are
+ * written concurrently, then handed back in order for stitching.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+final class ListChunks {
+	// a few chunks per worker, so that uneven items still balance
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int MIN_CHUNK = 64;
+
+	@FunctionalInterface
+	interface ChunkWriter<S> {
+		S write(int from, int to);
+	}
+
+	private final Object list;
+	private final int size;
+
+	private ListChunks(Object list, int size) {
+		this.list = list;
+		this.size = size;
+	}
+
+	/**
+	 * @return chunks for the list, or null if it is too small, or not a plain
+	 *         list or array model whose items can be visited in any order
+	 */
+	static ListChunks of(Object list, ListModel<?> definition, int minItems) {
+		Class<?> dc = definition.getClass();
+		int size;
+		if (dc == ArrayModel.class || dc == IntArrayModel.class || dc == LongArrayModel.class
+				|| dc == DoubleArrayModel.class) {
+			size = Array.getLength(list);
+		} else if ((dc == CollectionModel.class || dc == ImmutableListModel.class) && list instanceof List<?> l
+				&& list instanceof RandomAccess) {
+			size = l.size();
+		} else {
+			return null;
+		}
+		if (size < minItems || size < MIN_CHUNK * 2) {
+			return null;
+		}
+		return new ListChunks(list, size);
+	}
+
+	Object get(int index) {
+		if (list instanceof List<?> l) {
+			return l.get(index);
+		}
+		return Array.get(list, index);
+	}
+
+	/**
+	 * Visit one item, without boxing the items of primitive arrays
+	 */
+	void visit(int index, Model itemModel, Visitor visitor) {
+		if (list instanceof int[] a) {
+			visitor.visitInt(a[index]);
+		} else if (list instanceof long[] a) {
+			visitor.visitLong(a[index]);
+		} else if (list instanceof double[] a) {
+			visitor.visitDouble(a[index]);
+		} else {
+			itemModel.tryVisit(get(index), visitor);
+		}
+	}
+
+	/**
+	 * Fork a writer task per chunk, and pass each result to the stitcher in list
+	 * order as soon as it and all the chunks before it are done. If writing or
+	 * stitching fails, chunks that have not started are skipped, and every result
+	 * that was not stitched is passed to release once its task is done.
+	 */
+	<S> void write(ForkJoinPool pool, ChunkWriter<S> writer, Consumer<S> stitcher, Consumer<S> release) {
+		int chunkSize = Math.max(MIN_CHUNK, -Math.floorDiv(-size, pool.getParallelism() * CHUNKS_PER_THREAD));
+		List<ForkJoinTask<S>> tasks = new ArrayList<>();
+		AtomicBoolean failed = new AtomicBoolean();
+		for (int from = 0; from < size; from += chunkSize) {
+			final int start = from, end = Math.min(size, from + chunkSize);
+			tasks.add(pool.submit(() -> failed.get() ? null : writer.write(start, end)));
+		}
+		int next = 0;
+		try {
+			for (; next < tasks.size(); next++) {
+				stitcher.accept(tasks.get(next).join());
+			}
+		} catch (RuntimeException | Error e) {
+			failed.set(true);
+			// a result whose stitching failed is released along with the rest
+			for (int i = next; i < tasks.size(); i++) {
+				var task = tasks.get(i);
+				task.quietlyJoin();
+				S result;
+				if (task.isCompletedNormally() && (result = task.getRawResult()) != null) {
+					release.accept(result);
+				}
+			}
+			throw e;
+		}
+	}
+}
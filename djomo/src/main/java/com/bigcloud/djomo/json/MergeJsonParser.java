@@ -20,6 +20,7 @@ import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.ListModel;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.ParserFilterFactory;
+import com.bigcloud.djomo.internal.FieldOrder;
 import com.bigcloud.djomo.io.Buffer;
 
 public class MergeJsonParser extends JsonParser {
@@ -51,6 +52,12 @@ public class MergeJsonParser extends JsonParser {
 		return definition.maker();
 	}
 
+	@Override
+	protected FieldOrder fieldOrder(ObjectModel definition) {
+		// every key must pass through parseObjectField to track the merge source
+		return null;
+	}
+
 	@Override
 	public Field parseObjectField(ObjectModel model, CharSequence field) {
 		Field f = super.parseObjectField(model, field);
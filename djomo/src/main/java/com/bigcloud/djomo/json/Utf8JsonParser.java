@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.api.Parser;
+import com.bigcloud.djomo.api.ParserFilterFactory;
+import com.bigcloud.djomo.base.BaseParser;
+import com.bigcloud.djomo.error.ModelException;
+import com.bigcloud.djomo.internal.FieldOrder;
+import com.bigcloud.djomo.internal.FloatingParser;
+import com.bigcloud.djomo.internal.Utf8SequenceParser;
+import com.bigcloud.djomo.io.Buffer;
+import com.bigcloud.djomo.io.Utf8Buffer;
+
+/**
+ * A JSON parser that tokenizes UTF-8 encoded bytes directly, rather than
+ * decoding the whole input to chars up front. Only string values that are
+ * actually parsed are decoded, and ASCII field names are looked up as raw
+ * bytes.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class Utf8JsonParser extends BaseParser implements Parser {
+	final Utf8Buffer input;
+	final Buffer overflow;
+
+	public Utf8JsonParser(Models context, Utf8Buffer input, Buffer overflow, ParserFilterFactory... filters) {
+		super(context, filters);
+		this.input = input;
+		this.overflow = overflow;
+	}
+
+	@Override
+	public Object parse() {
+		switch (input.seek()) {
+			case '{':
+				return parser.parseObject(models.mapModel);
+			case '[':
+				return parser.parseList(models.listModel);
+			case '"':
+				return parser.parseString().toString();
+			case 't':
+			case 'f':
+				return parser.parseBoolean();
+			case 'n':
+				return parser.parseNull();
+			default:
+				return models.numberModel.parse(parser);
+		}
+	}
+
+	/**
+	 * Lazily iterate the items of the array at the current position, rather than
+	 * collecting them all up front
+	 * 
+	 * @param <T>   the type of array items
+	 * @param model the model used to parse each item
+	 * @return an iterator that parses the next item on each call to next()
+	 */
+	public <T> Iterator<T> iterator(Model<T> model) {
+		return new JsonArrayIterator<T>(parser, model) {
+			@Override
+			protected char seek(char gobble) {
+				return input.seek(gobble);
+			}
+		};
+	}
+
+	/**
+	 * Iterate a sequence of top-level values separated only by whitespace, such
+	 * as newline-delimited JSON, parsing each value on demand
+	 * 
+	 * @param <T>   the type of values
+	 * @param model the model used to parse each value
+	 * @return an iterator that parses the next value on each call to next()
+	 */
+	public <T> Iterator<T> lines(Model<T> model) {
+		final Parser parser = this.parser;
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return input.hasMore();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (!input.hasMore()) {
+					throw new NoSuchElementException();
+				}
+				return (T) parser.parse(model);
+			}
+		};
+	}
+
+	@Override
+	public Object parseObject(ObjectModel model) {
+		final Utf8Buffer input = this.input;
+		final Buffer overflow = this.overflow;
+		final Parser parser= this.parser;
+		final Object maker = objectMaker(model);
+		final FieldOrder order = fieldOrder(model);
+		// the field expected next when input follows the write order
+		int next = 0;
+		var n = input.seek('{');
+		if(n == 'n') {
+			return parseNull();
+		}
+		if(n != '{') {
+			throw new ModelException("Unexpected character " + n + " in " + input.describe());
+		}
+		while (true) {
+			switch (input.seek('}')) {
+			case '"':
+				Field f;
+				if (order != null && next < order.size()
+						&& order.matches(next, input.buffer, input.readPosition, input.writePosition)) {
+					input.readPosition += order.byteLength(next);
+					input.expect(':');
+					f = order.field(next++);
+				} else {
+					var fn = Utf8SequenceParser.parse(input, overflow);
+					f = parser.parseObjectField(model, fn);
+					if (order != null && f != null) {
+						next = order.indexOf(f, next) + 1;
+					}
+				}
+				if (f != null) {
+					f.parse(maker, parser);
+				} else {
+					parser.skip();
+				}
+				break;
+			case '}':
+				return model.make(maker);
+			default:
+				throw new ModelException("Unexpected character " + input.seek() + " in " + input.describe());
+			}
+		}
+	}
+
+	@Override
+	public Field parseObjectField(
+			ObjectModel model, CharSequence field) {
+		Field mfield = model.getField(field);
+		input.expect(':');
+		return mfield;
+	}
+
+	@Override
+	public  Object parseList(ListModel definition) {
+		final Object maker = listMaker(definition);
+		final var input = this.input;
+		final var t = this.parser;
+		var n = input.seek('[');
+		if(n == 'n') {
+			return parseNull();
+		}
+		if(n != '[') {
+			throw new ModelException("Unexpected character " + n + " in " + input.describe());
+		}
+		while (true) {
+			switch (input.seek(']')) {
+			case ']':
+				return definition.make(maker);
+			default:
+				definition.parseItem(maker, t);
+			}
+		}
+	}
+
+	@Override
+	public Object parseNull() {
+		input.expect(JsonParser.NULL_CHARS);
+		return null;
+	}
+
+	@Override
+	public void skip() {
+		input.skip();
+	}
+
+	@Override
+	public int parseInt() {
+		// CPD-OFF
+		var input = this.input;
+		final var buf = input.buffer;
+		int rp = input.readPosition;
+		int wp = input.writePosition;
+		int ip = rp;
+		boolean negative = false;
+		int value = 0;
+		// first loop / happy path
+		for (; rp < wp; rp++) {
+			int ch = buf[rp];
+			switch (ch) {
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				value = value * 10 + ch - 48;
+				break;
+			case '-':
+				if (rp == ip) {
+					negative = true;
+				} else {
+					throw new NumberFormatException("Number format error at " + input.describe());
+				}
+				break;
+			// whitespace chomping
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+			case '\f':
+				if(ip == rp) {
+					ip++;
+					break;
+				}
+			default:
+				if (rp == ip || rp == ip + 1 && negative) {
+					throw new NumberFormatException("Number format error at " + input.describe());
+				}
+				input.readPosition = rp;
+				return negative ? 0 - value : value;
+			}
+		}
+		// number continues past the end of the buffer
+		return (int) parseIntegral(ip, rp);
+		// CPD-ON
+	}
+
+	@Override
+	public long parseLong() {
+		var input = this.input;
+		final var buf = input.buffer;
+		int rp = input.readPosition;
+		int wp = input.writePosition;
+		int ip = rp;
+		boolean negative = false;
+		long value = 0;
+		// first loop / happy path
+		for (; rp < wp; rp++) {
+			int ch = buf[rp];
+			switch (ch) {
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				value = value * 10 + ch - 48;
+				break;
+			case '-':
+				if (rp == ip) {
+					negative = true;
+				} else {
+					throw new NumberFormatException("Number format error at " + input.describe());
+				}
+				break;
+			// whitespace chomping
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+			case '\f':
+				if(ip == rp) {
+					ip++;
+					break;
+				}
+			default:
+				if (rp == ip || rp == ip + 1 && negative) {
+					throw new NumberFormatException("Number format error at " + input.describe());
+				}
+				input.readPosition = rp;
+				return negative ? 0 - value : value;
+			}
+		}
+		// number continues past the end of the buffer
+		return parseIntegral(ip, rp);
+	}
+
+	@Override
+	public float parseFloat() {
+		return (float) parseDouble();
+	}
+
+	@Override
+	public double parseDouble() {
+		var input = this.input;
+		final var buf = input.buffer;
+		int rp = input.readPosition;
+		int wp = input.writePosition;
+		if(rp==wp) {
+			if (!input.refill()) {
+				throw new NumberFormatException("Number Model incomplete at " + input.describe());
+			}
+			rp = 0;
+			wp = input.writePosition;
+		}
+		// CPD-OFF
+		int ip = rp;
+		// first loop / happy path
+		for (; rp < wp; rp++) {
+			switch (buf[rp]) {
+			// whitespace chomping
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+			case '\f':
+				if(ip == rp) {
+					ip++;
+					break;
+				}
+			case ',':
+			case ']':
+			case '}':
+				input.readPosition = rp;
+				overflow.writePosition = 0;
+				overflow.writeAscii(buf, ip, rp - ip);
+				return FloatingParser.parseNumber(overflow.buffer, 0, rp - ip);
+			default:
+				break;
+			}
+		}
+		// number continues past the end of the buffer
+		int len = collectNumber(ip, rp, false);
+		// CPD-ON
+		return FloatingParser.parseNumber(overflow.buffer, 0, len);
+	}
+
+	/**
+	 * Slow path for integers that straddle one or more buffer refills; the digits
+	 * are gathered into the overflow buffer before being accumulated.
+	 */
+	private long parseIntegral(int ip, int rp) {
+		int len = collectNumber(ip, rp, true);
+		char[] chars = overflow.buffer;
+		boolean negative = chars[0] == '-';
+		int i = negative ? 1 : 0;
+		if (i == len) {
+			throw new NumberFormatException("Number format error at " + input.describe());
+		}
+		long value = 0;
+		for (; i < len; i++) {
+			char ch = chars[i];
+			if (ch == '-') {
+				throw new NumberFormatException("Number format error at " + input.describe());
+			}
+			value = value * 10 + ch - 48;
+		}
+		return negative ? 0 - value : value;
+	}
+
+	/**
+	 * Copy the partial number at the end of the buffer into overflow, then keep
+	 * refilling until the number terminates or the input ends.
+	 * 
+	 * @param integral true to stop at the first byte that is not a digit or minus
+	 *                 sign, false to stop at whitespace or a closing delimiter
+	 * @return the number of chars written to the overflow buffer
+	 */
+	private int collectNumber(int ip, int rp, boolean integral) {
+		var input = this.input;
+		final var buf = input.buffer;
+		var overflow = this.overflow;
+		overflow.writePosition = 0;
+		overflow.writeAscii(buf, ip, rp - ip);
+		while (input.refill()) {
+			int wp = input.writePosition;
+			rp = 0;
+			ip = 0;
+			for (; rp < wp; rp++) {
+				byte ch = buf[rp];
+				if (ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r' || ch == '\f') {
+					if (overflow.writePosition == 0 && ip == rp) {
+						ip++;
+						continue;
+					}
+					break;
+				}
+				if (integral ? (ch < '0' || ch > '9') && ch != '-' : ch == ',' || ch == ']' || ch == '}') {
+					break;
+				}
+			}
+			overflow.writeAscii(buf, ip, rp - ip);
+			input.readPosition = rp;
+			if (rp < wp) {
+				break;
+			}
+		}
+		int len = overflow.writePosition;
+		if (len == 0) {
+			throw new NumberFormatException("Number Model incomplete at " + input.describe());
+		}
+		return len;
+	}
+
+	@Override
+	public boolean parseBoolean() {
+		var input = this.input;
+		switch (input.seek()) {
+			case 't':
+				input.expect(JsonParser.TRUE_CHARS);
+				return true;
+			case 'f':
+				input.expect(JsonParser.FALSE_CHARS);
+				return false;
+			default:
+				throw new ModelException("Unexpected input for boolean " + input.describe());
+		}
+	}
+
+	@Override
+	public CharSequence parseString() {
+		var input = this.input;
+		switch (input.seek()) {
+			case 'n':
+				input.expect(JsonParser.NULL_CHARS);
+				return null;
+			case '"':
+				return Utf8SequenceParser.parse(input, overflow);
+			default:
+				throw new ModelException("Expected starting quote "+input.describe());
+		}
+	}
+
+}
\ No newline at end of file
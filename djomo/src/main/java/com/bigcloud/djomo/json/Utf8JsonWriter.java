@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.json;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.internal.FieldToken;
+import com.bigcloud.djomo.io.ByteArraySink;
+import com.bigcloud.djomo.io.ByteSink;
+
+/**
+ * A ModelVisitor that produces a compact serialized JSON representation of a
+ * Model as UTF-8 bytes
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class Utf8JsonWriter extends BaseUtf8JsonWriter implements AutoCloseable {
+	private ForkJoinPool parallelPool;
+	private int parallelItems;
+
+	public Utf8JsonWriter(Models context, ByteSink sink, VisitorFilterFactory... filters) {
+		super(context, sink, filters);
+	}
+
+	/**
+	 * Opt in to writing lists and arrays of at least minItems items in chunks on
+	 * the given pool, stitched back together in order; output is identical to
+	 * sequential writing. Only applies when the writer has no filters, and only to
+	 * the outermost such list.
+	 * 
+	 * @return this writer
+	 */
+	public Utf8JsonWriter parallel(ForkJoinPool pool, int minItems) {
+		this.parallelPool = pool;
+		this.parallelItems = minItems;
+		return this;
+	}
+
+	@Override
+	public <T> void visitObject(T model, ObjectModel<T> definition) {
+		int p;
+		if ((p = pos) == limit) {
+			p = flush(p);
+		}
+		buffer[p] = '{';
+		pos = p + 1;
+		first = true;
+		definition.visitFields(model, current);
+		if ((p = pos) == limit) {
+			p = flush(p);
+		}
+		buffer[p] = '}';
+		pos = p + 1;
+		first = false;
+	}
+
+	@Override
+	public <T> void visitList(T model, ListModel<T> definition) {
+		int p;
+		if ((p = pos) == limit) {
+			p = flush(p);
+		}
+		buffer[p] = '[';
+		pos = p + 1;
+		first = true;
+		ListChunks chunks;
+		if (parallelPool != null && current == this
+				&& (chunks = ListChunks.of(model, definition, parallelItems)) != null) {
+			visitChunks(chunks, definition.itemModel());
+		} else {
+			definition.visitItems(model, current);
+		}
+		if ((p = pos) == limit) {
+			p = flush(p);
+		}
+		buffer[p] = ']';
+		pos = p + 1;
+		first = false;
+	}
+
+	private void visitChunks(ListChunks chunks, Model itemModel) {
+		// chunk writers are not parallel themselves, so nested lists stay sequential
+		chunks.write(parallelPool, (from, to) -> {
+			var chunkSink = new ByteArraySink(models.bufferPool());
+			try (var writer = new Utf8JsonWriter(models, chunkSink)) {
+				writer.first = true;
+				for (int i = from; i < to; i++) {
+					writer.visitListItem();
+					chunks.visit(i, itemModel, writer);
+				}
+			} catch (RuntimeException | Error e) {
+				chunkSink.release();
+				throw e;
+			}
+			return chunkSink;
+		}, chunkSink -> {
+			visitListItem();
+			chunkSink.forEachSegment(this::raw);
+			chunkSink.release();
+		}, ByteArraySink::release);
+	}
+
+	@Override
+	public void visitObjectField(Object name) {
+		int p;
+		if (!first) {
+			if ((p = pos) == limit) {
+				p = flush(p);
+			}
+			buffer[p] = ',';
+			pos = p + 1;
+		} else {
+			first = false;
+		}
+		if (name instanceof FieldToken token) {
+			byte[] encoded = token.bytes;
+			raw(encoded, 0, encoded.length);
+			return;
+		}
+		visitString(name.toString());
+		if ((p = pos) == limit) {
+			p = flush(p);
+		}
+		buffer[p] = ':';
+		pos = p + 1;
+	}
+
+	@Override
+	public void visitListItem() {
+		if (!first) {
+			int p;
+			if ((p = pos) == limit) {
+				p = flush(p);
+			}
+			buffer[p] = ',';
+			pos = p + 1;
+		} else {
+			first = false;
+		}
+	}
+
+}
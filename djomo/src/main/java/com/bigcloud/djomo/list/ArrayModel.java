@@ -74,12 +74,10 @@ public class ArrayModel<T> extends BaseListModel<T> {
 
 	@Override
 	public void visitItems(T t, Visitor visitor) {
-		var m = itemModel;
 		int len = Array.getLength(t);
 		for (int i = 0; i < len; i++) {
 			visitor.visitListItem();
-			var o = Array.get(t, i);
-			m.tryVisit(o, visitor);
+			visitItem(Array.get(t, i), visitor);
 		}
 	}
 
@@ -69,10 +69,9 @@ public class CollectionModel<T extends Collection> extends BaseListModel<T> {
 
 	@Override
 	public void visitItems(T t, Visitor visitor) {
-		var m = itemModel;
 		t.forEach(i -> {
 			visitor.visitListItem();
-			m.tryVisit(i, visitor);
+			visitItem(i, visitor);
 		});
 	}
 	
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.list;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.bigcloud.djomo.api.ModelContext;
+import com.bigcloud.djomo.api.Parser;
+import com.bigcloud.djomo.api.ParserFilter;
+import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.api.VisitorFilter;
+import com.bigcloud.djomo.base.BaseListModel;
+
+/**
+ * Model for double[] that parses into a growable double[] and visits items as
+ * primitives; items only pass through the boxed item model when filters are in
+ * play, so those can still intercept them.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class DoubleArrayModel extends BaseListModel<double[]> {
+
+	public DoubleArrayModel(ModelContext context) {
+		super(double[].class, context, context.get(double.class));
+	}
+
+	static final class Maker {
+		double[] values;
+		int size;
+
+		Maker(double[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		void add(double value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+	@Override
+	public Object maker(double[] obj) {
+		return new Maker(Arrays.copyOf(obj, Math.max(16, obj.length)), obj.length);
+	}
+
+	@Override
+	public Object maker() {
+		return new Maker(new double[16], 0);
+	}
+
+	@Override
+	public double[] make(Object maker) {
+		Maker m = (Maker) maker;
+		return m.size == m.values.length ? m.values : Arrays.copyOf(m.values, m.size);
+	}
+
+	@Override
+	protected void addItem(Object maker, Object item) {
+		((Maker) maker).add(((Number) item).doubleValue());
+	}
+
+	@Override
+	public void parseItem(Object listMaker, Parser parser) {
+		if (parser instanceof ParserFilter) {
+			super.parseItem(listMaker, parser);
+		} else {
+			parser.parseListItem();
+			((Maker) listMaker).add(parser.parseDouble());
+		}
+	}
+
+	@Override
+	public void forEachItem(double[] t, Consumer consumer) {
+		for (double v : t) {
+			consumer.accept(v);
+		}
+	}
+
+	@Override
+	public Stream stream(double[] t) {
+		return Arrays.stream(t).boxed();
+	}
+
+	@Override
+	public void visitItems(double[] t, Visitor visitor) {
+		if (visitor instanceof VisitorFilter) {
+			var m = itemModel;
+			for (double v : t) {
+				visitor.visitListItem();
+				m.tryVisit(v, visitor);
+			}
+		} else {
+			for (double v : t) {
+				visitor.visitListItem();
+				visitor.visitDouble(v);
+			}
+		}
+	}
+}
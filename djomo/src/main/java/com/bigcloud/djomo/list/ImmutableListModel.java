@@ -20,7 +20,6 @@ import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ModelContext;
 import com.bigcloud.djomo.api.Visitor;
 import com.bigcloud.djomo.base.BaseListModel;
@@ -59,10 +58,9 @@ public class ImmutableListModel extends BaseListModel<List> {
 
 	@Override
 	public void visitItems(List t, Visitor visitor) {
-		final Model m = itemModel;
 		t.forEach(i -> {
 			visitor.visitListItem();
-			m.tryVisit(i, visitor);
+			visitItem(i, visitor);
 		});
 	}
 
@@ -52,6 +52,15 @@ public class ListModelFactory extends BaseModelFactory {
 			if (rawType.getComponentType() == byte.class) {
 				return new ByteArrayModel(context);
 			}
+			if (rawType.getComponentType() == int.class) {
+				return new IntArrayModel(context);
+			}
+			if (rawType.getComponentType() == long.class) {
+				return new LongArrayModel(context);
+			}
+			if (rawType.getComponentType() == double.class) {
+				return new DoubleArrayModel(context);
+			}
 			return new ArrayModel<>(type, context);
 		} else if(Stream.class.isAssignableFrom(rawType)) {
 			return new StreamModel<>(type, context, valueType);
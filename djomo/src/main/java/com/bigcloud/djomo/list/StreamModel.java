@@ -19,7 +19,6 @@ import java.lang.reflect.Type;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ModelContext;
 import com.bigcloud.djomo.api.Visitor;
 import com.bigcloud.djomo.base.BaseListModel;
@@ -54,10 +53,9 @@ public class StreamModel<T extends Stream> extends BaseListModel<T> {
 
 	@Override
 	public void visitItems(T t, Visitor visitor) {
-		Model m = itemModel;
 		t.forEach(item -> {
 			visitor.visitListItem();
-			m.tryVisit(item, visitor);
+			visitItem(item, visitor);
 		});
 	}
 
@@ -18,7 +18,17 @@ package com.bigcloud.djomo.object;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.Resolver;
 import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.ListModel;
@@ -26,13 +36,22 @@ import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.api.VisitorFilter;
 import com.bigcloud.djomo.error.GetFieldException;
 import com.bigcloud.djomo.error.SetFieldException;
 import com.bigcloud.djomo.filter.FilterField;
+import com.bigcloud.djomo.internal.FieldToken;
+import com.bigcloud.djomo.internal.InlineCache;
+import com.bigcloud.djomo.object.FieldAccessors.ObjBooleanConsumer;
+import com.bigcloud.djomo.object.FieldAccessors.ObjFloatConsumer;
+import com.bigcloud.djomo.object.FieldAccessors.ToBooleanFunction;
+import com.bigcloud.djomo.object.FieldAccessors.ToFloatFunction;
 import com.bigcloud.djomo.poly.ResolverModel;
 
 /**
- * General and primitive specialist bean field implementations
+ * General and primitive specialist bean field implementations. Values are read
+ * and written through accessors from {@link FieldAccessors}, which call the
+ * underlying methods directly where possible.
  * 
  * @author Alex Vigdor
  *
@@ -40,17 +59,31 @@ import com.bigcloud.djomo.poly.ResolverModel;
 public class BeanField implements Field, Cloneable {
 	protected final MethodHandle accessor;
 	protected final MethodHandle mutator;
+	protected final Function<Object, Object> getter;
+	protected final BiConsumer<Object, Object> setter;
 	protected final String name;
 	protected Object key;
+	protected FieldToken token;
 	protected final Model model;
 
 	public BeanField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
+		this(accessor, mutator, name, model, true);
+	}
+
+	/**
+	 * @param boxed whether to create the general, boxing getter and setter;
+	 *              primitive specialists override get and set with their own
+	 */
+	protected BeanField(MethodHandle accessor, MethodHandle mutator, String name, Model model, boolean boxed) {
 		this.accessor = accessor;
 		this.mutator = mutator == null
 				? MethodHandles.empty(MethodType.methodType(void.class, Object.class, model.getType()))
 				: mutator;
+		this.getter = boxed && accessor != null ? FieldAccessors.getter(accessor) : null;
+		this.setter = boxed ? FieldAccessors.setter(this.mutator) : null;
 		this.name = name;
 		this.key = name;
+		this.token = FieldToken.of(name);
 		this.model = model;
 	}
 
@@ -67,7 +100,7 @@ public class BeanField implements Field, Cloneable {
 	@Override
 	public Object get(Object o) {
 		try {
-			return accessor.invoke(o);
+			return getter.apply(o);
 		} catch (Throwable e) {
 			throw createGetException(o, e);
 		}
@@ -81,7 +114,7 @@ public class BeanField implements Field, Cloneable {
 	@Override
 	public void set(Object receiver, Object value) {
 		try {
-			mutator.invoke(receiver, value);
+			setter.accept(receiver, value);
 		} catch (Throwable e) {
 			throw createSetException(receiver, value, e);
 		}
@@ -96,11 +129,11 @@ public class BeanField implements Field, Cloneable {
 	public void visit(Object source, Visitor visitor) {
 		Object val;
 		try {
-			val = accessor.invoke(source);
+			val = getter.apply(source);
 		} catch (Throwable e) {
 			throw createGetException(source, e);
 		}
-		visitor.visitObjectField(key);
+		token.visit(visitor, key);
 		model.tryVisit(val, visitor);
 	}
 
@@ -108,7 +141,7 @@ public class BeanField implements Field, Cloneable {
 	public void parse(Object dest, Parser parser) {
 		var value = parser.parse(model);
 		try {
-			mutator.invoke(dest, value);
+			setter.accept(dest, value);
 		} catch (Throwable e) {
 			throw createSetException(dest, value, e);
 		}
@@ -118,6 +151,7 @@ public class BeanField implements Field, Cloneable {
 	public Field rekey(Object newKey) {
 		BeanField cloned = clone();
 		cloned.key = newKey;
+		cloned.token = FieldToken.of(newKey);
 		return cloned;
 	}
 
@@ -144,9 +178,9 @@ public class BeanField implements Field, Cloneable {
 			CharSequence value = parser.parseString();
 			try {
 				if (value != null) {
-					mutator.invoke(dest, value.toString());
+					setter.accept(dest, value.toString());
 				} else {
-					mutator.invoke(dest, null);
+					setter.accept(dest, null);
 				}
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
@@ -157,11 +191,11 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			String val;
 			try {
-				val = (String) accessor.invoke(source);
+				val = (String) getter.apply(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			if (val == null) {
 				visitor.visitNull();
 			} else {
@@ -172,16 +206,38 @@ public class BeanField implements Field, Cloneable {
 	}
 
 	public static class DoubleField extends BeanField {
+		private final ToDoubleFunction<Object> doubleGetter;
+		private final ObjDoubleConsumer<Object> doubleSetter;
 
 		public DoubleField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
-			super(accessor, mutator, name, model);
+			super(accessor, mutator, name, model, false);
+			this.doubleGetter = accessor == null ? null : FieldAccessors.doubleGetter(accessor);
+			this.doubleSetter = FieldAccessors.doubleSetter(this.mutator);
+		}
+
+		@Override
+		public Object get(Object o) {
+			try {
+				return doubleGetter.applyAsDouble(o);
+			} catch (Throwable e) {
+				throw createGetException(o, e);
+			}
+		}
+
+		@Override
+		public void set(Object receiver, Object value) {
+			try {
+				doubleSetter.accept(receiver, (Double) value);
+			} catch (Throwable e) {
+				throw createSetException(receiver, value, e);
+			}
 		}
 
 		@Override
 		public void parse(Object dest, Parser parser) {
 			double value = parser.parseDouble();
 			try {
-				mutator.invoke(dest, value);
+				doubleSetter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -191,27 +247,49 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			double val;
 			try {
-				val = (double) accessor.invoke(source);
+				val = doubleGetter.applyAsDouble(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			visitor.visitDouble(val);
 		}
 
 	}
 
 	public static class FloatField extends BeanField {
+		private final ToFloatFunction<Object> floatGetter;
+		private final ObjFloatConsumer<Object> floatSetter;
 
 		public FloatField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
-			super(accessor, mutator, name, model);
+			super(accessor, mutator, name, model, false);
+			this.floatGetter = accessor == null ? null : FieldAccessors.floatGetter(accessor);
+			this.floatSetter = FieldAccessors.floatSetter(this.mutator);
+		}
+
+		@Override
+		public Object get(Object o) {
+			try {
+				return floatGetter.applyAsFloat(o);
+			} catch (Throwable e) {
+				throw createGetException(o, e);
+			}
+		}
+
+		@Override
+		public void set(Object receiver, Object value) {
+			try {
+				floatSetter.accept(receiver, (Float) value);
+			} catch (Throwable e) {
+				throw createSetException(receiver, value, e);
+			}
 		}
 
 		@Override
 		public void parse(Object dest, Parser parser) {
 			float value = parser.parseFloat();
 			try {
-				mutator.invoke(dest, value);
+				floatSetter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -221,26 +299,48 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			float val;
 			try {
-				val = (float) accessor.invoke(source);
+				val = floatGetter.applyAsFloat(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			visitor.visitFloat(val);
 		}
 	}
 
 	public static class LongField extends BeanField {
+		private final ToLongFunction<Object> longGetter;
+		private final ObjLongConsumer<Object> longSetter;
 
 		public LongField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
-			super(accessor, mutator, name, model);
+			super(accessor, mutator, name, model, false);
+			this.longGetter = accessor == null ? null : FieldAccessors.longGetter(accessor);
+			this.longSetter = FieldAccessors.longSetter(this.mutator);
+		}
+
+		@Override
+		public Object get(Object o) {
+			try {
+				return longGetter.applyAsLong(o);
+			} catch (Throwable e) {
+				throw createGetException(o, e);
+			}
+		}
+
+		@Override
+		public void set(Object receiver, Object value) {
+			try {
+				longSetter.accept(receiver, (Long) value);
+			} catch (Throwable e) {
+				throw createSetException(receiver, value, e);
+			}
 		}
 
 		@Override
 		public void parse(Object dest, Parser parser) {
 			long value = parser.parseLong();
 			try {
-				mutator.invoke(dest, value);
+				longSetter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -250,27 +350,49 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			long val;
 			try {
-				val = (long) accessor.invoke(source);
+				val = longGetter.applyAsLong(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			visitor.visitLong(val);
 		}
 
 	}
 
 	public static class IntField extends BeanField {
+		private final ToIntFunction<Object> intGetter;
+		private final ObjIntConsumer<Object> intSetter;
 
 		public IntField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
-			super(accessor, mutator, name, model);
+			super(accessor, mutator, name, model, false);
+			this.intGetter = accessor == null ? null : FieldAccessors.intGetter(accessor);
+			this.intSetter = FieldAccessors.intSetter(this.mutator);
+		}
+
+		@Override
+		public Object get(Object o) {
+			try {
+				return intGetter.applyAsInt(o);
+			} catch (Throwable e) {
+				throw createGetException(o, e);
+			}
+		}
+
+		@Override
+		public void set(Object receiver, Object value) {
+			try {
+				intSetter.accept(receiver, (Integer) value);
+			} catch (Throwable e) {
+				throw createSetException(receiver, value, e);
+			}
 		}
 
 		@Override
 		public void parse(Object dest, Parser parser) {
 			int value = parser.parseInt();
 			try {
-				mutator.invoke(dest, value);
+				intSetter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -280,26 +402,48 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			int val;
 			try {
-				val = (int) accessor.invoke(source);
+				val = intGetter.applyAsInt(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			visitor.visitInt(val);
 		}
 	}
 
 	public static class BooleanField extends BeanField {
+		private final ToBooleanFunction<Object> booleanGetter;
+		private final ObjBooleanConsumer<Object> booleanSetter;
 
 		public BooleanField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
-			super(accessor, mutator, name, model);
+			super(accessor, mutator, name, model, false);
+			this.booleanGetter = accessor == null ? null : FieldAccessors.booleanGetter(accessor);
+			this.booleanSetter = FieldAccessors.booleanSetter(this.mutator);
+		}
+
+		@Override
+		public Object get(Object o) {
+			try {
+				return booleanGetter.applyAsBoolean(o);
+			} catch (Throwable e) {
+				throw createGetException(o, e);
+			}
+		}
+
+		@Override
+		public void set(Object receiver, Object value) {
+			try {
+				booleanSetter.accept(receiver, (Boolean) value);
+			} catch (Throwable e) {
+				throw createSetException(receiver, value, e);
+			}
 		}
 
 		@Override
 		public void parse(Object dest, Parser parser) {
 			boolean value = parser.parseBoolean();
 			try {
-				mutator.invoke(dest, value);
+				booleanSetter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -309,11 +453,11 @@ public class BeanField implements Field, Cloneable {
 		public void visit(Object source, Visitor visitor) {
 			boolean val;
 			try {
-				val = (boolean) accessor.invoke(source);
+				val = booleanGetter.applyAsBoolean(source);
 			} catch (Throwable e) {
 				throw createGetException(source, e);
 			}
-			visitor.visitObjectField(key);
+			token.visit(visitor, key);
 			visitor.visitBoolean(val);
 		}
 	}
@@ -330,7 +474,7 @@ public class BeanField implements Field, Cloneable {
 		public void parse(Object dest, Parser parser) {
 			var value = parser.parseObject(objectModel);
 			try {
-				mutator.invoke(dest, value);
+				setter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -350,7 +494,7 @@ public class BeanField implements Field, Cloneable {
 		public void parse(Object dest, Parser parser) {
 			var value = parser.parseList(listModel);
 			try {
-				mutator.invoke(dest, value);
+				setter.accept(dest, value);
 			} catch (Throwable e) {
 				throw createSetException(dest, value, e);
 			}
@@ -358,13 +502,51 @@ public class BeanField implements Field, Cloneable {
 
 	}
 
+	/**
+	 * Field declared with an interface, abstract or Object type; values are
+	 * visited with the model for their runtime class, held in a per-field inline
+	 * cache
+	 */
+	public static class PolyField extends BeanField {
+		private final InlineCache cache;
+
+		public PolyField(MethodHandle accessor, MethodHandle mutator, String name, Model model) {
+			super(accessor, mutator, name, model);
+			this.cache = new InlineCache(model.models());
+		}
+
+		@Override
+		public void visit(Object source, Visitor visitor) {
+			Object val;
+			try {
+				val = getter.apply(source);
+			} catch (Throwable e) {
+				throw createGetException(source, e);
+			}
+			token.visit(visitor, key);
+			if (val == null) {
+				visitor.visitNull();
+			} else if (visitor instanceof VisitorFilter) {
+				// filters see the declared model, as they would without the cache
+				model.tryVisit(val, visitor);
+			} else {
+				cache.get(val.getClass()).tryVisit(val, visitor);
+			}
+		}
+	}
+
 	public static class Builder {
 		private MethodHandle accessor;
 		private MethodHandle mutator;
 		private String name;
 		private Model model;
+		private Type lazyType;
+		private Models models;
 
 		public Field build() {
+			if (model == null && lazyType != null) {
+				return new LazyField(accessor, mutator, name, lazyType, models);
+			}
 			Field field;
 			if (model.getType() == String.class) {
 				field = new StringField(accessor, mutator, name, model);
@@ -386,6 +568,8 @@ public class BeanField implements Field, Cloneable {
 					field = new ObjectField(accessor, mutator, name, om);
 				} else if (model instanceof ListModel lm) {
 					field = new ListField(accessor, mutator, name, lm);
+				} else if (InlineCache.isPolymorphic(model)) {
+					field = new PolyField(accessor, mutator, name, model);
 				} else {
 					field = new BeanField(accessor, mutator, name, model);
 				}
@@ -416,6 +600,21 @@ public class BeanField implements Field, Cloneable {
 
 		public Builder model(Model model) {
 			this.model = model;
+			this.lazyType = null;
+			return this;
+		}
+
+		/**
+		 * Defer looking up the field model until the field is first used
+		 * 
+		 * @param type   the field type
+		 * @param models the Models to resolve it from
+		 * @return this builder
+		 */
+		public Builder lazyModel(Type type, Models models) {
+			this.model = null;
+			this.lazyType = type;
+			this.models = models;
 			return this;
 		}
 
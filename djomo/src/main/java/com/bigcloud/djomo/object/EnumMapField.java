@@ -21,21 +21,25 @@ import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.internal.FieldToken;
 
 public class EnumMapField implements Field {
 	final Enum enumVal;
 	final Model model;
 	final Object key;
+	final FieldToken token;
 
 	public EnumMapField(Enum enumVal, Model model) {
 		this.enumVal = enumVal;
 		this.key = enumVal;
+		this.token = FieldToken.of(key);
 		this.model = model;
 	}
 
 	private EnumMapField(Enum enumVal, Model model, Object key) {
 		this.enumVal = enumVal;
 		this.key = key;
+		this.token = FieldToken.of(key);
 		this.model = model;
 	}
 
@@ -61,7 +65,7 @@ public class EnumMapField implements Field {
 
 	@Override
 	public void visit(Object source, Visitor visitor) {
-		visitor.visitObjectField(key);
+		token.visit(visitor, key);
 		Object val = get(source);
 		model.tryVisit(val, visitor);
 	}
@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.object;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Executable;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Turns the accessor and mutator MethodHandles of bean, record and builder
+ * fields into typed functional objects. Where the handle is a direct reference
+ * to an accessible method, an implementation is generated with
+ * LambdaMetafactory, which defines a hidden class that invokes the method
+ * directly and passes primitives unboxed, so call sites inline like a plain
+ * getter or setter call. Other handles, such as field getters, bound handles
+ * or methods of inaccessible classes, fall back to a wrapper that calls the
+ * MethodHandle.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public final class FieldAccessors {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private FieldAccessors() {
+	}
+
+	@FunctionalInterface
+	public interface ToBooleanFunction<T> {
+		boolean applyAsBoolean(T value);
+	}
+
+	@FunctionalInterface
+	public interface ObjBooleanConsumer<T> {
+		void accept(T t, boolean value);
+	}
+
+	@FunctionalInterface
+	public interface ToFloatFunction<T> {
+		float applyAsFloat(T value);
+	}
+
+	@FunctionalInterface
+	public interface ObjFloatConsumer<T> {
+		void accept(T t, float value);
+	}
+
+	/**
+	 * @return true if the accessor calls its target directly, rather than through
+	 *         a MethodHandle
+	 */
+	public static boolean isGenerated(Object accessor) {
+		return !(accessor instanceof Invoker);
+	}
+
+	public static Function<Object, Object> getter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(Object.class, Object.class);
+		Function<Object, Object> generated = generate(Function.class, "apply", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static BiConsumer<Object, Object> setter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, Object.class);
+		BiConsumer<Object, Object> generated = generate(BiConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	public static ToIntFunction<Object> intGetter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(int.class, Object.class);
+		ToIntFunction<Object> generated = generate(ToIntFunction.class, "applyAsInt", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static ObjIntConsumer<Object> intSetter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, int.class);
+		ObjIntConsumer<Object> generated = generate(ObjIntConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	public static ToLongFunction<Object> longGetter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(long.class, Object.class);
+		ToLongFunction<Object> generated = generate(ToLongFunction.class, "applyAsLong", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static ObjLongConsumer<Object> longSetter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, long.class);
+		ObjLongConsumer<Object> generated = generate(ObjLongConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	public static ToDoubleFunction<Object> doubleGetter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(double.class, Object.class);
+		ToDoubleFunction<Object> generated = generate(ToDoubleFunction.class, "applyAsDouble", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static ObjDoubleConsumer<Object> doubleSetter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, double.class);
+		ObjDoubleConsumer<Object> generated = generate(ObjDoubleConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	public static ToFloatFunction<Object> floatGetter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(float.class, Object.class);
+		ToFloatFunction<Object> generated = generate(ToFloatFunction.class, "applyAsFloat", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static ObjFloatConsumer<Object> floatSetter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, float.class);
+		ObjFloatConsumer<Object> generated = generate(ObjFloatConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	public static ToBooleanFunction<Object> booleanGetter(MethodHandle accessor) {
+		MethodType type = MethodType.methodType(boolean.class, Object.class);
+		ToBooleanFunction<Object> generated = generate(ToBooleanFunction.class, "applyAsBoolean", type, accessor);
+		return generated != null ? generated : new Invoker(accessor.asType(type));
+	}
+
+	public static ObjBooleanConsumer<Object> booleanSetter(MethodHandle mutator) {
+		MethodType type = MethodType.methodType(void.class, Object.class, boolean.class);
+		ObjBooleanConsumer<Object> generated = generate(ObjBooleanConsumer.class, "accept", type, mutator);
+		return generated != null ? generated : new Invoker(mutator.asType(type));
+	}
+
+	/**
+	 * @param erased the erased signature of the interface method
+	 * @return an implementation calling the target directly, or null if the
+	 *         target is not a direct, accessible method reference
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T generate(Class<?> type, String name, MethodType erased, MethodHandle target) {
+		MethodType targetType = target.type();
+		if (targetType.parameterCount() != erased.parameterCount()) {
+			return null;
+		}
+		// specialize the erased Object types to those of the target, so the generated
+		// class casts to the receiver class and boxes or unboxes exactly as declared
+		MethodType instantiated = erased;
+		for (int i = 0; i < erased.parameterCount(); i++) {
+			Class<?> p = targetType.parameterType(i);
+			if (erased.parameterType(i) == Object.class) {
+				instantiated = instantiated.changeParameterType(i, MethodType.methodType(p).wrap().returnType());
+			} else if (erased.parameterType(i) != p) {
+				return null;
+			}
+		}
+		if (erased.returnType() == Object.class) {
+			instantiated = instantiated.changeReturnType(targetType.wrap().returnType());
+		} else if (erased.returnType() != void.class && erased.returnType() != targetType.returnType()) {
+			return null;
+		}
+		// generated code links against the target's classes as ordinary bytecode, so
+		// they must be visible by name from this class loader
+		for (Class<?> p : instantiated.parameterArray()) {
+			if (!visible(p)) {
+				return null;
+			}
+		}
+		// only a direct method reference can be generated; check without side effects
+		// before making this module read those of the target, which the metafactory
+		// needs to crack the handle and the generated class needs to link
+		try {
+			MethodHandles.reflectAs(Executable.class, target);
+		} catch (IllegalArgumentException | ClassCastException e) {
+			return null;
+		}
+		for (Class<?> p : instantiated.parameterArray()) {
+			FieldAccessors.class.getModule().addReads(p.getModule());
+		}
+		try {
+			var site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(type), erased, target,
+					instantiated);
+			return (T) site.getTarget().invoke();
+		} catch (LambdaConversionException | IllegalArgumentException | IllegalAccessException
+				| IllegalAccessError e) {
+			// a target the metafactory rejects, or one not accessible from here
+			return null;
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException("Unable to generate accessor for " + target, e);
+		}
+	}
+
+	/**
+	 * Fallback implementation of every accessor type, calling a handle already
+	 * adapted to the erased signature of the one it is used as
+	 */
+	private static final class Invoker implements Function<Object, Object>, BiConsumer<Object, Object>,
+			ToIntFunction<Object>, ObjIntConsumer<Object>, ToLongFunction<Object>, ObjLongConsumer<Object>,
+			ToDoubleFunction<Object>, ObjDoubleConsumer<Object>, ToFloatFunction<Object>, ObjFloatConsumer<Object>,
+			ToBooleanFunction<Object>, ObjBooleanConsumer<Object> {
+		private final MethodHandle handle;
+
+		Invoker(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public Object apply(Object o) {
+			try {
+				return handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, Object value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public int applyAsInt(Object o) {
+			try {
+				return (int) handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, int value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public long applyAsLong(Object o) {
+			try {
+				return (long) handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, long value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public double applyAsDouble(Object o) {
+			try {
+				return (double) handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, double value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public float applyAsFloat(Object o) {
+			try {
+				return (float) handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, float value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public boolean applyAsBoolean(Object o) {
+			try {
+				return (boolean) handle.invokeExact(o);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public void accept(Object o, boolean value) {
+			try {
+				handle.invokeExact(o, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+	}
+
+	private static boolean visible(Class<?> type) {
+		if (type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, FieldAccessors.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Throwable> RuntimeException rethrow(Throwable e) throws E {
+		throw (E) e;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.object;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Type;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.Parser;
+import com.bigcloud.djomo.api.Visitor;
+
+/**
+ * Bean field whose model is looked up on first use rather than when the
+ * enclosing object model is built, used when {@link Models.Builder#lazyFields()}
+ * is enabled. Resolution builds the same specialized {@link BeanField} an eager
+ * model would have, so behavior after the first access is unchanged; as
+ * nothing is resolved up front, recursive types need no special handling.
+ * 
+ * @author Alex Vigdor
+ *
+ */
+public class LazyField implements Field, Cloneable {
+	private final MethodHandle accessor;
+	private final MethodHandle mutator;
+	private final String name;
+	private final Type type;
+	private final Models models;
+	private Object key;
+	private volatile Field field;
+
+	public LazyField(MethodHandle accessor, MethodHandle mutator, String name, Type type, Models models) {
+		this.accessor = accessor;
+		this.mutator = mutator;
+		this.name = name;
+		this.type = type;
+		this.models = models;
+		this.key = name;
+	}
+
+	private Field field() {
+		Field f = field;
+		if (f == null) {
+			// racing threads build equivalent fields, either may win
+			f = BeanField.builder().accessor(accessor).mutator(mutator).name(name).model(models.get(type)).build();
+			if (!name.equals(key)) {
+				f = f.rekey(key);
+			}
+			field = f;
+		}
+		return f;
+	}
+
+	@Override
+	public Object key() {
+		return key;
+	}
+
+	@Override
+	public Model model() {
+		return field().model();
+	}
+
+	@Override
+	public Object get(Object source) {
+		return field().get(source);
+	}
+
+	@Override
+	public void set(Object destination, Object value) {
+		field().set(destination, value);
+	}
+
+	@Override
+	public void visit(Object source, Visitor visitor) {
+		field().visit(source, visitor);
+	}
+
+	@Override
+	public void parse(Object destination, Parser parser) {
+		field().parse(destination, parser);
+	}
+
+	@Override
+	public Field rekey(Object newKey) {
+		LazyField cloned = clone();
+		cloned.key = newKey;
+		Field f = field;
+		cloned.field = f == null ? null : f.rekey(newKey);
+		return cloned;
+	}
+
+	@Override
+	protected LazyField clone() {
+		try {
+			return (LazyField) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -21,21 +21,25 @@ import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.Model;
 import com.bigcloud.djomo.api.Parser;
 import com.bigcloud.djomo.api.Visitor;
+import com.bigcloud.djomo.internal.FieldToken;
 
 public class MapField implements Field {
 	final Object name;
 	final Object key;
+	final FieldToken token;
 	final Model model;
 
 	public MapField(Object name, Model model) {
 		this.name = name;
 		this.key = name;
+		this.token = FieldToken.of(key);
 		this.model = model;
 	}
 
 	private MapField(Object name, Object key, Model model) {
 		this.name = name;
 		this.key = key;
+		this.token = FieldToken.of(key);
 		this.model = model;
 	}
 
@@ -61,7 +65,7 @@ public class MapField implements Field {
 
 	@Override
 	public void visit(Object source, Visitor visitor) {
-		visitor.visitObjectField(key);
+		token.visit(visitor, key);
 		model.tryVisit(((Map) source).get(name), visitor);
 	}
 
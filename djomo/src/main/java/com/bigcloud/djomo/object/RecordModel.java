@@ -18,7 +18,9 @@ package com.bigcloud.djomo.object;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.Arrays;
@@ -32,35 +34,231 @@ import com.bigcloud.djomo.api.Field;
 import com.bigcloud.djomo.api.ModelContext;
 import com.bigcloud.djomo.object.BeanField.Builder;
 
+/**
+ * Model for java records. Parsed component values are collected in a
+ * {@link Components} maker that keeps primitive components unboxed; the
+ * canonical constructor is adapted once to read its arguments straight from
+ * that maker, so each instance is created with a single exact invocation.
+ * 
+ * @author Alex Vigdor
+ *
+ */
 public class RecordModel<T>
 		extends ObjectMethodsModel<T> {
+	private static final MethodHandle GET_REF;
+	private static final MethodHandle SET_REF;
+	private static final MethodHandle GET_BITS;
+	private static final MethodHandle SET_BITS;
+	private static final MethodHandle GET_DOUBLE;
+	private static final MethodHandle SET_DOUBLE;
+
+	static {
+		Lookup lookup = MethodHandles.lookup();
+		try {
+			GET_REF = lookup.findStatic(RecordModel.class, "getRef",
+					MethodType.methodType(Object.class, Object.class, int.class));
+			SET_REF = lookup.findStatic(RecordModel.class, "setRef",
+					MethodType.methodType(void.class, Object.class, int.class, Object.class));
+			GET_BITS = lookup.findStatic(RecordModel.class, "getBits",
+					MethodType.methodType(long.class, Object.class, int.class));
+			SET_BITS = lookup.findStatic(RecordModel.class, "setBits",
+					MethodType.methodType(void.class, Object.class, int.class, long.class));
+			GET_DOUBLE = lookup.findStatic(RecordModel.class, "getDouble",
+					MethodType.methodType(double.class, Object.class, int.class));
+			SET_DOUBLE = lookup.findStatic(RecordModel.class, "setDouble",
+					MethodType.methodType(void.class, Object.class, int.class, double.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
 	final MethodHandle constructor;
-	final Object[] args;
+	// assigned by layout(), which runs during field initialization in the super
+	// constructor
+	RecordComponent[] components;
+	// slot of each component in either the reference or the primitive array
+	int[] slots;
+	int numRefs;
+	int numPrimitives;
 
 	public RecordModel(Type type, ModelContext context,
 			MethodHandle constructor) throws IllegalAccessException {
 		super(type, context);
-		this.constructor = constructor;
-		this.args = new Object[getType().getRecordComponents().length];
+		this.constructor = adapt(constructor);
+	}
+
+	private void layout() {
+		components = getType().getRecordComponents();
+		slots = new int[components.length];
+		numRefs = 0;
+		numPrimitives = 0;
+		for (int i = 0; i < components.length; i++) {
+			slots[i] = components[i].getType().isPrimitive() ? numPrimitives++ : numRefs++;
+		}
+	}
+
+	/**
+	 * Turn the canonical constructor into a (Object)Object handle that pulls each
+	 * argument from a Components maker
+	 */
+	private MethodHandle adapt(MethodHandle constructor) {
+		MethodHandle[] filters = new MethodHandle[components.length];
+		for (int i = 0; i < components.length; i++) {
+			filters[i] = MethodHandles.explicitCastArguments(getter(components[i].getType(), slots[i]),
+					MethodType.methodType(constructor.type().parameterType(i), Object.class));
+		}
+		MethodHandle filtered = MethodHandles.filterArguments(constructor, 0, filters);
+		return MethodHandles
+				.permuteArguments(filtered, MethodType.methodType(filtered.type().returnType(), Object.class),
+						new int[components.length])
+				.asType(MethodType.methodType(Object.class, Object.class));
+	}
+
+	private static MethodHandle getter(Class<?> type, int slot) {
+		if (!type.isPrimitive()) {
+			return MethodHandles.insertArguments(GET_REF, 1, slot);
+		}
+		if (type == double.class || type == float.class) {
+			return MethodHandles.insertArguments(GET_DOUBLE, 1, slot);
+		}
+		return MethodHandles.insertArguments(GET_BITS, 1, slot);
+	}
+
+	private static MethodHandle setter(Class<?> type, int slot) {
+		MethodHandle setter;
+		if (!type.isPrimitive()) {
+			setter = MethodHandles.insertArguments(SET_REF, 1, slot);
+		} else if (type == double.class || type == float.class) {
+			setter = MethodHandles.insertArguments(SET_DOUBLE, 1, slot);
+		} else {
+			setter = MethodHandles.insertArguments(SET_BITS, 1, slot);
+		}
+		return MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, type));
 	}
 
 	@Override
 	public Object maker() {
-		return newArgs();
+		return new Components(numRefs, numPrimitives);
+	}
+
+	@SuppressWarnings("unchecked")
+	public T create(Object maker) {
+		Components c = (Components) maker;
+		if (!c.complete()) {
+			throw new RuntimeException("Unable to create instance of " + getType().getName()
+					+ ", missing primitive component " + missing(c));
+		}
+		try {
+			return (T) (Object) constructor.invokeExact(maker);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException("Unable to create instance of " + getType().getName(), e);
+		}
 	}
 
+	/**
+	 * @return an empty array of component values in canonical constructor order
+	 * @deprecated record makers are no longer argument arrays; use
+	 *             {@link #maker()}
+	 */
+	@Deprecated
 	public Object[] newArgs() {
-		return args.clone();
+		return new Object[components.length];
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Create a record from component values in canonical constructor order; nulls
+	 * for primitive components are reported as missing
+	 * 
+	 * @deprecated use {@link #maker()} and {@link #create(Object)}
+	 */
+	@Deprecated
 	public T create(Object[] args) {
+		Object maker = maker();
 		try {
-			return (T) constructor.invokeWithArguments(args);
+			for (int i = 0; i < components.length; i++) {
+				Class<?> type = components[i].getType();
+				if (args[i] != null || !type.isPrimitive()) {
+					setter(type, slots[i]).invoke(maker, args[i]);
+				}
+			}
 		} catch (Throwable e) {
 			throw new RuntimeException(
 					"Unable to create instance of " + getType().getName() + " with " + Arrays.toString(args), e);
 		}
+		return create(maker);
+	}
+
+	private String missing(Components c) {
+		for (int i = 0; i < components.length; i++) {
+			if (components[i].getType().isPrimitive() && !c.isSet(slots[i])) {
+				return components[i].getName();
+			}
+		}
+		return null;
+	}
+
+	private static Object getRef(Object components, int slot) {
+		return ((Components) components).refs[slot];
+	}
+
+	private static void setRef(Object components, int slot, Object value) {
+		((Components) components).refs[slot] = value;
+	}
+
+	private static long getBits(Object components, int slot) {
+		return ((Components) components).primitives[slot];
+	}
+
+	private static void setBits(Object components, int slot, long value) {
+		((Components) components).setPrimitive(slot, value);
+	}
+
+	private static double getDouble(Object components, int slot) {
+		return Double.longBitsToDouble(((Components) components).primitives[slot]);
+	}
+
+	private static void setDouble(Object components, int slot, double value) {
+		((Components) components).setPrimitive(slot, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Maker for records; reference components are held in an Object[], primitive
+	 * components as raw bits in a long[] that is followed by a bitmask of which
+	 * primitives have been assigned, as a record cannot be constructed without
+	 * them.
+	 */
+	static final class Components {
+		final Object[] refs;
+		final long[] primitives;
+		final int numPrimitives;
+
+		Components(int numRefs, int numPrimitives) {
+			this.refs = new Object[numRefs];
+			this.primitives = new long[numPrimitives + ((numPrimitives + 63) >>> 6)];
+			this.numPrimitives = numPrimitives;
+		}
+
+		void setPrimitive(int slot, long value) {
+			primitives[slot] = value;
+			primitives[numPrimitives + (slot >>> 6)] |= 1L << slot;
+		}
+
+		boolean isSet(int slot) {
+			return (primitives[numPrimitives + (slot >>> 6)] & (1L << slot)) != 0;
+		}
+
+		boolean complete() {
+			int remaining = numPrimitives;
+			for (int i = numPrimitives; i < primitives.length; i++, remaining -= 64) {
+				long expected = remaining >= 64 ? -1L : (1L << remaining) - 1;
+				if (primitives[i] != expected) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 
 	@Override
@@ -70,7 +268,8 @@ public class RecordModel<T>
 		Function<String, BeanField.Builder> fieldLookup = (name) -> fields.computeIfAbsent(name,
 				n -> BeanField.builder().name(n));
 		processMethods(lookup, context, fieldLookup);
-		var rcs = type.getRecordComponents();
+		layout();
+		var rcs = components;
 		for(int i=0; i<rcs.length;i++) {
 			var rc = rcs[i];
 			var ac = rc.getAccessor();
@@ -78,8 +277,8 @@ public class RecordModel<T>
 				accessor(lookup, context, fieldLookup.apply(rc.getName()), ac, typeArgs);
 			}
 			// our mutator is an array accessor prebound to the right index
-			mutator(lookup, context, fieldLookup.apply(rc.getName()),
-					MethodHandles.insertArguments(MethodHandles.arrayElementSetter(Object[].class),1,i), rc.getGenericType(), typeArgs);
+			mutator(lookup, context, fieldLookup.apply(rc.getName()), setter(rc.getType(), slots[i]),
+					rc.getGenericType(), typeArgs);
 		}
 		return fields.entrySet().stream()
 				.map(e -> new AbstractMap.SimpleEntry<String, Field>(e.getKey(), e.getValue().build()))
@@ -94,8 +293,7 @@ public class RecordModel<T>
 
 	@Override
 	public T make(Object maker) {
-		// TODO Auto-generated method stub
-		return create((Object[])maker);
+		return create(maker);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.io.BufferPool;
+import com.bigcloud.djomo.io.StripedBufferPool;
+import com.bigcloud.djomo.io.ThreadLocalBufferPool;
+
+public class BufferPoolTest {
+
+	/**
+	 * Tracks buffers handed out and returned, to check that every borrowed buffer
+	 * goes back
+	 */
+	static class CountingPool implements BufferPool {
+		final BufferPool pool;
+		final AtomicInteger outstanding = new AtomicInteger();
+		final AtomicInteger largest = new AtomicInteger();
+
+		CountingPool(BufferPool pool) {
+			this.pool = pool;
+		}
+
+		@Override
+		public char[] chars(int minLength) {
+			outstanding.incrementAndGet();
+			largest.accumulateAndGet(minLength, Math::max);
+			return pool.chars(minLength);
+		}
+
+		@Override
+		public byte[] bytes(int minLength) {
+			outstanding.incrementAndGet();
+			return pool.bytes(minLength);
+		}
+
+		@Override
+		public void release(char[] buffer) {
+			outstanding.decrementAndGet();
+			pool.release(buffer);
+		}
+
+		@Override
+		public void release(byte[] buffer) {
+			outstanding.decrementAndGet();
+			pool.release(buffer);
+		}
+	}
+
+	@Test
+	public void testSizeClasses() {
+		assertEquals(BufferPool.requestClass(1), 0);
+		assertEquals(BufferPool.requestClass(4096), 0);
+		assertEquals(BufferPool.requestClass(4097), 1);
+		assertEquals(BufferPool.requestClass(BufferPool.MAX_SIZE), BufferPool.SIZE_CLASSES - 1);
+		assertEquals(BufferPool.requestClass(BufferPool.MAX_SIZE + 1), -1);
+		assertEquals(BufferPool.releaseClass(8192), 1);
+		assertEquals(BufferPool.releaseClass(8191), -1);
+		assertEquals(BufferPool.releaseClass(2048), -1);
+		assertEquals(BufferPool.releaseClass(BufferPool.MAX_SIZE * 2), -1);
+		for (BufferPool pool : new BufferPool[] { new ThreadLocalBufferPool(), new StripedBufferPool() }) {
+			assertEquals(pool.chars(10).length, 4096);
+			assertEquals(pool.bytes(5000).length, 8192);
+			assertEquals(pool.chars(BufferPool.MAX_SIZE + 3).length, BufferPool.MAX_SIZE + 3);
+		}
+	}
+
+	private void assertReuse(BufferPool pool) {
+		char[] c = pool.chars(8192);
+		byte[] b = pool.bytes(8192);
+		pool.release(c);
+		pool.release(b);
+		assertSame(pool.chars(8000), c);
+		assertSame(pool.bytes(8000), b);
+		// odd sizes are never pooled
+		char[] odd = new char[5000];
+		pool.release(odd);
+		assertNotSame(pool.chars(5000), odd);
+	}
+
+	@Test
+	public void testReuse() {
+		assertReuse(new ThreadLocalBufferPool());
+		assertReuse(new StripedBufferPool(1, 2));
+	}
+
+	@Test
+	public void testBounded() {
+		for (BufferPool pool : new BufferPool[] { new ThreadLocalBufferPool(2), new StripedBufferPool(1, 2) }) {
+			List<char[]> taken = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				taken.add(pool.chars(4096));
+			}
+			taken.forEach(pool::release);
+			// only two are kept
+			List<char[]> again = List.of(pool.chars(4096), pool.chars(4096), pool.chars(4096));
+			assertEquals(again.stream().filter(c -> taken.stream().anyMatch(t -> t == c)).count(), 2);
+		}
+	}
+
+	@Test
+	public void testStripedSharedAcrossThreads() throws Exception {
+		StripedBufferPool pool = new StripedBufferPool(1, 4);
+		char[] c = pool.chars(4096);
+		pool.release(c);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			assertSame(executor.submit(() -> pool.chars(4096)).get(), c);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testJsonReturnsBuffers() throws IOException {
+		CountingPool pool = new CountingPool(new StripedBufferPool());
+		Json json = new Json(Models.builder().bufferPool(pool).build());
+		assertSame(json.models().bufferPool(), pool);
+		String longString = "x".repeat(100000);
+		Map<String, Object> data = Map.of("long", longString, "list", List.of(1, 2, 3));
+		String written = json.toString(data);
+		json.toString(data, "  ");
+		assertEquals(json.fromString(written), data);
+		assertEquals(json.read(new StringReader(written)), data);
+		byte[] bytes = written.getBytes(StandardCharsets.UTF_8);
+		assertEquals(json.read(new ByteArrayInputStream(bytes)), data);
+		assertEquals(json.read(new ByteArrayInputStream(bytes), new LinkedHashMap<>()), data);
+		var baos = new ByteArrayOutputStream();
+		json.write(data, baos);
+		assertEquals(baos.toByteArray(), bytes);
+		assertEquals(pool.outstanding.get(), 0);
+		// the parse buffer grew through the pool to hold the long string
+		assertTrue(pool.largest.get() >= 100000);
+	}
+
+	@Test
+	public void testConcurrentUse() throws Exception {
+		Json json = new Json(Models.builder().bufferPool(new StripedBufferPool(2, 2)).build());
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 32; t++) {
+				final int n = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 200; i++) {
+						Map<String, Object> data = Map.of("thread", n, "i", i, "text", "y".repeat(i * 50));
+						String written = json.toString(data);
+						assertEquals(json.fromString(written), data);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.internal.ByteScanner;
+
+public class ByteScannerTest {
+	@Test
+	public void testScanString() {
+		for (byte stop : new byte[] { '"', '\\', (byte) 0xC3 }) {
+			for (int len = 0; len < 40; len++) {
+				for (int pos = 0; pos <= len; pos++) {
+					byte[] buf = new byte[len];
+					Arrays.fill(buf, (byte) 'a');
+					if (pos < len) {
+						buf[pos] = stop;
+					}
+					Assert.assertEquals(ByteScanner.scanString(buf, 0, len), pos);
+					if (len > 3 && pos > 3) {
+						Assert.assertEquals(ByteScanner.scanString(buf, 3, len), pos);
+					}
+				}
+			}
+		}
+		// zero bytes and near misses must not register as matches
+		byte[] buf = { 0, 0x21, 0x23, 0x5B, 0x5D, 0x7F, 0x01, 0x02, 0, '"' };
+		Assert.assertEquals(ByteScanner.scanString(buf, 0, buf.length), 9);
+		// the lowest match wins even when several share a word
+		buf = "ab\\c\"défghijk".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(ByteScanner.scanString(buf, 0, buf.length), 2);
+	}
+
+	@Test
+	public void testSkipSpaces() {
+		for (int len = 0; len < 40; len++) {
+			for (int pos = 0; pos <= len; pos++) {
+				byte[] buf = new byte[len];
+				Arrays.fill(buf, (byte) ' ');
+				if (pos < len) {
+					buf[pos] = '\t';
+				}
+				Assert.assertEquals(ByteScanner.skipSpaces(buf, 0, len), pos);
+			}
+		}
+	}
+
+	@Test
+	public void testLongStrings() throws IOException {
+		Json json = new Json();
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			builder.append((char) ('A' + i % 26));
+			if (i % 97 == 0) {
+				builder.append("\"\\/ü中");
+			}
+		}
+		String text = builder.toString();
+		String doc = "{\n                \"blob\" :        " + json.toString(text) + "   ,\n    \"n\": 1   }";
+		var result = json.read(doc.getBytes(StandardCharsets.UTF_8));
+		Assert.assertEquals(result, json.fromString(doc));
+		Assert.assertEquals(((Map<?, ?>) result).get("blob"), text);
+	}
+}
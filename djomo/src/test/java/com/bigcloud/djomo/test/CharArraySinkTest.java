@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.io.CharArraySink;
+
+public class CharArraySinkTest {
+
+	private CharArraySink sink(String content, int chunk) {
+		CharArraySink sink = new CharArraySink();
+		char[] buffer = new char[chunk];
+		sink.buffer(buffer);
+		int p = 0;
+		while (content.length() - p > chunk) {
+			content.getChars(p, p + chunk, buffer, 0);
+			sink.next(chunk);
+			p += chunk;
+		}
+		int rem = content.length() - p;
+		content.getChars(p, content.length(), buffer, 0);
+		sink.last(rem);
+		return sink;
+	}
+
+	private void assertContent(String content, int chunk) {
+		CharArraySink sink = sink(content, chunk);
+		assertEquals(sink.length(), content.length());
+		assertEquals(sink.toString(), content);
+		assertEquals(sink.toBytes(), content.getBytes(StandardCharsets.UTF_8));
+		assertEquals(sink.toByteBuffer().array(), content.getBytes(StandardCharsets.UTF_8));
+		sink.release();
+		assertEquals(sink.toString(), "");
+		assertEquals(sink.length(), 0);
+	}
+
+	@Test
+	public void testSizes() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			builder.append((char) ('a' + (i % 26)));
+		}
+		String content = builder.toString();
+		for (int len : new int[] { 0, 1, 4095, 4096, 4097, 8191, 8192, 8193, 50000, 100000 }) {
+			assertContent(content.substring(0, len), 4096);
+			assertContent(content.substring(0, len), 1000);
+		}
+	}
+
+	@Test
+	public void testSurrogatesAcrossSegments() {
+		StringBuilder builder = new StringBuilder();
+		// push pairs across every segment boundary by varying the offset
+		for (int i = 0; i < 20000; i++) {
+			builder.append(i % 7 == 0 ? "😀" : i % 5 == 0 ? "é" : i % 3 == 0 ? "中" : "x");
+		}
+		String content = builder.toString();
+		assertContent(content, 4096);
+		assertContent("x" + content, 4096);
+		assertContent(content, 333);
+		// unpaired surrogates become '?', as with String.getBytes
+		assertContent("\ud83d", 10);
+		assertContent("a\ude00b\ud83dc", 10);
+		assertContent("x".repeat(8191) + "\ud83d", 4096);
+	}
+
+	@Test
+	public void testReuse() {
+		List<String> contents = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			contents.add(String.valueOf((char) ('a' + i)).repeat(30000 + i));
+		}
+		CharArraySink sink = new CharArraySink();
+		for (String content : contents) {
+			char[] buffer = new char[4096];
+			sink.buffer(buffer);
+			int p = 0;
+			while (content.length() - p > 4096) {
+				content.getChars(p, p + 4096, buffer, 0);
+				sink.next(4096);
+				p += 4096;
+			}
+			content.getChars(p, content.length(), buffer, 0);
+			sink.last(content.length() - p);
+			assertEquals(sink.toString(), content);
+			sink.release();
+		}
+	}
+
+	@Test
+	public void testLargeToString() throws Exception {
+		Json json = new Json();
+		List<String> data = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			data.add("item " + i);
+		}
+		String written = json.toString(data);
+		assertEquals(json.fromString(written), data);
+		assertEquals(json.fromString(json.toString(data, "  ")), data);
+	}
+}
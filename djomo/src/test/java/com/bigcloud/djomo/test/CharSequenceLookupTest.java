@@ -15,6 +15,7 @@
  *******************************************************************************/
 package com.bigcloud.djomo.test;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -53,13 +54,34 @@ public class CharSequenceLookupTest {
 		Assert.assertEquals(lookup.get("missing"), null);
 	}
 
-	@Test(expectedExceptions = IllegalArgumentException.class)
-	public void testBadLookupSet() {
-		new CharSequenceLookup<String>(Map.of("\nbad", "test"));
+	@Test
+	public void testFullCharRange() {
+		List<String> testWords = List.of("\nbad", "bad", "über", "überall", "ü", "中文", "中", "\uD83D\uDE00", "",
+				"\u0000", "\uFFFF\u007F");
+		CharSequenceLookup<String> lookup = new CharSequenceLookup<String>(
+				testWords.stream().collect(Collectors.toMap(Function.identity(), Function.identity())));
+		testWords.forEach(word -> {
+			Assert.assertEquals(lookup.get(word), word);
+			CharArraySequence seq = new Buffer(word.toCharArray()).charArraySequence;
+			seq.start = 0;
+			seq.len = word.length();
+			Assert.assertEquals(lookup.get(seq), word);
+		});
+		Assert.assertEquals(lookup.get("\nba"), null);
+		Assert.assertEquals(lookup.get("überal"), null);
+		Assert.assertEquals(lookup.get("\uD83D"), null);
+		Assert.assertEquals(new CharSequenceLookup<String>(Map.of("bad", "test", "test", "bad")).get("\nbad"), null);
 	}
 
-	@Test(expectedExceptions = IllegalArgumentException.class)
-	public void testBadLookupGet() {
-		new CharSequenceLookup<String>(Map.of("bad", "test", "test", "bad")).get("\nbad");
+	@Test
+	public void testWideBranching() {
+		Map<CharSequence, Integer> data = new HashMap<>();
+		for (int i = 0; i < 200; i++) {
+			data.put("k" + (char) (i * 300) + i, i);
+		}
+		CharSequenceLookup<Integer> lookup = new CharSequenceLookup<>(data);
+		data.forEach((k, v) -> Assert.assertEquals(lookup.get(k), v));
+		Assert.assertEquals(lookup.get("k"), null);
+		Assert.assertEquals(lookup.get("k" + (char) 1 + "0"), null);
 	}
 }
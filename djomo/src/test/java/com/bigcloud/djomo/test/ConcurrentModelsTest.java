@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ModelContext;
+import com.bigcloud.djomo.api.ModelFactory;
+
+public class ConcurrentModelsTest {
+	static final int THREADS = 16;
+
+	public static record Slow(String name, Slower slower) {
+	}
+
+	public static record Slower(int id) {
+	}
+
+	public static record Broken(String name) {
+	}
+
+	/**
+	 * Counts lookups of a type and slows them down to widen the race; always
+	 * defers to the default factories
+	 */
+	static class CountingFactory implements ModelFactory {
+		final Class<?> type;
+		final AtomicInteger count = new AtomicInteger();
+
+		CountingFactory(Class<?> type) {
+			this.type = type;
+		}
+
+		@Override
+		public Model<?> create(Type lookupType, ModelContext context) {
+			if (lookupType == type) {
+				count.incrementAndGet();
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (type == Broken.class) {
+					throw new IllegalStateException("broken");
+				}
+			}
+			return null;
+		}
+	}
+
+	private List<Future<Model<?>>> race(Models models, Class<?> type) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Model<?>>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return models.get(type);
+				}));
+			}
+			start.countDown();
+			for (var result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+				}
+			}
+			return results;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSingleBuild() throws Exception {
+		CountingFactory slow = new CountingFactory(Slow.class);
+		CountingFactory slower = new CountingFactory(Slower.class);
+		Models models = new Models(slow, slower);
+		var results = race(models, Slow.class);
+		Model<?> model = results.get(0).get();
+		for (var result : results) {
+			Assert.assertSame(result.get(), model);
+		}
+		Assert.assertEquals(slow.count.get(), 1);
+		Assert.assertEquals(slower.count.get(), 1);
+		Assert.assertSame(models.get(Slow.class), model);
+		Assert.assertEquals(slow.count.get(), 1);
+	}
+
+	@Test
+	public void testFailedBuild() throws Exception {
+		CountingFactory broken = new CountingFactory(Broken.class);
+		Models models = new Models(broken);
+		var results = race(models, Broken.class);
+		for (var result : results) {
+			var e = Assert.expectThrows(ExecutionException.class, result::get);
+			Assert.assertEquals(e.getCause().getClass(), IllegalStateException.class);
+		}
+		Assert.assertEquals(broken.count.get(), 1);
+		// failures are not cached
+		Assert.expectThrows(IllegalStateException.class, () -> models.get(Broken.class));
+		Assert.assertEquals(broken.count.get(), 2);
+	}
+
+	@Test
+	public void testPreload() throws Exception {
+		CountingFactory slow = new CountingFactory(Slow.class);
+		CountingFactory slower = new CountingFactory(Slower.class);
+		Models models = new Models(slow, slower);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			var preload = models.preload(executor, Slow.class, Broken.class);
+			// a request arriving during preload shares the in-flight build
+			Model<?> model = models.get(Slow.class);
+			preload.get();
+			Assert.assertSame(models.get(Slow.class), model);
+			Assert.assertEquals(slow.count.get(), 1);
+			Assert.assertEquals(slower.count.get(), 1);
+
+			var failed = new Models(new CountingFactory(Broken.class)).preload(executor, Slow.class, Broken.class);
+			var e = Assert.expectThrows(ExecutionException.class, failed::get);
+			Assert.assertEquals(e.getCause().getClass(), IllegalStateException.class);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.error.GetFieldException;
+import com.bigcloud.djomo.object.FieldAccessors;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+public class FieldAccessorsTest {
+	Json json = new Json();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Primitives {
+		int i;
+		long l;
+		double d;
+		float f;
+		boolean b;
+		short s;
+		String str;
+		List<Integer> list;
+	}
+
+	@Data
+	@Builder
+	public static class Built {
+		int count;
+		String label;
+	}
+
+	public record Point(int x, double y, String label) {
+	}
+
+	public static class Faulty {
+		public int getValue() {
+			throw new IllegalStateException("broken");
+		}
+	}
+
+	public static class Exposed {
+		public int value = 5;
+	}
+
+	@Test
+	public void testGenerated() throws Exception {
+		var lookup = MethodHandles.lookup();
+		var getter = FieldAccessors.intGetter(lookup.unreflect(Primitives.class.getMethod("getI")));
+		var setter = FieldAccessors.intSetter(lookup.unreflect(Primitives.class.getMethod("setI", int.class)));
+		var boxed = FieldAccessors.getter(lookup.unreflect(Primitives.class.getMethod("getD")));
+		assertTrue(FieldAccessors.isGenerated(getter));
+		assertTrue(FieldAccessors.isGenerated(setter));
+		assertTrue(FieldAccessors.isGenerated(boxed));
+		Primitives p = new Primitives();
+		setter.accept(p, 42);
+		p.setD(1.5);
+		assertEquals(getter.applyAsInt(p), 42);
+		assertEquals(boxed.apply(p), 1.5);
+		// field handles cannot be generated, and fall back to invoking the handle
+		var fieldGetter = FieldAccessors.intGetter(lookup.unreflectGetter(Exposed.class.getField("value")));
+		assertFalse(FieldAccessors.isGenerated(fieldGetter));
+		assertEquals(fieldGetter.applyAsInt(new Exposed()), 5);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Primitives p = new Primitives(1, 2L, 3.5, 4.5f, true, (short) 6, "seven", List.of(8, 9));
+		String str = json.toString(p);
+		assertEquals(json.fromString(str, Primitives.class), p);
+		Built b = Built.builder().count(3).label("three").build();
+		assertEquals(json.fromString(json.toString(b), Built.class), b);
+		Point pt = new Point(1, 2.5, "pt");
+		assertEquals(json.fromString(json.toString(pt), Point.class), pt);
+		assertEquals(json.fromString(json.toString(new Exposed()), Exposed.class).value, 5);
+		var model = (ObjectModel<Primitives>) json.models().get(Primitives.class);
+		assertEquals(model.getField("f").get(p), 4.5f);
+		model.getField("l").set(p, 10L);
+		assertEquals(p.getL(), 10L);
+	}
+
+	@Test
+	public void testChildLoader() throws Exception {
+		// a copy of the class that the library's class loader cannot see by name
+		ClassLoader child = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				if (!name.equals(Primitives.class.getName())) {
+					return super.loadClass(name, resolve);
+				}
+				synchronized (getClassLoadingLock(name)) {
+					Class<?> c = findLoadedClass(name);
+					if (c == null) {
+						try (var in = FieldAccessorsTest.class.getResourceAsStream("FieldAccessorsTest$Primitives.class")) {
+							byte[] b = in.readAllBytes();
+							c = defineClass(name, b, 0, b.length);
+						} catch (IOException e) {
+							throw new ClassNotFoundException(name, e);
+						}
+					}
+					return c;
+				}
+			}
+		};
+		Class<?> copy = child.loadClass(Primitives.class.getName());
+		assertTrue(copy != Primitives.class);
+		var getter = FieldAccessors.intGetter(MethodHandles.publicLookup().unreflect(copy.getMethod("getI")));
+		assertFalse(FieldAccessors.isGenerated(getter));
+		Object instance = copy.getConstructor().newInstance();
+		copy.getMethod("setI", int.class).invoke(instance, 3);
+		assertEquals(getter.applyAsInt(instance), 3);
+		assertTrue(json.toString(instance).contains("\"i\":3"));
+	}
+
+	@Test
+	public void testErrors() {
+		var ex = expectThrows(GetFieldException.class, () -> json.toString(new Faulty()));
+		assertTrue(ex.getCause() instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.annotation.Order;
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.filter.parsers.RenameParser;
+import com.bigcloud.djomo.internal.FieldOrder;
+
+public class FieldOrderTest {
+	Json json = new Json();
+
+	@Order({ "id", "name", "tags", "price", "café" })
+	public static record Item(int id, String name, List<String> tags, double price, String café) {
+	}
+
+	public static record Cart(String owner, List<Item> items) {
+	}
+
+	private <T> void assertParses(String input, Class<T> type, T expected) throws IOException {
+		Assert.assertEquals(json.fromString(input, type), expected);
+		Assert.assertEquals(json.read(new StringReader(input), type), expected);
+		Assert.assertEquals(json.read(input.getBytes(StandardCharsets.UTF_8), type), expected);
+	}
+
+	@Test
+	public void testWriteOrder() throws IOException {
+		Cart cart = new Cart("me", List.of(new Item(1, "a", List.of("x"), 1.5, "q"), new Item(2, "b", List.of(), 2.5, null)));
+		String out = json.toString(cart);
+		assertParses(out, Cart.class, cart);
+	}
+
+	@Test
+	public void testOtherOrders() throws IOException {
+		Item item = new Item(3, "c", List.of("y", "z"), 9.0, null);
+		// reversed
+		assertParses("{\"price\":9.0,\"tags\":[\"y\",\"z\"],\"name\":\"c\",\"id\":3}", Item.class, item);
+		// gaps, unknown keys and a key repeated
+		assertParses("{\"id\":1,\"price\":9.0,\"extra\":{\"id\":4},\"id\":3,\"name\":\"c\",\"tags\":[\"y\",\"z\"]}",
+				Item.class, item);
+		// whitespace around the colon, a prefix of a known key and a known key with a suffix
+		assertParses(
+				"{ \"id\" : 3 , \"nam\":1, \"name\"\n:\t\"c\", \"namex\":2, \"tags\" :[\"y\",\"z\"],\"price\":9.0}",
+				Item.class, item);
+		// non-ASCII key, in the predicted position and written with an escape
+		item = new Item(3, "c", List.of("y", "z"), 9.0, "w");
+		assertParses("{\"id\":3,\"name\":\"c\",\"tags\":[\"y\",\"z\"],\"price\":9.0,\"café\":\"w\"}", Item.class, item);
+		assertParses("{\"id\":3,\"name\":\"c\",\"tags\":[\"y\",\"z\"],\"price\":9.0,\"caf\\u00e9\":\"w\"}", Item.class,
+				item);
+	}
+
+	@Test
+	public void testFiltered() throws IOException {
+		Item item = new Item(5, "e", List.of(), 1.0, null);
+		Assert.assertEquals(json.fromString("{\"id\":5,\"title\":\"e\",\"tags\":[],\"price\":1.0}", Item.class,
+				new RenameParser(Item.class, "title", "name")), item);
+	}
+
+	@Test
+	public void testMatches() {
+		ObjectModel<Item> model = json.models().get(Item.class);
+		Field[] fields = model.fields().toArray(new Field[0]);
+		fields[4] = fields[4].rekey("é\"x");
+		FieldOrder order = new FieldOrder(fields);
+		Assert.assertEquals(order.size(), 5);
+		Assert.assertEquals(order.field(1).key(), "name");
+		byte[] bytes = "{\"name\":1}".getBytes(StandardCharsets.UTF_8);
+		Assert.assertTrue(order.matches(1, bytes, 1, bytes.length));
+		Assert.assertEquals(order.byteLength(1), 6);
+		Assert.assertFalse(order.matches(1, bytes, 1, 6));
+		Assert.assertFalse(order.matches(0, bytes, 1, bytes.length));
+		char[] chars = "\"é\\\"x\"".toCharArray();
+		Assert.assertTrue(order.matches(4, chars, 0, chars.length));
+		Assert.assertEquals(order.charLength(4), chars.length);
+		Assert.assertEquals(order.byteLength(4), chars.length + 1);
+		Assert.assertEquals(order.indexOf(order.field(2), 4), 2);
+		Assert.assertEquals(order.indexOf(order.field(0), 3), 0);
+		Assert.assertEquals(order.indexOf(null, 0), -1);
+	}
+}
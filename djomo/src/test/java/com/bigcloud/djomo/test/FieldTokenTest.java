@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.api.VisitorFilterFactory;
+import com.bigcloud.djomo.base.BaseVisitorFilter;
+import com.bigcloud.djomo.filter.visitors.BlackHoleVisitor;
+import com.bigcloud.djomo.filter.visitors.OmitNullFieldVisitor;
+import com.bigcloud.djomo.filter.visitors.RenameVisitor;
+import com.bigcloud.djomo.internal.FieldToken;
+
+public class FieldTokenTest {
+	Json json = new Json();
+
+	public record Thing(String name, int count, Thing child) {
+	}
+
+	private String write(Object data, String indent, VisitorFilterFactory... filters) {
+		var baos = new ByteArrayOutputStream();
+		if (indent == null) {
+			json.write(data, baos, filters);
+			String written = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+			assertEquals(json.toString(data, filters), written);
+			return written;
+		}
+		json.write(data, baos, indent, filters);
+		String written = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		assertEquals(json.toString(data, indent, filters), written);
+		return written;
+	}
+
+	@Test
+	public void testEncoding() {
+		FieldToken token = FieldToken.of("a\"b\\c\n\u0001\u2028é中😀");
+		String expected = "\"a\\\"b\\\\c\\n\\u0001\\u2028é中😀\":";
+		assertEquals(new String(token.chars), expected);
+		assertEquals(new String(token.bytes, StandardCharsets.UTF_8), expected);
+		assertEquals(token.toString(), "a\"b\\c\n\u0001\u2028é中😀");
+		assertEquals(FieldToken.of(token), token);
+	}
+
+	@Test
+	public void testNameSemantics() {
+		FieldToken token = FieldToken.of("name");
+		assertTrue(token.equals("name"));
+		assertEquals(token.hashCode(), "name".hashCode());
+		assertEquals(token.length(), 4);
+		assertEquals(token.subSequence(1, 3), "am");
+		assertFalse(token.equals("other"));
+		assertFalse(token.equals(null));
+	}
+
+	@Test
+	public void testBeanFields() throws IOException {
+		Thing thing = new Thing("top", 2, new Thing("bottom", 1, null));
+		assertEquals(write(thing, null), "{\"child\":{\"child\":null,\"count\":1,\"name\":\"bottom\"},\"count\":2,\"name\":\"top\"}");
+		String indented = write(thing, "  ");
+		assertEquals(json.fromString(indented, Thing.class), thing);
+	}
+
+	@Test
+	public void testRenamedFields() throws IOException {
+		Thing thing = new Thing("top", 2, new Thing("bottom", 1, null));
+		VisitorFilterFactory rename = () -> new RenameVisitor(Thing.class, "name", "näme \"quoted\"", "count",
+				"\u2028");
+		VisitorFilterFactory omit = OmitNullFieldVisitor::new;
+		assertEquals(write(thing, null, rename, omit),
+				"{\"child\":{\"\\u2028\":1,\"näme \\\"quoted\\\"\":\"bottom\"},\"\\u2028\":2,\"näme \\\"quoted\\\"\":\"top\"}");
+		assertEquals(write(thing, null, omit, rename),
+				"{\"child\":{\"\\u2028\":1,\"näme \\\"quoted\\\"\":\"bottom\"},\"\\u2028\":2,\"näme \\\"quoted\\\"\":\"top\"}");
+		write(thing, "\t", rename, omit);
+		Map<?, ?> parsed = (Map<?, ?>) json.fromString(write(thing, "\t", omit, rename));
+		assertEquals(parsed.get("näme \"quoted\""), "top");
+		assertEquals(((Map<?, ?>) parsed.get("child")).get("\u2028"), 1);
+	}
+
+	@Test
+	public void testMapKeys() {
+		Map<String, Object> map = Map.of("tab\tkey", List.of(1, 2));
+		assertEquals(write(map, null), "{\"tab\\tkey\":[1,2]}");
+		write(map, "  ");
+	}
+
+	public record Paint(String color, int coats) {
+	}
+
+	public enum Part {
+		color, trim
+	}
+
+	/**
+	 * Renames the color field, relying on the field name being the String key
+	 */
+	static class ColorRename extends BaseVisitorFilter {
+		@Override
+		public void visitObjectField(Object name) {
+			String field = (String) name;
+			super.visitObjectField("color".equals(field) ? "colour" : field);
+		}
+	}
+
+	static class FieldNames extends BaseVisitorFilter {
+		final List<Object> names = new ArrayList<>();
+
+		FieldNames() {
+			super(new BlackHoleVisitor());
+		}
+
+		@Override
+		public void visitObjectField(Object name) {
+			names.add(name);
+		}
+	}
+
+	@Test
+	public void testFiltersSeeKeys() {
+		assertEquals(write(new Paint("red", 2), null, ColorRename::new), "{\"coats\":2,\"colour\":\"red\"}");
+		assertEquals(write(new Paint("red", 2), "", ColorRename::new), "{\n\"coats\" : 2,\n\"colour\" : \"red\"\n}");
+		// omitting nulls visits map entries through MapField
+		assertEquals(write(Map.of("color", "blue"), null, OmitNullFieldVisitor::new, ColorRename::new),
+				"{\"colour\":\"blue\"}");
+
+		ObjectModel<Paint> paintModel = json.models().get(Paint.class);
+		ObjectModel<LinkedHashMap<String, String>> mapModel = json.models().get(new StaticType<LinkedHashMap<String, String>>() {
+		});
+		ObjectModel<EnumMap<Part, String>> enumMapModel = json.models()
+				.get(new StaticType<EnumMap<Part, String>>() {
+				});
+		EnumMap<Part, String> parts = new EnumMap<>(Part.class);
+		parts.put(Part.color, "green");
+		FieldNames names = new FieldNames();
+		paintModel.getField("color").visit(new Paint("red", 2), names);
+		mapModel.getField("color").visit(new LinkedHashMap<>(Map.of("color", "blue")), names);
+		enumMapModel.getField("color").visit(parts, names);
+		assertEquals(names.names, List.of("color", "color", Part.color));
+		assertEquals(names.names.get(0).getClass(), String.class);
+		assertEquals(names.names.get(1).getClass(), String.class);
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.filter.visitors.OmitNullFieldVisitor;
+import com.bigcloud.djomo.internal.InlineCache;
+
+public class InlineCacheTest {
+	Models models = new Models();
+	Json json = new Json(models);
+
+	public static interface Shape {
+	}
+
+	public static record Circle(double radius) implements Shape {
+	}
+
+	public static record Square(double side) implements Shape {
+	}
+
+	public static record Line(int length) implements Shape {
+	}
+
+	public static record Drawing(Shape shape, Object label, List<Shape> shapes, List<Object> notes) {
+	}
+
+	@Test
+	public void testClassLookup() {
+		Assert.assertSame(models.get(UUID.class), models.get((Type) UUID.class));
+		Assert.assertSame(models.get(UUID.class), models.get(UUID.class));
+	}
+
+	@Test
+	public void testCache() {
+		InlineCache cache = new InlineCache(models);
+		Class<?>[] types = { String.class, Integer.class, Circle.class, Square.class, Line.class, UUID.class,
+				BigDecimal.class };
+		for (int i = 0; i < 3; i++) {
+			for (Class<?> type : types) {
+				Assert.assertSame(cache.get(type), models.get(type));
+			}
+		}
+		Assert.assertTrue(InlineCache.isPolymorphic(models.get(Object.class)));
+		Assert.assertFalse(InlineCache.isPolymorphic(models.get(Shape.class)));
+		Assert.assertFalse(InlineCache.isPolymorphic(models.get(Circle.class)));
+		Assert.assertFalse(InlineCache.isPolymorphic(models.get(List.class)));
+	}
+
+	@Test
+	public void testPolymorphicWrite() throws IOException {
+		List<Object> notes = List.of("a", 1, 2.5, true, new Circle(1), List.of(3L), new Square(2));
+		Drawing[] drawings = { new Drawing(new Circle(2.5), "circle", List.of(new Line(3), new Square(4)), notes),
+				new Drawing(new Square(1), 7, List.of(new Circle(1), new Line(2)), notes),
+				new Drawing(new Line(9), null, List.of(), List.of(UUID.fromString("8e3b6e1a-4e3c-4a0e-9b55-0d5b0a8f4f00"))),
+				new Drawing(null, new Circle(3), List.of(new Square(5)), List.of()) };
+		String[] expected = {
+				"{\"label\":\"circle\",\"notes\":[\"a\",1,2.5,true,{\"radius\":1.0},[3],{\"side\":2.0}],\"shape\":{\"radius\":2.5},\"shapes\":[{\"length\":3},{\"side\":4.0}]}",
+				"{\"label\":7,\"notes\":[\"a\",1,2.5,true,{\"radius\":1.0},[3],{\"side\":2.0}],\"shape\":{\"side\":1.0},\"shapes\":[{\"radius\":1.0},{\"length\":2}]}",
+				"{\"label\":null,\"notes\":[\"8e3b6e1a-4e3c-4a0e-9b55-0d5b0a8f4f00\"],\"shape\":{\"length\":9},\"shapes\":[]}",
+				"{\"label\":{\"radius\":3.0},\"notes\":[],\"shape\":null,\"shapes\":[{\"side\":5.0}]}" };
+		// repeat so later passes run against warm caches
+		for (int pass = 0; pass < 3; pass++) {
+			for (int i = 0; i < drawings.length; i++) {
+				Assert.assertEquals(json.toString(drawings[i]), expected[i]);
+			}
+		}
+		Assert.assertEquals(json.toString(drawings[3], new OmitNullFieldVisitor()),
+				"{\"label\":{\"radius\":3.0},\"notes\":[],\"shapes\":[{\"side\":5.0}]}");
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.filter.parsers.ExcludeParser;
+
+public class JsonLinesTest {
+	Json json = new Json();
+
+	private List<MutableModel> models(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> MutableModel.builder().name("model ü" + i).count(i).enabled(i % 2 == 0).build())
+				.toList();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		var items = models(1000);
+		var baos = new ByteArrayOutputStream();
+		json.writeLines(items, baos);
+		byte[] bytes = baos.toByteArray();
+		String text = new String(bytes, StandardCharsets.UTF_8);
+		var lines = text.split("\n");
+		assertEquals(lines.length, 1000);
+		assertEquals(lines[7], json.toString(items.get(7)));
+		assertEquals(json.readLines(new ByteArrayInputStream(bytes), MutableModel.class).toList(), items);
+		assertEquals(json.readLines(new StringReader(text), MutableModel.class).toList(), items);
+		assertEquals(json.readLines(bytes, MutableModel.class).toList(), items);
+		assertEquals(json.readLines(bytes, MutableModel.class).parallel().toList(), items);
+
+		var writer = new StringWriter();
+		json.writeLines(items.stream(), writer);
+		assertEquals(writer.toString(), text);
+	}
+
+	@Test
+	public void testParallelBlocks() throws IOException {
+		// enough data for several blocks, with one line longer than a block
+		var items = new ArrayList<>(models(60000));
+		items.set(123, MutableModel.builder().name("x".repeat(1_500_000)).build());
+		var baos = new ByteArrayOutputStream();
+		json.writeLines(items.stream(), baos);
+		byte[] bytes = baos.toByteArray();
+		assertEquals(json.readLinesParallel(new ByteArrayInputStream(bytes), MutableModel.class).toList(), items);
+		assertEquals(json.readLinesParallel(new ByteArrayInputStream(bytes), MutableModel.class)
+				.mapToLong(MutableModel::getCount).sum(), json.readLines(bytes, MutableModel.class).parallel()
+						.mapToLong(MutableModel::getCount).sum());
+		assertEquals(json.readLinesParallel(new ByteArrayInputStream(new byte[0]), MutableModel.class).count(), 0);
+	}
+
+	@Test
+	public void testLenientLines() throws IOException {
+		String text = "\r\n{\"a\":1}\r\n\r\n  {\"a\":2,\"b\":[1,2]}\n[3]\n4\n\"five\"\nnull\n{\"a\":7}";
+		var type = Object.class;
+		var expected = json.readLines(new StringReader(text), type).toList();
+		assertEquals(expected.size(), 7);
+		assertEquals(expected.get(0), Map.of("a", 1));
+		assertEquals(expected.get(3), 4);
+		assertEquals(json.readLines(text.getBytes(StandardCharsets.UTF_8), type).toList(), expected);
+		assertEquals(json.readLines(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), type).toList(),
+				expected);
+	}
+
+	@Test
+	public void testFilters() throws IOException {
+		var items = models(100);
+		var baos = new ByteArrayOutputStream();
+		json.writeLines(items, baos);
+		var filtered = json.readLinesParallel(new ByteArrayInputStream(baos.toByteArray()), MutableModel.class,
+				new ExcludeParser(MutableModel.class, "name")).toList();
+		assertEquals(filtered.size(), 100);
+		filtered.forEach(m -> assertEquals(m.getName(), null));
+		assertEquals(filtered.get(50).getCount(), 50);
+	}
+}
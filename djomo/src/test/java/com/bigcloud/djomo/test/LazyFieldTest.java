@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.api.Field;
+import com.bigcloud.djomo.api.Model;
+import com.bigcloud.djomo.api.ModelContext;
+import com.bigcloud.djomo.api.ModelFactory;
+import com.bigcloud.djomo.api.ObjectModel;
+import com.bigcloud.djomo.filter.visitors.OmitNullFieldVisitor;
+import com.bigcloud.djomo.object.LazyField;
+import com.bigcloud.djomo.test.RecursiveModelTest.RecursiveModel;
+
+public class LazyFieldTest {
+
+	public static record Order(long id, String customer, List<Line> lines, Audit audit) {
+	}
+
+	public static record Line(String sku, int quantity) {
+	}
+
+	public static record Audit(String user, Audit previous) {
+	}
+
+	/**
+	 * Counts lookups of a type, always deferring to the default factories
+	 */
+	static class CountingFactory implements ModelFactory {
+		final Class<?> type;
+		final AtomicInteger count = new AtomicInteger();
+
+		CountingFactory(Class<?> type) {
+			this.type = type;
+		}
+
+		@Override
+		public Model<?> create(Type lookupType, ModelContext context) {
+			if (lookupType == type) {
+				count.incrementAndGet();
+			}
+			return null;
+		}
+	}
+
+	@Test
+	public void testDeferred() throws IOException {
+		CountingFactory audits = new CountingFactory(Audit.class);
+		Models models = Models.builder().factory(audits).lazyFields().build();
+		Json json = new Json(models);
+		ObjectModel<Order> orderModel = models.get(Order.class);
+		Assert.assertTrue(orderModel.getField("audit") instanceof LazyField);
+		Assert.assertFalse(orderModel.getField("id") instanceof LazyField);
+		Assert.assertEquals(audits.count.get(), 0);
+
+		Order order = json.fromString("{\"id\":5,\"customer\":\"abc\",\"lines\":[{\"sku\":\"x1\",\"quantity\":3}]}",
+				Order.class);
+		Assert.assertEquals(order, new Order(5, "abc", List.of(new Line("x1", 3)), null));
+		Assert.assertEquals(audits.count.get(), 0);
+
+		order = new Order(6, "def", List.of(), new Audit("me", new Audit("you", null)));
+		String out = json.toString(order);
+		Assert.assertEquals(out,
+				"{\"audit\":{\"previous\":{\"previous\":null,\"user\":\"you\"},\"user\":\"me\"},\"customer\":\"def\",\"id\":6,\"lines\":[]}");
+		Assert.assertEquals(json.fromString(out, Order.class), order);
+		Assert.assertEquals(audits.count.get(), 1);
+		Assert.assertEquals(json.toString(order, new OmitNullFieldVisitor()),
+				"{\"audit\":{\"previous\":{\"user\":\"you\"},\"user\":\"me\"},\"customer\":\"def\",\"id\":6,\"lines\":[]}");
+	}
+
+	@Test
+	public void testRekey() {
+		Models models = Models.builder().lazyFields().build();
+		ObjectModel<Order> orderModel = models.get(Order.class);
+		Order order = new Order(7, "ghi", List.of(new Line("y2", 1)), null);
+		Field lines = orderModel.getField("lines").rekey("items");
+		Assert.assertEquals(lines.key(), "items");
+		Assert.assertEquals(lines.get(order), order.lines());
+		Field resolved = orderModel.getField("lines");
+		Assert.assertEquals(resolved.get(order), order.lines());
+		Assert.assertEquals(resolved.rekey("entries").key(), "entries");
+		Assert.assertEquals(resolved.key(), "lines");
+	}
+
+	@Test
+	public void testRecursive() throws IOException {
+		Json json = new Json(Models.builder().lazyFields().build());
+		RecursiveModel rm = json.fromString("{\"children\":{\"a\":{\"children\":{\"b\":{\"children\":{}}}}}}",
+				RecursiveModel.class);
+		Assert.assertTrue(rm.getChildren().get("a").getChildren().get("b").getChildren().isEmpty());
+		Assert.assertEquals(json.toString(rm), "{\"children\":{\"a\":{\"children\":{\"b\":{\"children\":{}}}}}}");
+		Assert.assertEquals(json.toString(Map.of("x", rm)),
+				"{\"x\":{\"children\":{\"a\":{\"children\":{\"b\":{\"children\":{}}}}}}}");
+	}
+
+	@Test
+	public void testPreload() {
+		CountingFactory audits = new CountingFactory(Audit.class);
+		Models models = Models.builder().factory(audits).lazyFields().build();
+		models.preload(Order.class).join();
+		Assert.assertEquals(audits.count.get(), 1);
+	}
+}
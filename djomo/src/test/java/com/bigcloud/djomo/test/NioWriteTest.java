@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+
+public class NioWriteTest {
+	Json json = new Json();
+
+	private Object data() {
+		List<Object> list = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Map<String, Object> m = new LinkedHashMap<>();
+			m.put("id", i);
+			m.put("name", "item é中😀 " + i);
+			list.add(m);
+		}
+		return list;
+	}
+
+	private static String read(ByteBuffer buffer) {
+		buffer.flip();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Accepts at most a few bytes per write, completing each asynchronously
+	 */
+	static class TrickleChannel implements AsynchronousByteChannel {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		@Override
+		public Future<Integer> write(ByteBuffer src) {
+			return CompletableFuture.supplyAsync(() -> {
+				int n = Math.min(src.remaining(), 1000);
+				for (int i = 0; i < n; i++) {
+					out.write(src.get());
+				}
+				return n;
+			});
+		}
+
+		@Override
+		public <A> void write(ByteBuffer src, A attachment, CompletionHandler<Integer, ? super A> handler) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <A> void read(ByteBuffer dst, A attachment, CompletionHandler<Integer, ? super A> handler) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Future<Integer> read(ByteBuffer dst) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Test
+	public void testByteBuffers() {
+		Object data = data();
+		String expected = json.toString(data);
+		String indented = json.toString(data, "  ");
+		for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(1 << 20), ByteBuffer.allocateDirect(1 << 20) }) {
+			buffer.put((byte) '[');
+			json.write(data, buffer);
+			buffer.put((byte) ']');
+			assertEquals(read(buffer), "[" + expected + "]");
+			buffer.clear();
+			json.write(data, buffer, "  ");
+			assertEquals(read(buffer), indented);
+		}
+	}
+
+	@Test
+	public void testHeapBufferRegions() {
+		// values of every kind, so each flush path runs near the end of the room
+		List<Object> data = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			data.add(Map.of("n", -1234567890123L * i, "d", i / 7.0, "f", i / 3f, "s", "é中😀\n" + i, "b", i % 2 == 0));
+		}
+		for (String indent : new String[] { null, "  " }) {
+			String expected = indent == null ? json.toString(data) : json.toString(data, indent);
+			int length = expected.getBytes(StandardCharsets.UTF_8).length;
+			for (int room = length; room < length + 40; room++) {
+				// a slice has a non-zero array offset
+				ByteBuffer buffer = ByteBuffer.wrap(new byte[room + 20], 7, room + 6).slice();
+				buffer.put((byte) '[');
+				if (indent == null) {
+					json.write(data, buffer);
+				} else {
+					json.write(data, buffer, indent);
+				}
+				buffer.put((byte) ']');
+				assertEquals(read(buffer), "[" + expected + "]");
+			}
+			ByteBuffer tight = ByteBuffer.allocate(length - 1);
+			if (indent == null) {
+				assertThrows(BufferOverflowException.class, () -> json.write(data, tight));
+			} else {
+				assertThrows(BufferOverflowException.class, () -> json.write(data, tight, indent));
+			}
+		}
+	}
+
+	@Test
+	public void testOverflow() {
+		assertThrows(BufferOverflowException.class, () -> json.write(data(), ByteBuffer.allocateDirect(10000)));
+		ByteBuffer small = ByteBuffer.allocate(3);
+		assertThrows(BufferOverflowException.class, () -> json.write("four", small));
+	}
+
+	@Test
+	public void testChannels() {
+		Object data = data();
+		var baos = new ByteArrayOutputStream();
+		json.write(data, Channels.newChannel(baos));
+		assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), json.toString(data));
+		baos.reset();
+		json.write(data, Channels.newChannel(baos), "\t");
+		assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), json.toString(data, "\t"));
+	}
+
+	@Test
+	public void testAsynchronousChannel() {
+		Object data = data();
+		var channel = new TrickleChannel();
+		json.write(data, channel);
+		assertEquals(new String(channel.out.toByteArray(), StandardCharsets.UTF_8), json.toString(data));
+		channel = new TrickleChannel();
+		json.write(data, channel, " ");
+		assertEquals(new String(channel.out.toByteArray(), StandardCharsets.UTF_8), json.toString(data, " "));
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+import com.bigcloud.djomo.filter.parsers.OmitNullItemParser;
+import com.bigcloud.djomo.internal.StructuralIndex;
+
+public class ParallelReadTest {
+	ForkJoinPool pool = new ForkJoinPool(3);
+	Json sequential = new Json();
+	Json parallel = Json.builder().parallelReads(100, pool).build();
+
+	public record Row(int id, String label, double score, List<String> tags) {
+	}
+
+	public static class Tracked {
+		static final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		int value;
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			threads.add(Thread.currentThread());
+			this.value = value;
+		}
+	}
+
+	@AfterClass
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private static byte[] bytes(String json) {
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private List<Row> rows(int n) {
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			rows.add(new Row(i, i % 10 == 0 ? null : "row [\"" + i + "\"], {é😀}", i / 4.0,
+					i % 3 == 0 ? List.of() : List.of("a" + i, "b,]")));
+		}
+		return rows;
+	}
+
+	@Test
+	public void testIndex() {
+		byte[] data = bytes(" [1, \"a,]\\\"}\", {\"x\": [2, 3]}, [] ] ");
+		StructuralIndex index = StructuralIndex.build(data, 0, data.length);
+		assertNotNull(index);
+		int open = index.entryAt(1);
+		assertEquals(index.position(index.match(open)), data.length - 2);
+		int[] starts = index.elementStarts(open);
+		assertEquals(starts.length, 4);
+		assertEquals(starts[0], 2);
+		int inner = index.entryAt(data.length - 5);
+		assertEquals(index.elementStarts(inner).length, 0);
+		byte[] single = bytes("[ 7 ]");
+		assertEquals(StructuralIndex.build(single, 0, single.length).elementStarts(0), new int[] { 1 });
+		for (String bad : new String[] { "[1, 2", "[1}", "]", "[\"abc]", "{\"a\":[}]" }) {
+			byte[] b = bytes(bad);
+			assertNull(StructuralIndex.build(b, 0, b.length), bad);
+		}
+	}
+
+	@Test
+	public void testTypedLists() throws IOException {
+		for (int n : new int[] { 0, 1, 99, 100, 101, 5000 }) {
+			List<Row> rows = rows(n);
+			byte[] data = bytes(sequential.toString(rows, "  "));
+			assertEquals(parallel.read(data, new StaticType<List<Row>>() {
+			}), rows);
+			assertEquals(Arrays.asList(parallel.read(data, Row[].class)), rows);
+		}
+	}
+
+	@Test
+	public void testNested() throws IOException {
+		Map<String, Object> doc = Map.of("header", Map.of("count", 3000), "rows", rows(3000), "more",
+				List.of(rows(200), rows(5)));
+		byte[] data = bytes(sequential.toString(doc));
+		assertEquals(parallel.read(data), sequential.read(data));
+		assertEquals(parallel.read(data, Map.class), sequential.read(data, Map.class));
+	}
+
+	@Test
+	public void testUsesPool() throws IOException {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 10000; i++) {
+			builder.append(i == 0 ? "" : ",").append("{\"value\":").append(i).append('}');
+		}
+		builder.append(']');
+		Tracked.threads.clear();
+		Tracked[] tracked = parallel.read(bytes(builder.toString()), Tracked[].class);
+		for (int i = 0; i < tracked.length; i++) {
+			assertEquals(tracked[i].value, i);
+		}
+		assertTrue(Tracked.threads.stream().anyMatch(t -> t != Thread.currentThread()));
+	}
+
+	@Test
+	public void testFiltersAndErrors() throws IOException {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			items.add(i % 2 == 0 ? null : "v" + i);
+		}
+		byte[] data = bytes(sequential.toString(items));
+		assertEquals(parallel.read(data, List.class, OmitNullItemParser::new),
+				sequential.read(data, List.class, OmitNullItemParser::new));
+		// unbalanced input falls back to the sequential parser and its errors
+		assertThrows(RuntimeException.class, () -> parallel.read(bytes("[1, 2, 3"), List.class));
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			builder.append(i == 0 ? "" : ",").append(i == 777 ? "\"x\"" : String.valueOf(i));
+		}
+		builder.append(']');
+		assertThrows(RuntimeException.class, () -> parallel.read(bytes(builder.toString()), int[].class));
+	}
+
+	@Test
+	public void testLooseSeparators() throws IOException {
+		// the regular parser reads a missing or trailing comma leniently; a parallel
+		// read must produce the same list rather than drop or misread items
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			builder.append(i == 0 ? "" : ",").append(i == 5 ? "5 999" : String.valueOf(i));
+		}
+		builder.append(']');
+		byte[] data = bytes(builder.toString());
+		List<Integer> expected = sequential.read(data, new StaticType<List<Integer>>() {
+		});
+		assertEquals(expected.size(), 101);
+		assertEquals(parallel.read(data, new StaticType<List<Integer>>() {
+		}), expected);
+		assertEquals(parallel.read(data, int[].class), sequential.read(data, int[].class));
+		assertEquals(parallel.read(data), sequential.read(data));
+
+		Json eager = Json.builder().parallelReads(2, pool).build();
+		for (String loose : new String[] { "[1,2,3,4,5,6,]", "[1,,2,3,4,5,6]", "[1 2,3,4,5,6]" }) {
+			byte[] b = bytes(loose);
+			assertEquals(eager.read(b, int[].class), sequential.read(b, int[].class), loose);
+			assertEquals(eager.read(b), sequential.read(b), loose);
+		}
+	}
+}
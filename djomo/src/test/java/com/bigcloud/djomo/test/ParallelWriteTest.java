@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.Models;
+import com.bigcloud.djomo.filter.visitors.OmitNullFieldVisitor;
+import com.bigcloud.djomo.io.StripedBufferPool;
+
+public class ParallelWriteTest {
+	ForkJoinPool pool = new ForkJoinPool(3);
+	Json sequential = new Json();
+	Json parallel = Json.builder().parallelWrites(1000, pool).build();
+
+	public record Row(int id, String label, double score, List<String> tags, int[] counts) {
+	}
+
+	public static class Bomb {
+		public String getValue() {
+			throw new IllegalStateException("boom");
+		}
+	}
+
+	public static class ThreadTracker {
+		static final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+		public int getValue() {
+			threads.add(Thread.currentThread());
+			return 1;
+		}
+	}
+
+	@AfterClass
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private List<Row> rows(int n) {
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			rows.add(new Row(i, i % 10 == 0 ? null : "row \"" + i + "\" é😀", i / 7.0,
+					i % 3 == 0 ? List.of() : List.of("a" + i, "b"), new int[] { i, -i }));
+		}
+		return rows;
+	}
+
+	private void assertIdentical(Object data) {
+		String expected = sequential.toString(data);
+		assertEquals(parallel.toString(data), expected);
+		var baos = new ByteArrayOutputStream();
+		parallel.write(data, baos);
+		assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), expected);
+		var writer = new StringWriter();
+		parallel.write(data, writer);
+		assertEquals(writer.toString(), expected);
+		assertEquals(parallel.toString(data, "  "), sequential.toString(data, "  "));
+	}
+
+	@Test
+	public void testLists() {
+		for (int n : new int[] { 0, 1, 999, 1000, 1001, 4096, 50000 }) {
+			assertIdentical(rows(n));
+		}
+		assertIdentical(Map.of("rows", rows(20000), "more", List.of(rows(3000), rows(10))));
+		assertIdentical(new LinkedList<>(rows(5000)));
+	}
+
+	@Test
+	public void testArrays() {
+		Object[] objects = rows(12345).toArray();
+		assertIdentical(objects);
+		long[] longs = new long[100000];
+		for (int i = 0; i < longs.length; i++) {
+			longs[i] = (long) i * i * 31;
+		}
+		assertIdentical(longs);
+		assertIdentical(rows(3000).toArray(new Row[0]));
+	}
+
+	@Test
+	public void testUsesPool() {
+		List<ThreadTracker> items = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			items.add(new ThreadTracker());
+		}
+		ThreadTracker.threads.clear();
+		parallel.toString(items);
+		assertTrue(ThreadTracker.threads.stream().anyMatch(t -> t != Thread.currentThread()));
+		ThreadTracker.threads.clear();
+		sequential.toString(items);
+		assertEquals(ThreadTracker.threads, Set.of(Thread.currentThread()));
+	}
+
+	@Test
+	public void testFiltersStaySequential() {
+		List<Row> rows = rows(5000);
+		assertEquals(parallel.toString(rows, OmitNullFieldVisitor::new),
+				sequential.toString(rows, OmitNullFieldVisitor::new));
+	}
+
+	@Test
+	public void testErrors() {
+		List<Object> items = new ArrayList<>(rows(5000));
+		items.set(4321, new Bomb());
+		assertThrows(RuntimeException.class, () -> parallel.toString(items));
+		// the pool is still usable afterwards
+		assertIdentical(rows(5000));
+	}
+
+	@Test
+	public void testErrorsReleaseBuffers() {
+		var counting = new BufferPoolTest.CountingPool(new StripedBufferPool());
+		Json json = Json.builder().models(Models.builder().bufferPool(counting).build()).parallelWrites(1000, pool)
+				.build();
+		// failures in the first, a middle and the last chunk
+		for (int bomb : new int[] { 10, 12345, 19999 }) {
+			List<Object> items = new ArrayList<>(rows(20000));
+			items.set(bomb, new Bomb());
+			assertThrows(RuntimeException.class, () -> json.toString(items));
+			assertThrows(RuntimeException.class, () -> json.write(items, new ByteArrayOutputStream()));
+			assertEquals(counting.outstanding.get(), 0, "after failing at " + bomb);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+import com.bigcloud.djomo.error.ModelException;
+
+public class PathReadTest {
+	Json json = new Json();
+
+	private Path write(String content) throws IOException {
+		Path path = Files.createTempFile("djomo", ".json");
+		path.toFile().deleteOnExit();
+		Files.writeString(path, content, StandardCharsets.UTF_8);
+		return path;
+	}
+
+	@Test
+	public void testReadPath() throws IOException {
+		var path = write("{\"name\":\"naïve ☃\",\"count\":12,\"enabled\":true}");
+		var model = json.read(path, MutableModel.class);
+		assertEquals(model, MutableModel.builder().name("naïve ☃").count(12).enabled(true).build());
+		assertEquals(json.read(path), Map.of("name", "naïve ☃", "count", 12, "enabled", true));
+		var merged = json.read(path, MutableModel.builder().name("other").count(3).build());
+		assertEquals(merged.getCount(), 12);
+	}
+
+	@Test
+	public void testReadLargePath() throws IOException {
+		// read whole, so values span what used to be block boundaries
+		var items = IntStream.range(0, 20000)
+				.mapToObj(i -> MutableModel.builder().name("model ü" + i).count(i * 7).enabled(i % 3 == 0).build())
+				.toList();
+		var path = write(json.toString(items));
+		assertEquals(json.read(path, new StaticType<List<MutableModel>>() {}), items);
+	}
+
+	@Test
+	public void testReadPathParallel() throws IOException {
+		var pool = new ForkJoinPool(3);
+		try {
+			var parallel = Json.builder().parallelReads(100, pool).build();
+			var items = IntStream.range(0, 5000)
+					.mapToObj(i -> MutableModel.builder().name("model ü" + i).count(i).enabled(i % 2 == 0).build())
+					.toList();
+			var path = write(json.toString(items));
+			assertEquals(parallel.read(path, new StaticType<List<MutableModel>>() {}), items);
+			assertEquals(parallel.read(path), json.read(path));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expectedExceptions = ModelException.class)
+	public void testReadEmptyPath() throws IOException {
+		json.read(write(""), MutableModel.class);
+	}
+}
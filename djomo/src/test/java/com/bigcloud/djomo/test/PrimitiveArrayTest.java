@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.api.ListModel;
+import com.bigcloud.djomo.base.BaseParserFilter;
+import com.bigcloud.djomo.base.BaseVisitorFilter;
+import com.bigcloud.djomo.list.DoubleArrayModel;
+import com.bigcloud.djomo.list.IntArrayModel;
+import com.bigcloud.djomo.list.LongArrayModel;
+
+public class PrimitiveArrayTest {
+	Json json = new Json();
+
+	public record Series(String name, int[] ints, long[] longs, double[] doubles) {
+	}
+
+	public static class DoubleInts extends BaseVisitorFilter {
+		@Override
+		public void visitInt(int value) {
+			visitor.visitInt(value * 2);
+		}
+	}
+
+	public static class IncrementInts extends BaseParserFilter {
+		@Override
+		public int parseInt() {
+			return parser.parseInt() + 1;
+		}
+	}
+
+	@Test
+	public void testModels() {
+		assertTrue(json.models().get(int[].class) instanceof IntArrayModel);
+		assertTrue(json.models().get(long[].class) instanceof LongArrayModel);
+		assertTrue(json.models().get(double[].class) instanceof DoubleArrayModel);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		for (int n : new int[] { 0, 1, 16, 17, 1000 }) {
+			int[] ints = IntStream.range(0, n).map(i -> i % 2 == 0 ? i * 7919 : Integer.MIN_VALUE + i).toArray();
+			long[] longs = LongStream.range(0, n).map(i -> i % 2 == 0 ? i * 1_000_000_007L : Long.MAX_VALUE - i)
+					.toArray();
+			double[] doubles = IntStream.range(0, n).mapToDouble(i -> i / 3.0 - 100).toArray();
+			String str = json.toString(ints);
+			assertEquals(str, json.toString(IntStream.of(ints).boxed().toList()));
+			assertEquals(json.fromString(str, int[].class), ints);
+			assertEquals(json.read(str.getBytes(StandardCharsets.UTF_8), int[].class), ints);
+			assertEquals(json.fromString(json.toString(longs), long[].class), longs);
+			assertEquals(json.fromString(json.toString(doubles), double[].class), doubles);
+			Series series = new Series("s" + n, ints, longs, doubles);
+			Series parsed = json.fromString(json.toString(series, "  "), Series.class);
+			assertEquals(parsed.ints(), ints);
+			assertEquals(parsed.longs(), longs);
+			assertEquals(parsed.doubles(), doubles);
+		}
+	}
+
+	@Test
+	public void testConvert() {
+		ListModel<long[]> model = json.models().get(long[].class);
+		assertEquals(model.convert(List.of(1, 2L, 3.0)), new long[] { 1, 2, 3 });
+		assertEquals(model.make(model.maker(new long[] { 4, 5 })), new long[] { 4, 5 });
+		assertEquals(model.stream(new long[] { 6, 7 }).toList(), List.of(6L, 7L));
+	}
+
+	@Test
+	public void testFilters() throws IOException {
+		assertEquals(json.toString(new int[] { 1, 2, 3 }, DoubleInts::new), "[2,4,6]");
+		assertEquals(json.fromString("[1,2,3]", int[].class, IncrementInts::new), new int[] { 2, 3, 4 });
+	}
+}
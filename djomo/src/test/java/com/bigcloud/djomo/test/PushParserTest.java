@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+import com.bigcloud.djomo.error.ModelException;
+
+public class PushParserTest {
+	Json json = new Json();
+
+	private List<MutableModel> models(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> MutableModel.builder().name("m\"{[ü" + i + "]}\\").count(i).enabled(i % 2 == 1).build())
+				.toList();
+	}
+
+	@Test
+	public void testChunkedObject() throws IOException {
+		var model = MutableModel.builder().name("push ☃ \\\"quoted\\\" {x}").count(-5).enabled(true).build();
+		byte[] bytes = json.toString(model).getBytes(StandardCharsets.UTF_8);
+		for (int chunk = 1; chunk <= bytes.length; chunk++) {
+			List<MutableModel> results = new ArrayList<>();
+			var push = json.pushParser(MutableModel.class, results::add);
+			for (int i = 0; i < bytes.length; i += chunk) {
+				assertEquals(results.size(), 0);
+				push.feed(ByteBuffer.wrap(bytes, i, Math.min(chunk, bytes.length - i)));
+			}
+			push.end();
+			assertEquals(results, List.of(model));
+		}
+	}
+
+	@Test
+	public void testArrayItems() throws IOException {
+		var items = models(500);
+		byte[] bytes = json.toString(items, "  ").getBytes(StandardCharsets.UTF_8);
+		List<MutableModel> results = new ArrayList<>();
+		var push = json.pushArrayParser(MutableModel.class, results::add);
+		Random random = new Random(42);
+		ByteBuffer direct = ByteBuffer.allocateDirect(64);
+		int pos = 0;
+		while (pos < bytes.length) {
+			int len = Math.min(1 + random.nextInt(64), bytes.length - pos);
+			direct.clear();
+			direct.put(bytes, pos, len).flip();
+			push.feed(direct);
+			pos += len;
+			// items are emitted as soon as they are complete, not at the end
+			if (pos > bytes.length / 2) {
+				assertEquals(results.isEmpty(), false);
+			}
+		}
+		push.end();
+		assertEquals(results, items);
+	}
+
+	@Test
+	public void testTopLevelValues() throws IOException {
+		byte[] bytes = "{\"a\":[1,{}]}\n\"s\\\"\" 12 [] true\r\nnull -4.5e2".getBytes(StandardCharsets.UTF_8);
+		List<Object> results = new ArrayList<>();
+		var push = json.pushParser(Object.class, results::add);
+		for (byte b : bytes) {
+			push.feed(new byte[] { b }, 0, 1);
+		}
+		assertEquals(results.size(), 6);
+		push.end();
+		assertEquals(results, Arrays.asList(Map.of("a", List.of(1, Map.of())), "s\"", 12, List.of(), true,
+				null, json.fromString("-4.5e2")));
+	}
+
+	@Test
+	public void testTypedArrayItems() throws IOException {
+		List<List<Integer>> results = new ArrayList<>();
+		var push = json.pushArrayParser(new StaticType<List<Integer>>() {}, results::add);
+		push.feed(ByteBuffer.wrap("[[1,2],[], [3".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(results, List.of(List.of(1, 2), List.of()));
+		push.feed(ByteBuffer.wrap("]]".getBytes(StandardCharsets.UTF_8)));
+		push.end();
+		assertEquals(results, List.of(List.of(1, 2), List.of(), List.of(3)));
+	}
+
+	@Test
+	public void testFeedAfterFailure() throws IOException {
+		List<Integer> results = new ArrayList<>();
+		var push = json.pushParser(Integer.class, results::add);
+		push.feed("[1, ".getBytes(StandardCharsets.UTF_8), 0, 4);
+		assertThrows(RuntimeException.class, () -> push.feed("2] ".getBytes(StandardCharsets.UTF_8), 0, 3));
+		push.feed("3".getBytes(StandardCharsets.UTF_8), 0, 1);
+		push.feed("4 5".getBytes(StandardCharsets.UTF_8), 0, 3);
+		push.end();
+		assertEquals(results, List.of(34, 5));
+	}
+
+	@Test(expectedExceptions = ModelException.class)
+	public void testTruncated() throws IOException {
+		var push = json.pushParser(MutableModel.class, m -> {
+		});
+		push.feed("{\"name\":\"x".getBytes(StandardCharsets.UTF_8), 0, 10);
+		push.end();
+	}
+
+	@Test(expectedExceptions = ModelException.class)
+	public void testNotArray() throws IOException {
+		json.pushArrayParser(MutableModel.class, m -> {
+		}).feed("{}".getBytes(StandardCharsets.UTF_8), 0, 2);
+	}
+}
@@ -25,6 +25,7 @@ import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.annotation.Order;
 import com.bigcloud.djomo.api.ObjectModel;
 import com.bigcloud.djomo.base.InstanceParser;
+import com.bigcloud.djomo.object.RecordModel;
 
 public class RecordTest {
 	Models models = new Models();
@@ -59,6 +60,45 @@ public class RecordTest {
 		model.make(model.maker());
 	}
 
+	@Test
+	public void testPrimitiveComponents() throws IOException {
+		Primitives p = new Primitives(true, (byte) -3, 'x', (short) 300, 123456789, -9876543210L, 1.5f, Math.PI, "label");
+		String out = json.toString(p);
+		Assert.assertEquals(json.fromString(out, Primitives.class), p);
+		p = new Primitives(false, Byte.MIN_VALUE, '\u0000', Short.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE,
+				-0.0f, Double.MIN_VALUE, null);
+		out = json.toString(p);
+		Assert.assertEquals(json.fromString(out, Primitives.class), p);
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testArgsArray() {
+		RecordModel<Primitives> model = (RecordModel<Primitives>) models.get(Primitives.class);
+		Object[] args = model.newArgs();
+		Assert.assertEquals(args.length, 9);
+		Object[] values = { true, (byte) -3, 'x', (short) 300, 123456789, -9876543210L, 1.5f, Math.PI, "label" };
+		System.arraycopy(values, 0, args, 0, args.length);
+		Assert.assertEquals(model.create(args),
+				new Primitives(true, (byte) -3, 'x', (short) 300, 123456789, -9876543210L, 1.5f, Math.PI, "label"));
+		args[4] = null;
+		var e = Assert.expectThrows(RuntimeException.class, () -> model.create(args));
+		Assert.assertTrue(e.getMessage().contains("missing primitive component i"), e.getMessage());
+	}
+
+	@Test
+	public void testMissingPrimitive() throws IOException {
+		var e = Assert.expectThrows(RuntimeException.class,
+				() -> json.fromString("{\"to\":\"nobody\"}", Envelope.class));
+		Assert.assertTrue(e.getMessage().contains("id"), e.getMessage());
+		Envelope envelope = json.fromString("{\"id\":0}", Envelope.class);
+		Assert.assertEquals(envelope, new Envelope(0, null, null));
+	}
+
+	public static record Primitives(boolean flag, byte b, char c, short s, int i, long l, float f, double d,
+			String label) {
+	}
+
 	@Order({ "id", "to" })
 	public static record Envelope(int id, String to, Message message) {
 	};
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+import com.bigcloud.djomo.base.BaseParserFilter;
+import com.bigcloud.djomo.error.ModelException;
+import com.bigcloud.djomo.filter.parsers.ExcludeParser;
+import com.bigcloud.djomo.filter.parsers.LimitParser;
+
+public class SkipTest {
+	Json json = new Json();
+
+	static final String DOC = "{\"junk\":{\"a\":[1,2,{\"b\":\"}]\\\"[{\"}],\"c\":null}, \"name\":\"keep\","
+			+ "\"more\" : [ [ ], { }, \"\\\\\", -1.5e3, true, false, null ] , \"count\":3,"
+			+ "\"tail\":\"x\\\"y\", \"num\" : 12345 , \"bool\":false,\"enabled\":true,\"last\":{}}";
+
+	static final MutableModel EXPECTED = MutableModel.builder().name("keep").count(3).enabled(true).build();
+
+	/**
+	 * Fails the read if a discarded value is materialized instead of skipped
+	 */
+	static final BaseParserFilter NO_PARSE = new BaseParserFilter() {
+		@Override
+		public Object parse() {
+			throw new ModelException("Unknown field value should have been skipped");
+		}
+	};
+
+	@Test
+	public void testSkipUnknownFields() throws IOException {
+		assertEquals(json.fromString(DOC, MutableModel.class, NO_PARSE), EXPECTED);
+		byte[] bytes = DOC.getBytes(StandardCharsets.UTF_8);
+		assertEquals(json.read(bytes, MutableModel.class, NO_PARSE), EXPECTED);
+		for (int chunk = 1; chunk < 8; chunk++) {
+			assertEquals(json.read(new Utf8ParserTest.TrickleInputStream(bytes, chunk), MutableModel.class, NO_PARSE),
+					EXPECTED);
+		}
+	}
+
+	@Test
+	public void testSkipExcludedFields() throws IOException {
+		var exclude = new ExcludeParser(MutableModel.class, "name");
+		var expected = MutableModel.builder().count(3).enabled(true).build();
+		assertEquals(json.fromString(DOC, MutableModel.class, exclude, NO_PARSE), expected);
+		assertEquals(json.read(DOC.getBytes(StandardCharsets.UTF_8), MutableModel.class, exclude, NO_PARSE), expected);
+	}
+
+	@Test
+	public void testSkipLimitedItems() throws IOException {
+		var type = new StaticType<List<List<Object>>>() {};
+		String str = "[[1,{\"a\":[\"]\"]}], [\"x\"], [], [[[[]]]] , \"s\"]";
+		assertEquals(json.fromString(str, type, new LimitParser(1)), List.of(List.of(1)));
+		assertEquals(json.read(str.getBytes(StandardCharsets.UTF_8), type, new LimitParser(1)),
+				List.of(List.of(1)));
+	}
+
+	@Test(expectedExceptions = ModelException.class)
+	public void testSkipTruncated() throws IOException {
+		json.read(new Utf8ParserTest.TrickleInputStream("{\"junk\":[1,[2".getBytes(StandardCharsets.UTF_8), 3),
+				MutableModel.class);
+	}
+}
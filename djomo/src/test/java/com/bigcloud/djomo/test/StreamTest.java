@@ -18,8 +18,12 @@ package com.bigcloud.djomo.test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
 import org.testng.Assert;
@@ -30,6 +34,7 @@ import com.bigcloud.djomo.Models;
 import com.bigcloud.djomo.StaticType;
 import com.bigcloud.djomo.api.ListModel;
 import com.bigcloud.djomo.base.InstanceParser;
+import com.bigcloud.djomo.error.ModelException;
 
 public class StreamTest {
 	Models Models = new Models();
@@ -45,4 +50,56 @@ public class StreamTest {
 		});
 		Assert.assertEquals(rt, orig);
 	}
+
+	@Test
+	public void testReadStream() throws IOException {
+		// a generated array far larger than the read buffer, never held in memory at once
+		int count = 200000;
+		InputStream in = new InputStream() {
+			int item = -1;
+			byte[] current = "[".getBytes(StandardCharsets.UTF_8);
+			int pos = 0;
+
+			@Override
+			public int read() throws IOException {
+				if (pos == current.length) {
+					if (++item > count) {
+						return -1;
+					}
+					String next = item == count ? "]"
+							: (item > 0 ? "," : "") + "{\"name\":\"item" + item + "\",\"count\":" + item + "}";
+					current = next.getBytes(StandardCharsets.UTF_8);
+					pos = 0;
+				}
+				return current[pos++];
+			}
+		};
+		var total = Json.readStream(in, MutableModel.class).mapToLong(MutableModel::getCount).sum();
+		Assert.assertEquals(total, (long) count * (count - 1) / 2);
+	}
+
+	@Test
+	public void testReadIterator() throws IOException {
+		String str = " [ {\"name\":\"a\"} , null, {\"name\":\"b\",\"junk\":[1,2]} ] ";
+		var it = Json.readIterator(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8)), MutableModel.class);
+		Assert.assertTrue(it.hasNext());
+		Assert.assertTrue(it.hasNext());
+		Assert.assertEquals(it.next().getName(), "a");
+		Assert.assertNull(it.next());
+		Assert.assertEquals(it.next().getName(), "b");
+		Assert.assertFalse(it.hasNext());
+		Assert.assertThrows(NoSuchElementException.class, it::next);
+		var fromReader = Json.readStream(new StringReader(str), MutableModel.class).toList();
+		Assert.assertEquals(fromReader.size(), 3);
+		Assert.assertEquals(fromReader.get(2).getName(), "b");
+		var typed = Json.readStream(new StringReader("[[1,2],[],[3]]"), new StaticType<List<Integer>>() {}).toList();
+		Assert.assertEquals(typed, List.of(List.of(1, 2), List.of(), List.of(3)));
+		Assert.assertFalse(Json.readIterator(new StringReader("[]"), String.class).hasNext());
+		Assert.assertFalse(Json.readIterator(new StringReader("null"), String.class).hasNext());
+	}
+
+	@Test(expectedExceptions = ModelException.class)
+	public void testReadStreamNotArray() throws IOException {
+		Json.readStream(new StringReader("{\"a\":1}"), String.class).count();
+	}
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+import com.bigcloud.djomo.StaticType;
+
+public class Utf8ParserTest {
+	Json json = new Json();
+
+	static final String DOC = "{\"name\":\"café ☃ 😀 plain\", \"escaped\" : \"a\\\"b\\\\c\\n\\u00e9\\u4f60\", "
+			+ "\"numbers\":[0,-1,123456789,-9876543210,3.25,-1.5E-7,1e300], \"flags\":[true,false,null], "
+			+ "\"nested\":{\"über\":{\"deep\":[[],{},\"\"]}}}";
+
+	@Test
+	public void testParity() throws IOException {
+		Object fromString = json.fromString(DOC);
+		byte[] bytes = DOC.getBytes(StandardCharsets.UTF_8);
+		assertEquals(json.read(bytes), fromString);
+		assertEquals(json.read(new ByteArrayInputStream(bytes)), fromString);
+		for (int chunk = 1; chunk < 8; chunk++) {
+			assertEquals(json.read(new TrickleInputStream(bytes, chunk)), fromString);
+		}
+	}
+
+	@Test
+	public void testTypedTrickle() throws IOException {
+		var model = MutableModel.builder().name("été 🌞 long enough to cross many small reads").count(-42)
+				.enabled(true).build();
+		byte[] bytes = json.toString(model).getBytes(StandardCharsets.UTF_8);
+		for (int chunk = 1; chunk < 8; chunk++) {
+			assertEquals(json.read(new TrickleInputStream(bytes, chunk), MutableModel.class), model);
+		}
+	}
+
+	@Test
+	public void testPrimitiveRecord() throws IOException {
+		String str = "[{ \"i\": 7 , \"l\" : -8000000000, \"d\": 0.125 , \"f\":2.5, \"b\":true, \"s\":\"x\"},"
+				+ "{\"i\":-7,\"l\":8,\"d\":-2E3,\"f\":-0.5,\"b\":false,\"s\":null}]";
+		List<Prims> expected = List.of(new Prims(7, -8000000000L, 0.125, 2.5f, true, "x"),
+				new Prims(-7, 8, -2000, -0.5f, false, null));
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		StaticType<List<Prims>> type = new StaticType<List<Prims>>() {};
+		assertEquals(json.read(bytes, type), expected);
+		for (int chunk = 1; chunk < 8; chunk++) {
+			assertEquals(json.read(new TrickleInputStream(bytes, chunk), type), expected);
+		}
+	}
+
+	@Test
+	public void testTopLevelScalars() throws IOException {
+		assertEquals(json.read("42".getBytes(StandardCharsets.UTF_8)), 42);
+		assertEquals(json.read(" 4.5 ".getBytes(StandardCharsets.UTF_8), Double.class), 4.5);
+		assertEquals(json.read("\"é\"".getBytes(StandardCharsets.UTF_8)), "é");
+		assertEquals(json.read(new TrickleInputStream("123".getBytes(StandardCharsets.UTF_8), 1), Long.class), 123L);
+	}
+
+	@Test
+	public void testMapKeys() throws IOException {
+		byte[] bytes = "{\"é\":1,\"a\\tb\":2,\"plain\":3}".getBytes(StandardCharsets.UTF_8);
+		assertEquals(json.read(bytes), Map.of("é", 1, "a\tb", 2, "plain", 3));
+	}
+
+	public static record Prims(int i, long l, double d, float f, boolean b, String s) {
+	}
+
+	/**
+	 * Hands out at most a few bytes per read, to push multi-byte sequences,
+	 * escapes and numbers across buffer boundaries
+	 */
+	static class TrickleInputStream extends InputStream {
+		final byte[] data;
+		final int chunk;
+		int pos;
+
+		TrickleInputStream(byte[] data, int chunk) {
+			this.data = data;
+			this.chunk = chunk;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return pos < data.length ? data[pos++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (pos == data.length) {
+				return -1;
+			}
+			int n = Math.min(Math.min(len, chunk), data.length - pos);
+			System.arraycopy(data, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+}
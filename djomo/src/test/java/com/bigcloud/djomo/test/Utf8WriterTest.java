@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2022 Alex Vigdor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.bigcloud.djomo.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.bigcloud.djomo.Json;
+
+public class Utf8WriterTest {
+	Json json = new Json();
+
+	private void assertParity(Object data) {
+		var baos = new ByteArrayOutputStream();
+		json.write(data, baos);
+		assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), json.toString(data));
+		baos = new ByteArrayOutputStream();
+		json.write(data, baos, "  ");
+		assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), json.toString(data, "  "));
+	}
+
+	@Test
+	public void testScalars() {
+		for (Object value : Arrays.asList(0, 7, -7, 10, 99, 100, -100, Integer.MAX_VALUE, Integer.MIN_VALUE, 0L,
+				Long.MAX_VALUE, Long.MIN_VALUE, -1234567890123L, 1.5f, -0.0f, Float.MIN_VALUE, 3.141592653589793,
+				1e300, -2.5e-300, true, false, null, "")) {
+			assertParity(value);
+		}
+	}
+
+	@Test
+	public void testStrings() {
+		assertParity("plain ascii");
+		assertParity("esc \" \\ / \n \r \t \f \b \u0000 \u001f \u007f");
+		assertParity("latin é ß, cjk 中文, separators    , emoji 😀🇭🇳");
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 30000; i++) {
+			// mix widths so multi-byte sequences and escapes land on every buffer offset
+			builder.append(i % 7 == 0 ? "é" : i % 11 == 0 ? "😀" : i % 13 == 0 ? "\n" : i % 17 == 0 ? "中" : "a");
+		}
+		assertParity(builder.toString());
+		assertParity(List.of(builder.toString(), builder.toString()));
+	}
+
+	@Test
+	public void testStructures() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("name", "mäp");
+		map.put("empty", Map.of());
+		map.put("list", List.of(1, 2.5, "x", List.of(), Map.of("k\"ey", false)));
+		map.put("nothing", null);
+		List<Object> big = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			big.add(MutableModel.builder().name("model ü" + i).count(i * 31).enabled(i % 2 == 0).build());
+		}
+		map.put("big", big);
+		assertParity(map);
+		var baos = new ByteArrayOutputStream();
+		json.write(map, baos);
+		assertEquals(json.read(baos.toByteArray()), json.fromString(json.toString(map)));
+	}
+}